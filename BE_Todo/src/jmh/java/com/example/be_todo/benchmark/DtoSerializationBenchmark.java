@@ -0,0 +1,99 @@
+package com.example.be_todo.benchmark;
+
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.UserDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí dựng response cho các endpoint danh sách: Task -> TaskDTO, User -> UserDTO và Jackson ra byte[].
+ * ObjectMapper dựng giống Spring Boot (Jackson2ObjectMapperBuilder, có JavaTimeModule).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Task> tasks;
+    private List<TaskDTO> taskDtos;
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User owner = JwtServiceBenchmark.sampleUser();
+        List<TaskCategory> categories = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TaskCategory category = new TaskCategory();
+            category.setId((long) i + 1);
+            category.setName("Category " + i);
+            category.setColor("#1677ff");
+            categories.add(category);
+        }
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+        tasks = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(Task.builder()
+                    .id((long) i + 1)
+                    .title("Task " + i)
+                    .description("Mô tả chi tiết cho task số " + i)
+                    .status(Status.values()[i % Status.values().length])
+                    .priority(Priority.values()[i % Priority.values().length])
+                    .dueDate(i % 4 == 0 ? null : now.plusDays(i))
+                    .createdAt(now)
+                    .updatedAt(now.plusHours(i))
+                    .user(owner)
+                    .category(i % 3 == 0 ? null : categories.get(i % categories.size()))
+                    .build());
+            users.add(User.builder()
+                    .id((long) i + 1)
+                    .username("user" + i)
+                    .name("User " + i)
+                    .email("user" + i + "@example.com")
+                    .build());
+        }
+        taskDtos = tasks.stream().map(TaskDTO::from).toList();
+    }
+
+    @Benchmark
+    public List<TaskDTO> taskDtoFrom() {
+        return tasks.stream().map(TaskDTO::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeTaskDtos() throws Exception {
+        return objectMapper.writeValueAsBytes(taskDtos);
+    }
+
+    // Đường đầy đủ của GET /api/admin/tasks/user/{id}: map entity rồi serialize
+    @Benchmark
+    public byte[] taskDtoFromAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(tasks.stream().map(TaskDTO::from).toList());
+    }
+
+    @Benchmark
+    public List<UserDTO> userDtoFrom() {
+        return users.stream().map(UserDTO::from).toList();
+    }
+}
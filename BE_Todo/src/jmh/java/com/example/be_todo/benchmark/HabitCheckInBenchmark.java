@@ -0,0 +1,83 @@
+package com.example.be_todo.benchmark;
+
+import com.example.be_todo.habit.CheckInBitmap;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streak + tỉ lệ hoàn thành của 1 habit có lịch sử {@code years} năm (~70% ngày có check-in):
+ * CheckInBitmap (theo word) so với duyệt danh sách ngày đã sắp xếp, tức cách làm khi mỗi check-in là 1 dòng.
+ * checkIn đo đúng việc HabitServiceImpl làm mỗi lần check-in: đọc bitmap từ byte, bật 1 bit, ghi lại byte.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HabitCheckInBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int years;
+
+    private LocalDate start;
+    private LocalDate today;
+    private int todayIndex;
+    private byte[] stored;
+    private CheckInBitmap bitmap;
+    private List<LocalDate> rows;
+
+    @Setup
+    public void setup() {
+        today = LocalDate.of(2026, 1, 1);
+        start = today.minusYears(years);
+        todayIndex = (int) (today.toEpochDay() - start.toEpochDay());
+        bitmap = new CheckInBitmap();
+        rows = new ArrayList<>();
+        Random random = new Random(7);
+        for (int day = 0; day <= todayIndex; day++) {
+            if (random.nextDouble() < 0.7) {
+                bitmap.set(day);
+                rows.add(start.plusDays(day));
+            }
+        }
+        stored = bitmap.toBytes();
+    }
+
+    @Benchmark
+    public long bitmapStats() {
+        return bitmap.currentStreak(todayIndex) + bitmap.longestStreak() + bitmap.count(0, todayIndex);
+    }
+
+    @Benchmark
+    public long rowScanStats() {
+        int longest = 0;
+        int run = 0;
+        LocalDate previous = null;
+        for (LocalDate day : rows) {
+            run = previous != null && previous.plusDays(1).equals(day) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day;
+        }
+        // Chuỗi hiện tại: đi lùi từ hôm nay (hoặc hôm qua nếu hôm nay chưa check-in)
+        int current = 0;
+        LocalDate expected = rows.get(rows.size() - 1).equals(today) ? today : today.minusDays(1);
+        for (int i = rows.size() - 1; i >= 0 && rows.get(i).equals(expected); i--) {
+            current++;
+            expected = expected.minusDays(1);
+        }
+        return current + longest + rows.size();
+    }
+
+    @Benchmark
+    public byte[] checkIn() {
+        CheckInBitmap loaded = CheckInBitmap.fromBytes(stored);
+        loaded.set(todayIndex);
+        return loaded.toBytes();
+    }
+}
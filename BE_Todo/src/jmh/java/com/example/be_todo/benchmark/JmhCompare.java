@@ -0,0 +1,109 @@
+package com.example.be_todo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * So sánh 2 file kết quả JMH (-rf json): JmhCompare &lt;baseline.json&gt; &lt;current.json&gt; [thresholdPercent].
+ * Benchmark nào chậm hơn baseline quá ngưỡng (mặc định 10%) và vượt cả sai số của 2 lần đo bị coi là regression,
+ * khi đó thoát với mã 1 để CI fail.
+ */
+public final class JmhCompare {
+
+    private record Result(String mode, double score, double error, String unit) {
+
+        // avgt / sample / ss: số càng nhỏ càng tốt; thrpt: số càng lớn càng tốt
+        boolean lowerIsBetter() {
+            return !"thrpt".equals(mode);
+        }
+    }
+
+    private JmhCompare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhCompare <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-60s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "Unit");
+        for (Map.Entry<String, Result> entry : new TreeMap<>(current).entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-60s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.score(), "new", now.unit());
+                continue;
+            }
+            if (!before.unit().equals(now.unit()) || !before.mode().equals(now.mode())) {
+                System.out.printf("%-60s %14s %14s %9s  %s -> %s%n",
+                        entry.getKey(), "-", "-", "unit?", before.unit(), now.unit());
+                continue;
+            }
+
+            double change = (now.score() - before.score()) / before.score() * 100;
+            double worse = now.lowerIsBetter() ? change : -change;
+            // Chỉ tính là chậm đi khi khoảng chênh lớn hơn tổng sai số (99.9%) của 2 lần đo
+            boolean beyondError = Math.abs(now.score() - before.score()) > before.error() + now.error();
+            boolean regression = worse > threshold && beyondError;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-60s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(),
+                    before.score(), now.score(), change, now.unit(), regression ? "  <-- REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-60s %14s %14s %9s%n", missing, "", "-", "missing");
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%n%d benchmark(s) regressed more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+        System.out.printf("%nNo regression above %.1f%%%n", threshold);
+    }
+
+    // Key = Class.method + params, ví dụ "DtoSerializationBenchmark.serializeTaskDtos(size=100)"
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            String benchmark = node.path("benchmark").asText();
+            int method = benchmark.lastIndexOf('.');
+            StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1));
+            JsonNode params = node.path("params");
+            if (params.isObject() && !params.isEmpty()) {
+                key.append('(');
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(param.getKey()).append('=').append(param.getValue().asText());
+                    if (fields.hasNext()) {
+                        key.append(", ");
+                    }
+                }
+                key.append(')');
+            }
+            JsonNode metric = node.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            results.put(key.toString(), new Result(
+                    node.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.be_todo.benchmark;
+
+import com.example.be_todo.entity.User;
+import com.example.be_todo.security.JwtAuthenticationFilter;
+import com.example.be_todo.security.JwtService;
+import com.example.be_todo.security.UserDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toàn bộ JwtAuthenticationFilter cho 1 request có Bearer token: verify token (cache) + dựng Authentication.
+ * strictMode = true thêm bước đối chiếu roles qua UserDetailsCache (không chạm DB khi cache hit).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean strictMode;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+    private Authentication authentication;
+
+    @Setup
+    public void setup() {
+        JwtService jwtService = new JwtService(JwtServiceBenchmark.SECRET, 3_600_000, 604_800_000, 10_000, new SimpleMeterRegistry());
+        User user = JwtServiceBenchmark.sampleUser();
+        user.setPassword("x");
+        UserDetailsCache userDetailsCache = new UserDetailsCache(10_000, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        filter = new JwtAuthenticationFilter(jwtService,
+                username -> userDetailsCache.get(username, key -> Optional.of(user))
+                        .orElseThrow(() -> new UsernameNotFoundException("User not found")),
+                strictMode);
+
+        request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateAccessToken(user));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> authentication = SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        try {
+            // OncePerRequestFilter đánh dấu request đã lọc bằng attribute: xoá để mỗi lần gọi chạy lại đầy đủ
+            request.clearAttributes();
+            filter.doFilter(request, response, chain);
+            return authentication;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
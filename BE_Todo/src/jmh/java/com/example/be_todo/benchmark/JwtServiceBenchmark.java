@@ -0,0 +1,88 @@
+package com.example.be_todo.benchmark;
+
+import com.example.be_todo.entity.Role;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.security.JwtService;
+import com.example.be_todo.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * So sánh đường verify token cũ (dựng key + parser mỗi lần, parse 3 lần/request)
+ * với validateAndExtract (parser dùng chung, parse 1 lần) có và không có cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "mysupersecretkey_12345678901234567890";
+
+    private JwtService cachedService;
+    private JwtService uncachedService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cachedService = new JwtService(SECRET, 3_600_000, 604_800_000, 10_000, new SimpleMeterRegistry());
+        uncachedService = new JwtService(SECRET, 3_600_000, 604_800_000, 0, new SimpleMeterRegistry());
+        token = cachedService.generateAccessToken(sampleUser());
+    }
+
+    static User sampleUser() {
+        return User.builder()
+                .id(42L)
+                .username("alice")
+                .name("Alice")
+                .email("alice@example.com")
+                .roles(Set.of(Role.builder().id(1L).name("USER").build()))
+                .build();
+    }
+
+    @Benchmark
+    public boolean legacyValidate() {
+        // Tương đương JwtAuthenticationFilter cũ: extractUsername + isTokenValid (subject + expiration)
+        String username = legacyExtractClaim(token, Claims::getSubject);
+        return legacyExtractClaim(token, Claims::getSubject).equals(username)
+                && !legacyExtractClaim(token, Claims::getExpiration).before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken validateAndExtractUncached() {
+        return uncachedService.validateAndExtract(token);
+    }
+
+    @Benchmark
+    public VerifiedToken validateAndExtractCached() {
+        return cachedService.validateAndExtract(token);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return cachedService.generateAccessToken(sampleUser());
+    }
+
+    private static <T> T legacyExtractClaim(String token, Function<Claims, T> resolver) {
+        try {
+            Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+            Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+            return resolver.apply(claims);
+        } catch (ExpiredJwtException ex) {
+            return resolver.apply(ex.getClaims());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.be_todo.benchmark;
+
+import com.example.be_todo.BeTodoApplication;
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchOperationType;
+import com.example.be_todo.dto.TaskBatchResultDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1.000 thao tác đi từng request (findById + save mỗi task) so với 1 lần POST /api/tasks/batch.
+ * Chạy trên H2 in-memory (profile test): không có round-trip mạng nên chênh lệch nhỏ hơn trên MySQL thật.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskBatchBenchmark {
+
+    @Param({"1000"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private List<Long> taskIds;
+    private boolean completed;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(BeTodoApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .username("bench")
+                .name("Bench")
+                .email("bench@example.com")
+                .password("x")
+                .roles(new HashSet<>())
+                .build());
+        userId = user.getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void seedTasks() {
+        jdbcTemplate.update("delete from tasks");
+        taskIds = taskService.executeBatch(createOperations(), userId, false).stream()
+                .map(TaskBatchResultDTO::taskId)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    private List<TaskBatchOperationDTO> createOperations() {
+        List<TaskBatchOperationDTO> operations = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Task task = Task.builder().title("Task " + i).priority(Priority.MEDIUM).build();
+            operations.add(new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, task));
+        }
+        return operations;
+    }
+
+    private Status nextStatus() {
+        completed = !completed;
+        return completed ? Status.COMPLETED : Status.PENDING;
+    }
+
+    @Benchmark
+    public void perItemStatusUpdate() {
+        Status status = nextStatus();
+        for (Long taskId : taskIds) {
+            taskService.updateStatus(taskId, status, userId, false);
+        }
+    }
+
+    @Benchmark
+    public List<TaskBatchResultDTO> batchStatusUpdate() {
+        Status status = nextStatus();
+        List<TaskBatchOperationDTO> operations = new ArrayList<>(taskIds.size());
+        for (Long taskId : taskIds) {
+            operations.add(new TaskBatchOperationDTO(TaskBatchOperationType.UPDATE_STATUS, taskId, status, null));
+        }
+        return taskService.executeBatch(operations, userId, false);
+    }
+
+    @Benchmark
+    public void perItemCreate() {
+        for (int i = 0; i < items; i++) {
+            taskService.createTask(userId, Task.builder().title("Task " + i).build(), false);
+        }
+    }
+
+    @Benchmark
+    public List<TaskBatchResultDTO> batchCreate() {
+        return taskService.executeBatch(createOperations(), userId, false);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.be_todo.benchmark;
+
+import com.example.be_todo.calendar.UserCalendar;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kiểm tra trùng giờ cho 1 task mới của user có {@code tasks} task đã đặt giờ (rải trong 2 năm, dài 15 phút - 3 giờ):
+ * UserCalendar (interval tree) so với duyệt mọi khoảng của user, tức việc phải làm với mỗi lần tạo / sửa task
+ * nếu không có cây. update đo việc listener làm sau mỗi thao tác ghi: dời 1 task sang giờ khác.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskCalendarBenchmark {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final int SPAN_MINUTES = 2 * 365 * 24 * 60;
+
+    @Param({"100", "1000", "10000"})
+    public int tasks;
+
+    private UserCalendar calendar;
+    private long[] starts;
+    private long[] ends;
+    private LocalDateTime[] probes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        calendar = new UserCalendar();
+        starts = new long[tasks];
+        ends = new long[tasks];
+        for (int i = 0; i < tasks; i++) {
+            LocalDateTime start = ORIGIN.plusMinutes(random.nextInt(SPAN_MINUTES));
+            LocalDateTime end = start.plusMinutes(15 + random.nextInt(165));
+            calendar.put(i, start, end, true);
+            starts[i] = millis(start);
+            ends[i] = millis(end);
+        }
+        probes = new LocalDateTime[1024];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = ORIGIN.plusMinutes(random.nextInt(SPAN_MINUTES));
+        }
+    }
+
+    @Benchmark
+    public List<Long> treeConflicts() {
+        LocalDateTime start = probe();
+        return calendar.conflicts(start, start.plusHours(1), null, 50).taskIds();
+    }
+
+    @Benchmark
+    public List<Long> scanConflicts() {
+        LocalDateTime start = probe();
+        long from = millis(start);
+        long to = millis(start.plusHours(1));
+        List<Long> found = new ArrayList<>();
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < to && ends[i] > from) {
+                found.add((long) i);
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int update() {
+        LocalDateTime start = probe();
+        calendar.put(next % tasks, start, start.plusHours(1), true);
+        return calendar.size();
+    }
+
+    private LocalDateTime probe() {
+        return probes[next++ & (probes.length - 1)];
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.be_todo.benchmark;
+
+import com.example.be_todo.BeTodoApplication;
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchOperationType;
+import com.example.be_todo.dto.TaskSearchPageDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.service.TaskSearchService;
+import com.example.be_todo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/tasks/search (inverted index + 1 SELECT theo khoá chính cho trang kết quả) so với
+ * LIKE '%term%' trên title / description, cùng số task, cùng cỡ trang.
+ * Bảng tasks chứa task của {@code users} user, user được đo có {@code tasks} task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "mua", "sữa", "báo", "cáo", "họp", "nhóm", "gửi", "email", "khách", "hàng",
+            "thanh", "toán", "hoá", "đơn", "sửa", "lỗi", "đăng", "nhập", "dọn", "nhà"
+    };
+    private static final int PAGE_SIZE = 20;
+
+    // Cùng ý nghĩa với index: không phân biệt hoa thường, khớp ở bất kỳ đâu trong title / description
+    private static final String LIKE_SQL = "select t.id, t.title, t.description from tasks t " +
+            "where t.user_id = ? and (lower(t.title) like ? or lower(t.description) like ?) " +
+            "order by t.id limit ?";
+
+    @Param({"1000", "10000"})
+    public int tasks;
+
+    @Param({"10"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private TaskSearchService taskSearchService;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(BeTodoApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        taskSearchService = context.getBean(TaskSearchService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        TaskService taskService = context.getBean(TaskService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        for (int u = 0; u < users; u++) {
+            User user = userRepository.save(User.builder()
+                    .username("bench-search-" + u)
+                    .name("Bench")
+                    .email("bench-search-" + u + "@example.com")
+                    .password("x")
+                    .roles(new HashSet<>())
+                    .build());
+            if (u == 0) {
+                userId = user.getId();
+            }
+            List<TaskBatchOperationDTO> operations = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                Task task = Task.builder()
+                        .title(WORDS[i % WORDS.length] + " " + WORDS[(i / 7) % WORDS.length] + " " + i)
+                        .description("Ghi chú " + WORDS[(i * 3) % WORDS.length] + " " + WORDS[(i / 3) % WORDS.length])
+                        .priority(Priority.MEDIUM)
+                        .build();
+                operations.add(new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, task));
+            }
+            taskService.executeBatch(operations, user.getId(), false);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskSearchPageDTO indexSingleTerm() {
+        return taskSearchService.search(userId, "email", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TaskSearchPageDTO indexTwoTermsWithPrefix() {
+        return taskSearchService.search(userId, "khách hà", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> likeSingleTerm() {
+        return jdbcTemplate.queryForList(LIKE_SQL, userId, "%email%", "%email%", PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> likeTwoTermsWithPrefix() {
+        return jdbcTemplate.queryForList(LIKE_SQL, userId, "%khách hà%", "%khách hà%", PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Long likeCount() {
+        // Trang LIKE cần thêm COUNT(*) mới có total như kết quả của index
+        return jdbcTemplate.queryForObject("select count(*) from tasks t where t.user_id = ? " +
+                "and (lower(t.title) like ? or lower(t.description) like ?)", Long.class, userId, "%email%", "%email%");
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.be_todo.benchmark;
+
+import com.example.be_todo.BeTodoApplication;
+import com.example.be_todo.cache.TaskListCache;
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchOperationType;
+import com.example.be_todo.dto.TaskBatchResultDTO;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskPageDTO;
+import com.example.be_todo.dto.TaskSort;
+import com.example.be_todo.dto.TaskUpdateRequestDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Các method đọc/ghi của TaskServiceImpl trên H2 in-memory (profile test, schema từ Flyway).
+ * User có sẵn {@code tasks} task; các phép ghi chỉ đụng 1 task nên dữ liệu không tăng theo số lần gọi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    @Param({"1000"})
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskListCache taskListCache;
+    private Long userId;
+    private Long taskId;
+    private String secondPageCursor;
+    private boolean completed;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(BeTodoApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        taskListCache = context.getBean(TaskListCache.class);
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .username("bench-service")
+                .name("Bench")
+                .email("bench-service@example.com")
+                .password("x")
+                .roles(new HashSet<>())
+                .build());
+        userId = user.getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskBatchOperationDTO> operations = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = Task.builder()
+                    .title("Task " + i)
+                    .priority(Priority.MEDIUM)
+                    .dueDate(i % 4 == 0 ? null : now.plusDays(i))
+                    .build();
+            operations.add(new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, task));
+        }
+        List<TaskBatchResultDTO> created = taskService.executeBatch(operations, userId, false);
+        taskId = created.get(0).taskId();
+        secondPageCursor = taskService.getTaskPage(userId, null, TaskSort.DUE_DATE, null, 50).nextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> getTasksByUserCached() {
+        return taskService.getTasksByUser(userId);
+    }
+
+    @Benchmark
+    public List<TaskDTO> getTasksByUserUncached() {
+        taskListCache.evict(userId);
+        return taskService.getTasksByUser(userId);
+    }
+
+    @Benchmark
+    public TaskPageDTO getTaskPageFirst() {
+        return taskService.getTaskPage(userId, null, TaskSort.DUE_DATE, null, 50);
+    }
+
+    @Benchmark
+    public TaskPageDTO getTaskPageNext() {
+        return taskService.getTaskPage(userId, null, TaskSort.DUE_DATE, secondPageCursor, 50);
+    }
+
+    @Benchmark
+    public Task updateStatus() {
+        completed = !completed;
+        return taskService.updateStatus(taskId, completed ? Status.COMPLETED : Status.PENDING, userId, false);
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        completed = !completed;
+        TaskUpdateRequestDTO request = new TaskUpdateRequestDTO();
+        request.setTitle("Task 0");
+        request.setDescription(completed ? "done" : "todo");
+        request.setStatus(completed ? Status.COMPLETED : Status.PENDING);
+        request.setPriority(Priority.HIGH);
+        return taskService.updateTask(taskId, request, userId, false);
+    }
+
+    @Benchmark
+    public void createAndDeleteTask() {
+        Task created = taskService.createTask(userId, Task.builder().title("Tmp").build(), false);
+        taskService.deleteTask(created.getId(), userId, false);
+    }
+}
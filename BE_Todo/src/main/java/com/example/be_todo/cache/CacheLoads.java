@@ -0,0 +1,42 @@
+package com.example.be_todo.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Nạp giá trị cho Caffeine cache ngay trên thread gọi, nhưng ngoài lock của map.
+ * Cache.get(key, loader) chạy loader bên trong ConcurrentHashMap.compute (synchronized trên bin): loader truy vấn DB
+ * giữ lock đó suốt thời gian chờ DB, chặn cả các key khác rơi vào cùng bin, và ghim carrier thread khi chạy bằng
+ * virtual thread. Ở đây compute chỉ đặt 1 CompletableFuture rỗng, thread thắng tự nạp rồi complete, các thread khác
+ * cùng key chờ future (park được, không ghim).
+ */
+public final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                // Future lỗi bị Caffeine tự xoá khỏi cache, lần gọi sau nạp lại
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
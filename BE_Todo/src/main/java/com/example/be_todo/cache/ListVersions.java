@@ -0,0 +1,66 @@
+package com.example.be_todo.cache;
+
+import com.example.be_todo.event.TaskCategoryChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version của từng danh sách theo user, dùng làm ETag cho các endpoint FE poll: request có If-None-Match
+ * khớp được trả 304 mà không đọc DB hay serialize task.
+ * <ul>
+ *   <li>Version chỉ là 1 số không lặp lại (bộ đếm bắt đầu từ giá trị ngẫu nhiên mỗi lần khởi động),
+ *   cấp khi có người hỏi mà chưa có. Danh sách thay đổi thì xoá version, lần đọc sau nhận số mới.</li>
+ *   <li>Với danh sách task, TaskListCache xoá version <b>sau</b> khi xoá cache danh sách: request đọc
+ *   version mới thì chắc chắn cũng đọc danh sách mới.</li>
+ *   <li>Version hết hạn sau ttl: instance khác sửa dữ liệu thì instance này trả dữ liệu cũ
+ *   tối đa ttl, giống TaskListCache.</li>
+ * </ul>
+ */
+@Component
+public class ListVersions {
+
+    public enum ListKind {
+        TASKS, CATEGORIES
+    }
+
+    private record Key(Long userId, ListKind kind) {
+    }
+
+    private final Cache<Key, Long> versions;
+    private final AtomicLong sequence = new AtomicLong(new SecureRandom().nextLong());
+
+    public ListVersions(@Value("${tasks.list-versions.max-size:100000}") long maxSize,
+                        @Value("${tasks.list-versions.ttl:60s}") Duration ttl) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * ETag mạnh cho 1 danh sách của user. variant phân biệt các biểu diễn dùng chung 1 version
+     * (vd. danh sách lọc theo status), null nếu không có.
+     */
+    public String eTag(Long userId, ListKind kind, Object variant) {
+        long version = versions.get(new Key(userId, kind), key -> sequence.incrementAndGet());
+        return "\"" + kind.name().toLowerCase() + "-" + userId + "-" + (variant != null ? variant : "all")
+                + "-" + Long.toHexString(version) + "\"";
+    }
+
+    public void invalidate(Long userId, ListKind kind) {
+        versions.invalidate(new Key(userId, kind));
+    }
+
+    // Category không nằm trong TaskListCache, chỉ cần đổi version sau commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(TaskCategoryChangedEvent event) {
+        invalidate(event.userId(), ListKind.CATEGORIES);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.be_todo.cache;
+
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.event.TaskChangedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache danh sách task theo (user, status) cho các endpoint FE poll liên tục.
+ * status == null là danh sách đầy đủ. Mỗi user có tối đa 1 + số giá trị Status key,
+ * nên xoá theo user chỉ là invalidate vài key cố định.
+ */
+@Component
+public class TaskListCache {
+
+    public static final String CACHE_NAME = "taskLists";
+
+    private record Key(Long userId, Status status) {
+    }
+
+    private final AsyncCache<Key, List<TaskDTO>> cache;
+    private final ListVersions listVersions;
+    private final int maxUnpagedSize;
+
+    public TaskListCache(@Value("${tasks.list-cache.max-size:50000}") long maxSize,
+                         @Value("${tasks.list-cache.ttl:60s}") Duration ttl,
+                         @Value("${tasks.list.max-unpaged-size:5000}") int maxUnpagedSize,
+                         MeterRegistry meterRegistry,
+                         ListVersions listVersions) {
+        this.listVersions = listVersions;
+        this.maxUnpagedSize = maxUnpagedSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        // cache.gets / cache.puts / cache.evictions... với tag cache=taskLists
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // Loader chạy trên thread gọi, ngoài lock của map (xem CacheLoads). Invalidate trong lúc đang nạp
+    // bỏ luôn future đang chờ khỏi cache: kết quả cũ chỉ trả cho các request đã chờ từ trước, request sau nạp lại
+    public List<TaskDTO> get(Long userId, Status status, Supplier<List<TaskDTO>> loader) {
+        return CacheLoads.getOrLoad(cache, new Key(userId, status), key -> List.copyOf(loader.get()));
+    }
+
+    // Endpoint cũ trả toàn bộ list: query lấy tối đa max-unpaged-size + 1 dòng, vượt ngưỡng thì 400
+    // thay vì nạp hết vào bộ nhớ
+    public List<TaskDTO> getUnpaged(Long userId, Status status, Function<Limit, List<TaskDTO>> query) {
+        return get(userId, status, () -> {
+            List<TaskDTO> tasks = query.apply(Limit.of(maxUnpagedSize + 1));
+            if (tasks.size() > maxUnpagedSize) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "More than " + maxUnpagedSize + " tasks, use the paginated endpoint (/page)");
+            }
+            return tasks;
+        });
+    }
+
+    // ETag của danh sách (user, status); đọc trước khi lấy danh sách
+    public String eTag(Long userId, Status status) {
+        return listVersions.eTag(userId, ListVersions.ListKind.TASKS, status);
+    }
+
+    public void evict(Long userId) {
+        List<Key> keys = new ArrayList<>(Status.values().length + 1);
+        keys.add(new Key(userId, null));
+        for (Status status : Status.values()) {
+            keys.add(new Key(userId, status));
+        }
+        cache.synchronous().invalidateAll(keys);
+        // Sau khi xoá cache: ai thấy version mới thì cũng nạp lại danh sách mới
+        listVersions.invalidate(userId, ListVersions.ListKind.TASKS);
+    }
+
+    // Chạy sau commit (hoặc ngay nếu không có transaction) để request đọc song song không nạp lại dữ liệu cũ
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        event.userIds().forEach(this::evict);
+    }
+}
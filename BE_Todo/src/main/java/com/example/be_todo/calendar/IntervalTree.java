@@ -0,0 +1,196 @@
+package com.example.be_todo.calendar;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Interval tree: treap sắp theo (start, id), mỗi node giữ maxEnd = end lớn nhất trong cây con
+ * để bỏ qua cả nhánh không thể giao với khoảng đang tìm.
+ * Khoảng nửa mở [start, end) tính bằng epoch milli. Thêm / xoá O(log n) kỳ vọng,
+ * tìm các khoảng giao với [from, to) O(log n + k). Độ ưu tiên của treap băm từ id: cùng dữ liệu cho cùng cây.
+ * Không thread-safe, UserCalendar khoá bên ngoài.
+ */
+final class IntervalTree {
+
+    private static final class Node {
+        final long id;
+        final long start;
+        final long end;
+        final long priority;
+        boolean active;
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(long id, long start, long end, boolean active) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.active = active;
+            this.priority = mix(id);
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    // Tra node theo id khi sửa / xoá: khoá sắp xếp (start, id) không suy ra được từ id
+    private final Map<Long, Node> nodes = new HashMap<>();
+
+    int size() {
+        return nodes.size();
+    }
+
+    boolean contains(long id) {
+        return nodes.containsKey(id);
+    }
+
+    // Thêm hoặc thay khoảng của id. active = false: vẫn hiện trên lịch nhưng không tính là trùng lịch (task đã xong)
+    void put(long id, long start, long end, boolean active) {
+        Node existing = nodes.get(id);
+        if (existing != null) {
+            if (existing.start == start && existing.end == end) {
+                existing.active = active;
+                return;
+            }
+            root = remove(root, existing);
+        }
+        Node node = new Node(id, start, end, active);
+        nodes.put(id, node);
+        root = insert(root, node);
+    }
+
+    boolean remove(long id) {
+        Node existing = nodes.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        root = remove(root, existing);
+        return true;
+    }
+
+    /**
+     * Gọi action cho id của từng khoảng giao với [from, to) theo thứ tự start tăng dần.
+     * activeOnly: bỏ khoảng active = false. Trả về false nếu dừng vì đã đủ limit khoảng.
+     */
+    boolean forEachOverlapping(long from, long to, boolean activeOnly, int limit, LongConsumer action) {
+        int[] remaining = {limit};
+        return visit(root, from, to, activeOnly, remaining, action);
+    }
+
+    private static boolean visit(Node node, long from, long to, boolean activeOnly, int[] remaining, LongConsumer action) {
+        // Không khoảng nào trong cây con kết thúc sau from
+        if (node == null || node.maxEnd <= from) {
+            return true;
+        }
+        if (!visit(node.left, from, to, activeOnly, remaining, action)) {
+            return false;
+        }
+        // Node này và cả nhánh phải bắt đầu từ to trở đi
+        if (node.start >= to) {
+            return true;
+        }
+        if (node.end > from && (node.active || !activeOnly)) {
+            if (remaining[0] == 0) {
+                return false;
+            }
+            remaining[0]--;
+            action.accept(node.id);
+        }
+        return visit(node.right, from, to, activeOnly, remaining, action);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (less(added, node)) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node remove(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        if (node == removed) {
+            return merge(node.left, node.right);
+        }
+        if (less(removed, node)) {
+            node.left = remove(node.left, removed);
+        } else {
+            node.right = remove(node.right, removed);
+        }
+        update(node);
+        return node;
+    }
+
+    // Mọi khoá của left nhỏ hơn mọi khoá của right
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd > maxEnd) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > maxEnd) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static boolean less(Node a, Node b) {
+        return a.start < b.start || (a.start == b.start && a.id < b.id);
+    }
+
+    // SplitMix64: id liên tiếp cho độ ưu tiên phân tán đều
+    private static long mix(long id) {
+        long z = id + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.be_todo.calendar;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lịch của 1 user: task có startTime nằm trong IntervalTree theo khoảng [startTime, endTime).
+ * Task không có endTime (hoặc endTime không sau startTime) là 1 mốc tức thời, coi như dài 1 ms.
+ * Hai task sát nhau (10:00 - 11:00 và 11:00 - 12:00) không tính là trùng.
+ * Nhiều luồng đọc đồng thời, ghi độc quyền (ReentrantReadWriteLock).
+ */
+public final class UserCalendar {
+
+    // taskIds theo thứ tự startTime tăng dần; truncated = còn khoảng giao khác ngoài limit
+    public record Overlaps(List<Long> taskIds, boolean truncated) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntervalTree tree = new IntervalTree();
+
+    // startTime == null: task không còn trên lịch
+    public void put(long taskId, LocalDateTime startTime, LocalDateTime endTime, boolean active) {
+        lock.writeLock().lock();
+        try {
+            if (startTime == null) {
+                tree.remove(taskId);
+            } else {
+                long start = millis(startTime);
+                tree.put(taskId, start, end(start, endTime), active);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long taskId) {
+        lock.writeLock().lock();
+        try {
+            tree.remove(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Mọi task (kể cả đã xong) giao với [from, to)
+    public Overlaps window(LocalDateTime from, LocalDateTime to, int limit) {
+        return overlapping(millis(from), millis(to), false, -1, limit);
+    }
+
+    // Task chưa xong trùng với khoảng [startTime, endTime) của 1 task (excludeTaskId: chính task đó, null nếu chưa tạo)
+    public Overlaps conflicts(LocalDateTime startTime, LocalDateTime endTime, Long excludeTaskId, int limit) {
+        long start = millis(startTime);
+        return overlapping(start, end(start, endTime), true, excludeTaskId == null ? -1 : excludeTaskId, limit);
+    }
+
+    private Overlaps overlapping(long from, long to, boolean activeOnly, long excludeId, int limit) {
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // Lấy thêm 1 phòng trường hợp gặp chính task bị loại trừ
+            int max = excludeId >= 0 && tree.contains(excludeId) ? limit + 1 : limit;
+            boolean complete = tree.forEachOverlapping(from, to, activeOnly, max, id -> {
+                if (id != excludeId) {
+                    ids.add(id);
+                }
+            });
+            boolean truncated = !complete || ids.size() > limit;
+            return new Overlaps(ids.size() > limit ? List.copyOf(ids.subList(0, limit)) : ids, truncated);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long end(long start, LocalDateTime endTime) {
+        long end = endTime == null ? start : millis(endTime);
+        return end > start ? end : start + 1;
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.be_todo.config;
 
 import com.example.be_todo.security.JwtAuthenticationFilter;
+import com.example.be_todo.security.TimedPasswordEncoder;
+import com.example.be_todo.service.TaskCalendarService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,6 +30,7 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -33,6 +38,11 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) // cấu hình CORS
                 .authorizeHttpRequests(auth -> auth
+                        // Error dispatch (/error) của lỗi đã xảy ra: giữ nguyên status gốc (400, 503...) thay vì đổi thành 403
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
+                        // Async dispatch khi luồng SSE kết thúc: request gốc đã qua xác thực, JWT filter không chạy lại
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Auth endpoints: ai cũng gọi được
                         .requestMatchers("/api/auth/**").permitAll()
 
@@ -42,6 +52,9 @@ public class SecurityConfig {
                         // Admin endpoints: chỉ ADMIN được phép
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
+                        // Actuator (metrics cache...): chỉ ADMIN
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // Các request khác: yêu cầu đăng nhập
                         .anyRequest().authenticated()
                 )
@@ -56,6 +69,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:3000")); // FE React
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*"));
+        // FE đọc ETag để gửi lại If-None-Match, X-Schedule-Conflicts để cảnh báo trùng giờ sau khi tạo / sửa task
+        configuration.setExposedHeaders(List.of("ETag", TaskCalendarService.CONFLICTS_HEADER));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -78,6 +93,6 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 }
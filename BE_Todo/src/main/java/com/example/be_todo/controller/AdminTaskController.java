@@ -1,12 +1,16 @@
 package com.example.be_todo.controller;
 
 import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskPageDTO;
+import com.example.be_todo.dto.TaskSort;
+import com.example.be_todo.dto.TaskStatsDTO;
 import com.example.be_todo.dto.TaskUpdateRequestDTO;
 import com.example.be_todo.dto.UserDTO;
 import com.example.be_todo.entity.Task;
 import com.example.be_todo.entity.Status;
 import com.example.be_todo.entity.User;
 import com.example.be_todo.service.TaskService;
+import com.example.be_todo.service.TaskStatsService;
 import com.example.be_todo.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +24,7 @@ public class AdminTaskController {
 
     private final TaskService taskService;
     private final UserService userService;
+    private final TaskStatsService taskStatsService;
 
     @GetMapping("/users")
     public List<UserDTO> getAllUsers() {
@@ -32,19 +37,29 @@ public class AdminTaskController {
     // Lấy tất cả task của 1 user
     @GetMapping("/user/{userId}")
     public List<TaskDTO> getTasksByUser(@PathVariable Long userId) {
-        return taskService.getTasksByUser(userId)
-                .stream()
-                .map(TaskDTO::from)
-                .toList();
+        return taskService.getTasksByUser(userId);
+    }
+
+    // Lấy task của 1 user theo trang (keyset)
+    @GetMapping("/user/{userId}/page")
+    public TaskPageDTO getTaskPageByUser(@PathVariable Long userId,
+                                         @RequestParam(required = false) Status status,
+                                         @RequestParam(defaultValue = "DUE_DATE") TaskSort sort,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size) {
+        return taskService.getTaskPage(userId, status, sort, cursor, size);
     }
 
     // Lấy task theo status của 1 user
     @GetMapping("/user/{userId}/status")
     public List<TaskDTO> getTasksByUserAndStatus(@PathVariable Long userId, @RequestParam Status status) {
-        return taskService.getTasksByUserAndStatus(userId, status)
-                .stream()
-                .map(TaskDTO::from)
-                .toList();
+        return taskService.getTasksByUserAndStatus(userId, status);
+    }
+
+    // Thống kê task của 1 user
+    @GetMapping("/user/{userId}/stats")
+    public TaskStatsDTO getTaskStatsByUser(@PathVariable Long userId) {
+        return taskStatsService.getStats(userId);
     }
 
     // Admin tạo task cho user khác
@@ -0,0 +1,32 @@
+package com.example.be_todo.controller;
+
+import com.example.be_todo.service.TaskExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/admin/tasks/export")
+@RequiredArgsConstructor
+public class AdminTaskExportController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final TaskExportService taskExportService;
+
+    // Export task của 1 user (hoặc của tất cả user nếu không truyền userId), stream từng dòng NDJSON
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(required = false) Long userId) {
+        String fileName = userId != null ? "tasks-user-" + userId + ".ndjson" : "tasks-all.ndjson";
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(out -> taskExportService.exportTasks(userId, out));
+    }
+}
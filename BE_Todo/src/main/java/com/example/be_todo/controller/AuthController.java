@@ -4,14 +4,19 @@ import com.example.be_todo.dto.AuthResponse;
 import com.example.be_todo.entity.Role;
 import com.example.be_todo.entity.User;
 import com.example.be_todo.repository.RoleRepository;
+import com.example.be_todo.service.RefreshTokenService;
 import com.example.be_todo.service.UserService;
 import org.springframework.web.bind.annotation.*;
 import com.example.be_todo.security.JwtService;
+import com.example.be_todo.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -20,47 +25,58 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
+    // BCrypt chạy trên pool riêng (503 khi đầy); phần truy vấn DB sau đó chạy tiếp trên executor async của Spring MVC
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final Executor applicationTaskExecutor;
 
     @PostMapping("/register")
-    public User register(@RequestBody User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+    public CompletableFuture<User> register(@RequestBody User user) {
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(user.getPassword()))
+                .thenApplyAsync(encodedPassword -> {
+                    user.setPassword(encodedPassword);
 
-        Role userRole = roleRepository.findByName("USER")
-                .orElseGet(() -> roleRepository.save(Role.builder().name("USER").build()));
+                    Role userRole = roleRepository.findByName("USER")
+                            .orElseGet(() -> roleRepository.save(Role.builder().name("USER").build()));
 
-        user.getRoles().add(userRole);
+                    user.getRoles().add(userRole);
 
-        return userService.createUser(user);
+                    return userService.createUser(user);
+                }, applicationTaskExecutor);
     }
 
     @PostMapping("/login")
-    public AuthResponse login(@RequestBody User user) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        user.getUsername(),
-                        user.getPassword()
-                )
-        );
-
-        String accessToken = jwtService.generateAccessToken(user.getUsername());
-        String refreshToken = jwtService.generateRefreshToken(user.getUsername());
-
-        return new AuthResponse(accessToken, refreshToken);
+    public CompletableFuture<AuthResponse> login(@RequestBody User user) {
+        // authenticate: lấy UserDetails (thường trúng UserDetailsCache) rồi BCrypt matches
+        return passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(
+                                user.getUsername(),
+                                user.getPassword()
+                        )
+                ))
+                .thenApplyAsync(authentication -> {
+                    User authenticatedUser = userService.getUserByUsername(user.getUsername())
+                            .orElseThrow(() -> new RuntimeException("User not found"));
+
+                    String accessToken = jwtService.generateAccessToken(authenticatedUser);
+                    String refreshToken = refreshTokenService.issue(authenticatedUser.getUsername());
+
+                    return new AuthResponse(accessToken, refreshToken);
+                }, applicationTaskExecutor);
     }
 
+    // Refresh token chỉ dùng được 1 lần: response trả refresh token mới thay cho token vừa gửi lên
     @PostMapping("/refresh-token")
     public AuthResponse refreshToken(@RequestParam String refreshToken) {
-        String username = jwtService.extractUsernameIgnoreExpiration(refreshToken);
-
-        if (!jwtService.isRefreshTokenValid(refreshToken)) {
-            throw new RuntimeException("Invalid or expired refresh token");
-        }
-
-        String newAccessToken = jwtService.generateAccessToken(username);
+        return refreshTokenService.rotate(refreshToken);
+    }
 
-        return new AuthResponse(newAccessToken, refreshToken);
+    // Thu hồi refresh token (cả chuỗi token của lần login đó); access token còn hạn vẫn dùng được tới khi hết hạn
+    @PostMapping("/logout")
+    public void logout(@RequestParam String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 
 }
@@ -0,0 +1,77 @@
+package com.example.be_todo.controller;
+
+import com.example.be_todo.dto.HabitDTO;
+import com.example.be_todo.dto.HabitRequestDTO;
+import com.example.be_todo.dto.HabitStatsDTO;
+import com.example.be_todo.security.AuthenticatedUser;
+import com.example.be_todo.service.HabitService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/habits")
+@RequiredArgsConstructor
+public class HabitController {
+
+    private final HabitService habitService;
+
+    // Lấy user hiện tại từ JWT (principal dựng từ claims, không truy vấn DB)
+    private AuthenticatedUser getCurrentUser() {
+        return (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+
+    // from / to (yyyy-MM-dd, tuỳ chọn): trả kèm các ngày đã check-in trong khoảng này, ví dụ tháng đang xem
+    @GetMapping
+    public List<HabitDTO> getHabits(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return habitService.getHabits(getCurrentUser().id(), from, to);
+    }
+
+    @GetMapping("/{habitId}")
+    public HabitDTO getHabit(@PathVariable Long habitId,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return habitService.getHabit(habitId, getCurrentUser().id(), from, to);
+    }
+
+    @PostMapping
+    public HabitDTO createHabit(@RequestBody HabitRequestDTO request) {
+        return habitService.createHabit(getCurrentUser().id(), request);
+    }
+
+    @PutMapping("/{habitId}")
+    public HabitDTO updateHabit(@PathVariable Long habitId, @RequestBody HabitRequestDTO request) {
+        return habitService.updateHabit(habitId, getCurrentUser().id(), request);
+    }
+
+    @DeleteMapping("/{habitId}")
+    public void deleteHabit(@PathVariable Long habitId) {
+        habitService.deleteHabit(habitId, getCurrentUser().id());
+    }
+
+    // PUT / DELETE cùng 1 ngày gọi lại bao nhiêu lần cũng cho cùng kết quả
+    @PutMapping("/{habitId}/check-ins/{date}")
+    public HabitDTO checkIn(@PathVariable Long habitId,
+                            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return habitService.checkIn(habitId, getCurrentUser().id(), date);
+    }
+
+    @DeleteMapping("/{habitId}/check-ins/{date}")
+    public HabitDTO undoCheckIn(@PathVariable Long habitId,
+                                @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return habitService.undoCheckIn(habitId, getCurrentUser().id(), date);
+    }
+
+    // Tỉ lệ hoàn thành trong [from, to] (mặc định từ ngày bắt đầu tới hôm nay) và streak
+    @GetMapping("/{habitId}/stats")
+    public HabitStatsDTO getStats(@PathVariable Long habitId,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return habitService.getStats(habitId, getCurrentUser().id(), from, to);
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.be_todo.controller;
 
 import com.example.be_todo.dto.TaskCategoryDTO;
+import com.example.be_todo.dto.TaskDTO;
 import com.example.be_todo.entity.Status;
 import com.example.be_todo.entity.Task;
 import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.security.AuthenticatedUser;
 import com.example.be_todo.service.PersonalTaskService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,21 +21,32 @@ import java.util.List;
 public class PersonalTaskController {
 
     private final PersonalTaskService personalTaskService;
+    private final ScheduleConflictHeaders scheduleConflictHeaders;
 
+    // Lấy user hiện tại từ JWT (principal dựng từ claims, không truy vấn DB)
+    private AuthenticatedUser getCurrentUser() {
+        return (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
 
 //    @GetMapping("/categories")
 //    public List<TaskCategory> getAllCategories() {
 //        return personalTaskService.getAllCategories();
 //    }
 
+    // If-None-Match khớp ETag thì trả 304, không nạp / serialize task
     @GetMapping
-    public List<Task> getMyTasks(@RequestParam Long currentUserId) {
+    public List<TaskDTO> getMyTasks(@RequestParam Long currentUserId, WebRequest request) {
+        if (request.checkNotModified(personalTaskService.getMyTasksETag(currentUserId))) {
+            return null;
+        }
         return personalTaskService.getMyTasks(currentUserId);
     }
 
+    // Header X-Schedule-Conflicts: id các task chưa xong trùng giờ (chỉ cảnh báo, task vẫn được tạo)
     @PostMapping
-    public Task createTask(@RequestParam Long currentUserId, @RequestBody Task task) {
-        return personalTaskService.createTask(currentUserId, task);
+    public ResponseEntity<Task> createTask(@RequestParam Long currentUserId, @RequestBody Task task) {
+        Task created = personalTaskService.createTask(currentUserId, task);
+        return scheduleConflictHeaders.withConflicts(ResponseEntity.ok(), TaskDTO.from(created)).body(created);
     }
 
     // Tạo category cho user
@@ -47,9 +63,20 @@ public class PersonalTaskController {
         personalTaskService.deleteTaskCategory(currentUserId, categoryId);
     }
 
+    // Chuyển toàn bộ task của 1 category sang category khác, trả về số task đã chuyển.
+    // User lấy từ JWT, không nhận currentUserId từ request
+    @PatchMapping("/categories/move")
+    public int moveCategoryTasks(@RequestParam Long fromCategoryId,
+                                 @RequestParam Long toCategoryId) {
+        return personalTaskService.moveTasksToCategory(getCurrentUser().id(), fromCategoryId, toCategoryId);
+    }
+
     // Lấy tất cả category của user
     @GetMapping("/categories")
-    public List<TaskCategoryDTO> getCategoriesByUser(@RequestParam Long currentUserId) {
+    public List<TaskCategoryDTO> getCategoriesByUser(@RequestParam Long currentUserId, WebRequest request) {
+        if (request.checkNotModified(personalTaskService.getTaskCategoriesETag(currentUserId))) {
+            return null;
+        }
         return personalTaskService.getTaskCategoriesByUser(currentUserId);
     }
 
@@ -0,0 +1,31 @@
+package com.example.be_todo.controller;
+
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.service.TaskCalendarService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Header X-Schedule-Conflicts dùng chung cho TaskController và PersonalTaskController:
+ * id các task chưa xong trùng giờ với task vừa ghi (chỉ cảnh báo, không chặn).
+ */
+@Component
+@RequiredArgsConstructor
+class ScheduleConflictHeaders {
+
+    private final TaskCalendarService taskCalendarService;
+
+    // Gọi sau khi service commit: lịch đã có task vừa ghi, loại chính task đó khỏi kết quả
+    ResponseEntity.BodyBuilder withConflicts(ResponseEntity.BodyBuilder response, TaskDTO task) {
+        List<Long> conflicts = taskCalendarService.findConflictIds(task);
+        if (!conflicts.isEmpty()) {
+            response.header(TaskCalendarService.CONFLICTS_HEADER,
+                    conflicts.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+        return response;
+    }
+}
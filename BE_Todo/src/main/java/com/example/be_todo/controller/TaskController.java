@@ -1,18 +1,42 @@
 package com.example.be_todo.controller;
 
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchResultDTO;
+import com.example.be_todo.dto.TaskConflictDTO;
 import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskPageDTO;
+import com.example.be_todo.dto.TaskPatch;
+import com.example.be_todo.dto.TaskSearchPageDTO;
+import com.example.be_todo.dto.TaskSort;
+import com.example.be_todo.dto.TaskStatsDTO;
+import com.example.be_todo.dto.TaskSyncDTO;
 import com.example.be_todo.dto.TaskUpdateRequestDTO;
 import com.example.be_todo.entity.Task;
 import com.example.be_todo.entity.Status;
-import com.example.be_todo.entity.User;
-import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.push.TaskEventHub;
+import com.example.be_todo.security.AuthenticatedUser;
+import com.example.be_todo.service.TaskCalendarService;
+import com.example.be_todo.service.TaskExportService;
+import com.example.be_todo.service.TaskSearchService;
 import com.example.be_todo.service.TaskService;
+import com.example.be_todo.service.TaskStatsService;
+import com.example.be_todo.service.TaskSyncService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,17 +45,19 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
-    private final UserRepository userRepository;
+    private final TaskExportService taskExportService;
+    private final TaskStatsService taskStatsService;
+    private final TaskSearchService taskSearchService;
+    private final TaskSyncService taskSyncService;
+    private final TaskCalendarService taskCalendarService;
+    private final ScheduleConflictHeaders scheduleConflictHeaders;
+    private final TaskEventHub taskEventHub;
+    private final ObjectMapper objectMapper;
 
-    // Lấy user hiện tại từ JWT
-    private User getCurrentUser() {
+    // Lấy user hiện tại từ JWT (principal dựng từ claims, không truy vấn DB)
+    private AuthenticatedUser getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findAll()
-                .stream()
-                .filter(u -> u.getUsername().equals(username))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return (AuthenticatedUser) authentication.getPrincipal();
     }
 
     private boolean isAdmin(Authentication authentication) {
@@ -40,45 +66,148 @@ public class TaskController {
                 .anyMatch(role -> role.equals("ROLE_ADMIN"));
     }
 
+    // Header X-Schedule-Conflicts: id các task chưa xong trùng giờ (chỉ cảnh báo, task vẫn được tạo)
     @PostMapping
-    public TaskDTO createTask(@RequestBody Task task) {
-        User currentUser = getCurrentUser();
-        Task created = taskService.createTask(currentUser.getId(), task, false); // isAdmin = false
-        return TaskDTO.from(created);
+    public ResponseEntity<TaskDTO> createTask(@RequestBody Task task) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        Task created = taskService.createTask(currentUser.id(), task, false); // isAdmin = false
+        TaskDTO dto = TaskDTO.from(created);
+        return scheduleConflictHeaders.withConflicts(ResponseEntity.ok(), dto).body(dto);
     }
 
 
     @PutMapping("/{taskId}")
     public TaskDTO updateTask(@PathVariable Long taskId,
                               @RequestBody TaskUpdateRequestDTO request) {
-        Task updated = taskService.updateTask(taskId, request, null, false);
+        AuthenticatedUser currentUser = getCurrentUser();
+        Task updated = taskService.updateTask(taskId, request, currentUser.id(), false);
         return TaskDTO.from(updated);
     }
 
 
+    // JSON Merge Patch: chỉ ghi field có trong body; version lấy từ If-Match (hoặc "version"), lệch thì 409
+    @PatchMapping(value = "/{taskId}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<TaskDTO> patchTask(@PathVariable Long taskId,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestBody JsonNode body) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        TaskPatch patch = TaskPatch.parse(body, objectMapper);
+        TaskDTO patched = taskService.patchTask(taskId, patch, patch.expectedVersion(ifMatch), currentUser.id(), isAdmin(auth));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(String.valueOf(patched.version()));
+        if (patch.contains(TaskPatch.Field.START_TIME) || patch.contains(TaskPatch.Field.END_TIME)) {
+            scheduleConflictHeaders.withConflicts(response, patched);
+        }
+        return response.body(patched);
+    }
+
     @PatchMapping("/{taskId}/status")
     public Task updateStatus(@PathVariable Long taskId, @RequestParam Status status) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = getCurrentUser();
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return taskService.updateStatus(taskId, status, currentUser.getId(), isAdmin(auth));
+        return taskService.updateStatus(taskId, status, currentUser.id(), isAdmin(auth));
     }
 
     @DeleteMapping("/{taskId}")
     public void deleteTask(@PathVariable Long taskId) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = getCurrentUser();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        taskService.deleteTask(taskId, currentUser.id(), isAdmin(auth));
+    }
+
+    // Tạo / đổi status / xoá nhiều task trong 1 request (1 transaction, JDBC batch)
+    @PostMapping("/batch")
+    public List<TaskBatchResultDTO> executeBatch(@RequestBody List<TaskBatchOperationDTO> operations) {
+        AuthenticatedUser currentUser = getCurrentUser();
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        taskService.deleteTask(taskId, currentUser.getId(), isAdmin(auth));
+        return taskService.executeBatch(operations, currentUser.id(), isAdmin(auth));
     }
 
+    // FE poll liên tục: If-None-Match khớp ETag thì trả 304, không nạp / serialize task
     @GetMapping
-    public List<Task> getMyTasks() {
-        User currentUser = getCurrentUser();
-        return taskService.getTasksByUser(currentUser.getId());
+    public List<TaskDTO> getMyTasks(WebRequest request) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        if (request.checkNotModified(taskService.getTaskListETag(currentUser.id(), null))) {
+            return null;
+        }
+        return taskService.getTasksByUser(currentUser.id());
     }
 
     @GetMapping("/status")
-    public List<Task> getMyTasksByStatus(@RequestParam Status status) {
-        User currentUser = getCurrentUser();
-        return taskService.getTasksByUserAndStatus(currentUser.getId(), status);
+    public List<TaskDTO> getMyTasksByStatus(@RequestParam Status status, WebRequest request) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        if (request.checkNotModified(taskService.getTaskListETag(currentUser.id(), status))) {
+            return null;
+        }
+        return taskService.getTasksByUserAndStatus(currentUser.id(), status);
+    }
+
+    // Phân trang keyset: truyền lại nextCursor của trang trước để lấy trang tiếp theo
+    @GetMapping("/page")
+    public TaskPageDTO getMyTaskPage(@RequestParam(required = false) Status status,
+                                     @RequestParam(defaultValue = "DUE_DATE") TaskSort sort,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer size) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        return taskService.getTaskPage(currentUser.id(), status, sort, cursor, size);
+    }
+
+    // Delta sync: chỉ task tạo / sửa sau cursor và id task / category đã xoá. Không có cursor = lấy toàn bộ
+    @GetMapping("/sync")
+    public TaskSyncDTO syncMyTasks(@RequestParam(required = false) String cursor,
+                                   @RequestParam(required = false) Integer size) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        return taskSyncService.getChanges(currentUser.id(), cursor, size);
+    }
+
+    // Luồng SSE: sự kiện "tasks" / "categories" khi dữ liệu của user thay đổi, client gọi /sync để lấy phần thay đổi.
+    // Kết nối lại kèm Last-Event-ID thì nhận bù các loại thay đổi đã lỡ
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        return taskEventHub.subscribe(currentUser.id(), lastEventId);
+    }
+
+    // Tìm theo tiêu đề / mô tả (không phân biệt hoa thường, dấu; từ cuối có thể gõ dở), xếp theo độ liên quan
+    @GetMapping("/search")
+    public TaskSearchPageDTO searchMyTasks(@RequestParam String q,
+                                           @RequestParam(required = false) Integer page,
+                                           @RequestParam(required = false) Integer size) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        return taskSearchService.search(currentUser.id(), q, page, size);
+    }
+
+    // Lịch: task (kể cả đã xong) có khoảng [startTime, endTime) giao với [from, to), theo startTime tăng dần
+    @GetMapping("/calendar")
+    public List<TaskDTO> getMyCalendar(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        return taskCalendarService.getCalendar(currentUser.id(), from, to);
+    }
+
+    // Kiểm tra trước khi tạo / đổi giờ: task chưa xong trùng với [start, end). excludeTaskId = task đang sửa
+    @GetMapping("/calendar/conflicts")
+    public TaskConflictDTO getMyConflicts(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                          @RequestParam(required = false) Long excludeTaskId) {
+        AuthenticatedUser currentUser = getCurrentUser();
+        return taskCalendarService.findConflicts(currentUser.id(), start, end, excludeTaskId);
+    }
+
+    // Thống kê task của user hiện tại (tổng, quá hạn, theo status / priority / category)
+    @GetMapping("/stats")
+    public TaskStatsDTO getMyTaskStats() {
+        AuthenticatedUser currentUser = getCurrentUser();
+        return taskStatsService.getStats(currentUser.id());
+    }
+
+    // Export toàn bộ task của user hiện tại dạng NDJSON (stream, không giới hạn số dòng)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMyTasks() {
+        AuthenticatedUser currentUser = getCurrentUser();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.ndjson\"")
+                .body(out -> taskExportService.exportTasks(currentUser.id(), out));
     }
 }
@@ -1,6 +1,8 @@
 package com.example.be_todo.controller;
 
+import com.example.be_todo.dto.CurrentUserDTO;
 import com.example.be_todo.entity.User;
+import com.example.be_todo.security.AuthenticatedUser;
 import com.example.be_todo.service.UserService;
 
 import org.springframework.security.core.Authentication;
@@ -27,11 +29,9 @@ public class UserController {
     }
 
     @GetMapping("/me")
-    public User getCurrentUser() {
+    public CurrentUserDTO getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userService.getUserByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return CurrentUserDTO.from((AuthenticatedUser) authentication.getPrincipal());
     }
     @PutMapping("/{id}")
     public User updateUser(@PathVariable Long id, @RequestBody User user) {
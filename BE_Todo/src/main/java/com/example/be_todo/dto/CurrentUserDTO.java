@@ -0,0 +1,22 @@
+package com.example.be_todo.dto;
+
+import com.example.be_todo.security.AuthenticatedUser;
+
+import java.util.List;
+
+public record CurrentUserDTO(Long id, String username, String name, String email, List<RoleName> roles) {
+
+    // FE đọc user.roles[].name
+    public record RoleName(String name) {
+    }
+
+    public static CurrentUserDTO from(AuthenticatedUser user) {
+        return new CurrentUserDTO(
+                user.id(),
+                user.username(),
+                user.name(),
+                user.email(),
+                user.roles().stream().map(RoleName::new).toList()
+        );
+    }
+}
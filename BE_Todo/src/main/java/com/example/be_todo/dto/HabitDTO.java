@@ -0,0 +1,22 @@
+package com.example.be_todo.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Habit kèm số liệu tính từ bitmap check-in tới hôm nay.
+ * completionRate: số ngày đã check-in / số ngày từ startDate tới hôm nay (0 - 1).
+ * checkIns: các ngày đã check-in trong khoảng from - to của request (rỗng nếu không truyền).
+ */
+public record HabitDTO(Long id,
+                       String title,
+                       String description,
+                       int targetDays,
+                       int completedDays,
+                       LocalDate startDate,
+                       boolean checkedToday,
+                       int currentStreak,
+                       int longestStreak,
+                       double completionRate,
+                       List<LocalDate> checkIns) {
+}
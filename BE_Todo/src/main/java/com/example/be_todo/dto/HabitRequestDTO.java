@@ -0,0 +1,16 @@
+package com.example.be_todo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class HabitRequestDTO {
+    private String title;
+    private String description;
+    private Integer targetDays;
+    // Chỉ dùng khi tạo (null = hôm nay); sửa habit không đổi được vì bitmap check-in đánh số ngày từ đây
+    private LocalDate startDate;
+}
@@ -0,0 +1,18 @@
+package com.example.be_todo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Số liệu check-in của 1 habit trong [from, to] (đã cắt theo startDate và hôm nay).
+ * days: số ngày trong khoảng; completionRate = checkedDays / days (0 nếu days = 0).
+ * currentStreak / longestStreak tính trên toàn bộ lịch sử.
+ */
+public record HabitStatsDTO(Long habitId,
+                            LocalDate from,
+                            LocalDate to,
+                            int days,
+                            int checkedDays,
+                            double completionRate,
+                            int currentStreak,
+                            int longestStreak) {
+}
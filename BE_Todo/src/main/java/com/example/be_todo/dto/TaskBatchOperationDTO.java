@@ -0,0 +1,19 @@
+package com.example.be_todo.dto;
+
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchOperationDTO {
+    private TaskBatchOperationType type;
+    private Long taskId;    // UPDATE_STATUS, DELETE
+    private Status status;  // UPDATE_STATUS
+    private Task task;      // CREATE
+}
@@ -0,0 +1,7 @@
+package com.example.be_todo.dto;
+
+public enum TaskBatchOperationType {
+    CREATE,
+    UPDATE_STATUS,
+    DELETE
+}
@@ -0,0 +1,13 @@
+package com.example.be_todo.dto;
+
+// Kết quả từng thao tác, index = vị trí trong request
+public record TaskBatchResultDTO(int index, TaskBatchOperationType type, Long taskId, boolean success, String error) {
+
+    public static TaskBatchResultDTO ok(int index, TaskBatchOperationType type, Long taskId) {
+        return new TaskBatchResultDTO(index, type, taskId, true, null);
+    }
+
+    public static TaskBatchResultDTO failed(int index, TaskBatchOperationType type, Long taskId, String error) {
+        return new TaskBatchResultDTO(index, type, taskId, false, error);
+    }
+}
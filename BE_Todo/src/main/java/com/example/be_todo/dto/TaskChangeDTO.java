@@ -0,0 +1,19 @@
+package com.example.be_todo.dto;
+
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+
+import java.time.LocalDateTime;
+
+// Task kèm change_seq, chỉ dùng nội bộ khi dựng trang delta sync
+public record TaskChangeDTO(long changeSeq, TaskDTO task) {
+
+    // Constructor expression trong JPQL (TaskRepository.TASK_CHANGE_SELECT): cột phẳng như TaskDTO
+    public TaskChangeDTO(Long changeSeq, Long id, String title, String description, Status status, Priority priority,
+                         LocalDateTime dueDate, Long userId, LocalDateTime createdAt, LocalDateTime updatedAt,
+                         LocalDateTime completedAt, LocalDateTime startTime, LocalDateTime endTime,
+                         Long categoryId, String categoryName, String categoryColor, Long version) {
+        this(changeSeq, new TaskDTO(id, title, description, status, priority, dueDate, userId, createdAt, updatedAt,
+                completedAt, startTime, endTime, categoryId, categoryName, categoryColor, version));
+    }
+}
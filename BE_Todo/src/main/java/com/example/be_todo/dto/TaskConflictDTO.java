@@ -0,0 +1,7 @@
+package com.example.be_todo.dto;
+
+import java.util.List;
+
+// Task chưa xong trùng giờ với khoảng đang kiểm tra, theo startTime tăng dần; truncated = còn task trùng ngoài danh sách
+public record TaskConflictDTO(List<TaskDTO> tasks, boolean truncated) {
+}
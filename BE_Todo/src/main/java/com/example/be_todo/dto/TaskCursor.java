@@ -0,0 +1,45 @@
+package com.example.be_todo.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Vị trí của task cuối cùng trên trang trước: (giá trị khoá sắp xếp, id).
+ * value == null nghĩa là đang duyệt phần task không có giá trị khoá (luôn nằm cuối, sắp theo id).
+ * Client chỉ thấy chuỗi base64 (opaque).
+ */
+public record TaskCursor(TaskSort sort, LocalDateTime value, Long id) {
+
+    public static TaskCursor after(TaskSort sort, TaskDTO task) {
+        LocalDateTime value = sort == TaskSort.DUE_DATE ? task.dueDate() : task.updatedAt();
+        return new TaskCursor(sort, value, task.id());
+    }
+
+    public boolean inNullSegment() {
+        return value == null;
+    }
+
+    public String encode() {
+        String raw = sort.name() + "|" + (value != null ? value : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor, TaskSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            TaskSort sort = TaskSort.valueOf(parts[0]);
+            if (parts.length != 3 || sort != expectedSort) {
+                throw new IllegalArgumentException("Cursor does not match sort " + expectedSort);
+            }
+            LocalDateTime value = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new TaskCursor(sort, value, Long.parseLong(parts[2]));
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", ex);
+        }
+    }
+}
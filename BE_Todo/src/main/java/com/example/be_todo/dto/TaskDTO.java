@@ -3,6 +3,7 @@
     import com.example.be_todo.entity.Priority;
     import com.example.be_todo.entity.Status;
     import com.example.be_todo.entity.Task;
+    import com.example.be_todo.entity.TaskCategory;
 
     import java.time.LocalDateTime;
 
@@ -16,9 +17,27 @@
             Long userId,
             LocalDateTime createdAt,
             LocalDateTime updatedAt,
-            LocalDateTime completedAt
+            LocalDateTime completedAt,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            TaskCategoryDTO category,
+            Long version
     ) {
+        // Dùng cho constructor expression trong JPQL (TaskRepository.TASK_DTO_SELECT): category dạng cột phẳng
+        public TaskDTO(Long id, String title, String description, Status status, Priority priority,
+                       LocalDateTime dueDate, Long userId, LocalDateTime createdAt, LocalDateTime updatedAt,
+                       LocalDateTime completedAt, LocalDateTime startTime, LocalDateTime endTime,
+                       Long categoryId, String categoryName, String categoryColor, Long version) {
+            this(id, title, description,
+                    status != null ? status.name() : null,
+                    priority != null ? priority.name() : null,
+                    dueDate, userId, createdAt, updatedAt, completedAt, startTime, endTime,
+                    categoryId != null ? new TaskCategoryDTO(categoryId, categoryName, categoryColor) : null,
+                    version);
+        }
+
         public static TaskDTO from(Task task) {
+            TaskCategory category = task.getCategory();
             return new TaskDTO(
                     task.getId(),
                     task.getTitle(),
@@ -29,7 +48,11 @@
                     task.getUser() != null ? task.getUser().getId() : null,
                     task.getCreatedAt(),
                     task.getUpdatedAt(),
-                    task.getCompletedAt()
+                    task.getCompletedAt(),
+                    task.getStartTime(),
+                    task.getEndTime(),
+                    category != null ? new TaskCategoryDTO(category.getId(), category.getName(), category.getColor()) : null,
+                    task.getVersion()
             );
         }
     }
@@ -0,0 +1,9 @@
+package com.example.be_todo.dto;
+
+import com.example.be_todo.entity.Status;
+
+import java.time.LocalDateTime;
+
+// Khoảng thời gian của 1 task, dùng khi nạp lịch của user vào interval tree
+public record TaskIntervalDTO(Long id, LocalDateTime startTime, LocalDateTime endTime, Status status) {
+}
@@ -0,0 +1,7 @@
+package com.example.be_todo.dto;
+
+import java.util.List;
+
+// nextCursor == null: đã hết dữ liệu
+public record TaskPageDTO(List<TaskDTO> items, String nextCursor) {
+}
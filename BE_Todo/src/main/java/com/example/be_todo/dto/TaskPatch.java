@@ -0,0 +1,175 @@
+package com.example.be_todo.dto;
+
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON Merge Patch (RFC 7396) của 1 task: chỉ field có mặt trong body được ghi, giá trị null = xoá giá trị.
+ * Member "version" (nếu có) là version client đang có, dùng như If-Match chứ không phải field được ghi.
+ */
+public final class TaskPatch {
+
+    public enum Field {
+        TITLE("title", String.class, false),
+        DESCRIPTION("description", String.class, true),
+        STATUS("status", Status.class, false),
+        PRIORITY("priority", Priority.class, false),
+        DUE_DATE("dueDate", LocalDateTime.class, true),
+        START_TIME("startTime", LocalDateTime.class, true),
+        END_TIME("endTime", LocalDateTime.class, true),
+        CATEGORY_ID("categoryId", Long.class, true);
+
+        private final String json;
+        private final Class<?> type;
+        private final boolean nullable;
+
+        Field(String json, Class<?> type, boolean nullable) {
+            this.json = json;
+            this.type = type;
+            this.nullable = nullable;
+        }
+
+        public String json() {
+            return json;
+        }
+
+        static Field of(String json) {
+            for (Field field : values()) {
+                if (field.json.equals(json)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Field cần giá trị cũ của task: bộ đếm thống kê (status, priority, category) trừ theo giá trị cũ;
+    // nhắc nhở (dueDate, startTime) chỉ xếp lại khi mốc thật sự đổi, để không gửi lại nhắc nhở đã gửi
+    public static final Set<Field> NEEDS_CURRENT = Collections.unmodifiableSet(EnumSet.of(
+            Field.STATUS, Field.PRIORITY, Field.CATEGORY_ID, Field.DUE_DATE, Field.START_TIME));
+
+    private static final String VERSION = "version";
+
+    private final Map<Field, Object> values;
+    private final Long version;
+
+    private TaskPatch(Map<Field, Object> values, Long version) {
+        this.values = values;
+        this.version = version;
+    }
+
+    public static TaskPatch parse(JsonNode body, ObjectMapper objectMapper) {
+        if (body == null || !body.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Merge patch must be a JSON object");
+        }
+        Map<Field, Object> values = new EnumMap<>(Field.class);
+        Long version = null;
+        for (Map.Entry<String, JsonNode> member : body.properties()) {
+            JsonNode value = member.getValue();
+            if (VERSION.equals(member.getKey())) {
+                if (!value.canConvertToLong()) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid version");
+                }
+                version = value.asLong();
+                continue;
+            }
+            Field field = Field.of(member.getKey());
+            if (field == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Field cannot be patched: " + member.getKey());
+            }
+            if (value.isNull()) {
+                if (!field.nullable) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, field.json + " cannot be null");
+                }
+                values.put(field, null);
+                continue;
+            }
+            try {
+                values.put(field, objectMapper.treeToValue(value, field.type));
+            } catch (Exception e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid value for " + field.json, e);
+            }
+        }
+        Object title = values.get(Field.TITLE);
+        if (title != null && ((String) title).isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "title cannot be blank");
+        }
+        return new TaskPatch(values, version);
+    }
+
+    /**
+     * Version client đang có: header If-Match ("3", W/"3" hoặc 3), không có thì lấy member "version" của body.
+     *
+     * @throws ResponseStatusException 428 nếu không có cả 2
+     */
+    public long expectedVersion(String ifMatch) {
+        if (ifMatch != null && !ifMatch.isBlank()) {
+            String tag = ifMatch.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            tag = tag.replace("\"", "");
+            try {
+                return Long.parseLong(tag);
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid If-Match: " + ifMatch);
+            }
+        }
+        if (version == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED,
+                    "Send the task version in If-Match or as \"version\"");
+        }
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    public boolean contains(Field field) {
+        return values.containsKey(field);
+    }
+
+    public boolean containsAny(Set<Field> fields) {
+        return fields.stream().anyMatch(values::containsKey);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Field field) {
+        return (T) values.get(field);
+    }
+
+    // Ghi patch lên entity đã nạp; category: giá trị cho categoryId (null = bỏ category)
+    public void applyTo(Task task, TaskCategory category) {
+        for (Field field : values.keySet()) {
+            switch (field) {
+                case TITLE -> task.setTitle(get(field));
+                case DESCRIPTION -> task.setDescription(get(field));
+                case STATUS -> task.setStatus(get(field));
+                case PRIORITY -> task.setPriority(get(field));
+                case DUE_DATE -> task.setDueDate(get(field));
+                case START_TIME -> task.setStartTime(get(field));
+                case END_TIME -> task.setEndTime(get(field));
+                case CATEGORY_ID -> task.setCategory(category);
+            }
+        }
+    }
+
+    // Theo thứ tự khai báo của Field
+    public Set<Field> fields() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+}
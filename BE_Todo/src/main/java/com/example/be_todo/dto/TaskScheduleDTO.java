@@ -0,0 +1,10 @@
+package com.example.be_todo.dto;
+
+import com.example.be_todo.entity.Status;
+
+import java.time.LocalDateTime;
+
+// Dữ liệu hiện tại của task lúc gửi nhắc nhở (kiểm tra lại mốc trước khi gửi)
+public record TaskScheduleDTO(Long id, Long userId, String title, Status status,
+                              LocalDateTime dueDate, LocalDateTime startTime) {
+}
@@ -0,0 +1,7 @@
+package com.example.be_todo.dto;
+
+import java.util.List;
+
+// total: tổng số task khớp; nextPage == null: đã hết kết quả
+public record TaskSearchPageDTO(List<TaskDTO> items, int total, Integer nextPage) {
+}
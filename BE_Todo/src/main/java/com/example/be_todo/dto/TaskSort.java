@@ -0,0 +1,7 @@
+package com.example.be_todo.dto;
+
+// Khoá sắp xếp cho phân trang keyset, luôn kèm id để thứ tự là duy nhất
+public enum TaskSort {
+    DUE_DATE,   // dueDate tăng dần, task không có dueDate xếp cuối
+    UPDATED_AT  // updatedAt giảm dần (mới sửa trước)
+}
@@ -0,0 +1,7 @@
+package com.example.be_todo.dto;
+
+import java.time.LocalDateTime;
+
+// Owner + lần sửa cuối của task, dùng để đối chiếu snapshot index tìm kiếm với DB
+public record TaskStampDTO(Long id, Long userId, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,22 @@
+package com.example.be_todo.dto;
+
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thống kê task của 1 user cho dashboard. byStatus / byPriority luôn có đủ mọi giá trị enum (0 nếu không có task).
+ * overdue: dueDate đã qua và chưa COMPLETED. uncategorized: task không thuộc category nào.
+ */
+public record TaskStatsDTO(long total,
+                           long overdue,
+                           Map<Status, Long> byStatus,
+                           Map<Priority, Long> byPriority,
+                           long uncategorized,
+                           List<CategoryCount> byCategory) {
+
+    public record CategoryCount(Long categoryId, String name, String color, long count) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.be_todo.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Vị trí delta sync theo khoá (change_seq, rank, id): client đã nhận mọi thay đổi đứng trước hoặc tại khoá này.
+ * Trong 1 change_seq thứ tự là tombstone category (rank 0), tombstone task (1), rồi task (2), mỗi loại theo id,
+ * nên trang có thể dừng giữa 1 nhóm change_seq lớn (UPDATE hàng loạt, task cũ cùng change_seq = 0).
+ * since: mốc cũ nhất mà các tombstone client chưa nhận có thể mang, để biết tombstone đã bị dọn hay chưa.
+ * Client chỉ thấy chuỗi base64 (opaque).
+ */
+public record TaskSyncCursor(long seq, int rank, long id, Instant since) {
+
+    public static final int CATEGORY_TOMBSTONE = 0;
+    public static final int TASK_TOMBSTONE = 1;
+    public static final int TASK = 2;
+
+    // Đã nhận trọn mọi thay đổi có change_seq <= seq
+    public static TaskSyncCursor through(long seq, Instant since) {
+        return new TaskSyncCursor(seq, TASK, Long.MAX_VALUE, since);
+    }
+
+    // Chưa sync lần nào: task có sẵn từ trước khi có delta sync mang change_seq = 0
+    public static TaskSyncCursor initial(Instant now) {
+        return through(-1, now);
+    }
+
+    // Mốc id của 1 loại trong nhóm change_seq = seq: loại đứng trước rank đã nhận hết, loại đứng sau chưa nhận gì
+    public long idAfter(int kindRank) {
+        if (kindRank < rank) {
+            return Long.MAX_VALUE;
+        }
+        return kindRank == rank ? id : Long.MIN_VALUE;
+    }
+
+    public String encode() {
+        String raw = seq + "|" + rank + "|" + id + "|" + since.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskSyncCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed sync cursor");
+            }
+            int rank = Integer.parseInt(parts[1]);
+            if (rank < CATEGORY_TOMBSTONE || rank > TASK) {
+                throw new IllegalArgumentException("Malformed sync cursor");
+            }
+            return new TaskSyncCursor(Long.parseLong(parts[0]), rank, Long.parseLong(parts[2]),
+                    Instant.ofEpochMilli(Long.parseLong(parts[3])));
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.be_todo.dto;
+
+import java.util.List;
+
+/**
+ * 1 trang delta sync: task tạo / sửa sau cursor, id task và category client cần xoá.
+ * Gửi lại cursor ở lần gọi sau; hasMore == true thì gọi tiếp ngay để lấy phần còn lại.
+ */
+public record TaskSyncDTO(List<TaskDTO> tasks, List<Long> deletedTaskIds, List<Long> deletedCategoryIds,
+                          String cursor, boolean hasMore) {
+}
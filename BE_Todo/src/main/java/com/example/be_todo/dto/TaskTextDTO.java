@@ -0,0 +1,5 @@
+package com.example.be_todo.dto;
+
+// Nội dung được đánh chỉ mục tìm kiếm của task
+public record TaskTextDTO(Long id, Long userId, String title, String description) {
+}
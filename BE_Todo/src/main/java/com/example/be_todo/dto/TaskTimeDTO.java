@@ -0,0 +1,7 @@
+package com.example.be_todo.dto;
+
+import java.time.LocalDateTime;
+
+// id + 1 mốc thời gian của task (dueDate hoặc startTime), dùng khi nạp cửa sổ nhắc nhở
+public record TaskTimeDTO(Long id, LocalDateTime time) {
+}
@@ -16,5 +16,7 @@ public class TaskUpdateRequestDTO {
     private LocalDateTime dueDate;
     private Long userId;
     private Long categoryId;
+    // Version client đang có (TaskDTO.version); khác version hiện tại thì 409. null = không kiểm tra
+    private Long version;
 }
 
@@ -1,11 +1,17 @@
 package com.example.be_todo.entity;
 
 import jakarta.persistence.*;
+import lombok.*;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 
 @Entity
 @Table(name = "habits")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
 public class Habit {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,10 +20,17 @@ public class Habit {
     private String title;        // Luyện viết 20 chữ tiếng Trung mỗi ngày
     private String description;
     private int targetDays;      // Số ngày mục tiêu (30)
-    private int completedDays;   // Ngày đã hoàn thành
+    private int completedDays;   // Ngày đã hoàn thành = số bit 1 của checkIns
 
-    @ManyToOne
+    // Ngày ứng với bit 0 của checkIns
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    // Lịch check-in dạng bitmap, 1 bit mỗi ngày (xem habit.CheckInBitmap)
+    @Column(length = 8192)
+    private byte[] checkIns;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 }
-
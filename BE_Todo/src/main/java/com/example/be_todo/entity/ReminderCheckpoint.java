@@ -0,0 +1,24 @@
+package com.example.be_todo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Mọi nhắc nhở có mốc <= firedUntil đã được gửi; sau restart ReminderScheduler nạp tiếp từ đây
+@Entity
+@Table(name = "reminder_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReminderCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime firedUntil;
+}
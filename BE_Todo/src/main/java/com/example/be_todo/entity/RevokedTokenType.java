@@ -0,0 +1,6 @@
+package com.example.be_todo.entity;
+
+public enum RevokedTokenType {
+    TOKEN,  // 1 refresh token (jti) đã dùng để rotate
+    FAMILY  // cả chuỗi refresh token của 1 lần login (logout, phát hiện token bị dùng lại)
+}
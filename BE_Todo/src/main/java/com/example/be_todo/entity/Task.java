@@ -3,11 +3,15 @@ package com.example.be_todo.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
+// DynamicUpdate: UPDATE chỉ ghi các cột thực sự đổi thay vì mọi cột
 @Entity
 @Table(name = "tasks")
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,8 +19,10 @@ import java.time.LocalDateTime;
 @Builder
 public class Task {
 
+    // Sequence pooled (MySQL: bảng task_seq) thay cho IDENTITY để Hibernate batch được INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -64,4 +70,16 @@ public class Task {
     private LocalDateTime startTime;  // giờ bắt đầu (07:00)
     private LocalDateTime endTime;    // giờ kết thúc hoặc deadline
 
+    // Số thứ tự thay đổi theo user (delta sync), service gán ở mọi thao tác ghi
+    @Column(name = "change_seq", nullable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private long changeSeq;
+
+    // Optimistic locking: Hibernate thêm "and version = ?" vào UPDATE / DELETE; null = task chưa lưu
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
 }
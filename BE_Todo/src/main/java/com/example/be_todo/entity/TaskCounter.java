@@ -0,0 +1,21 @@
+package com.example.be_todo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Số task của 1 user trong 1 bucket (status / priority / category), thay cho GROUP BY trên bảng tasks
+@Entity
+@Table(name = "task_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskCounter {
+
+    @EmbeddedId
+    private TaskCounterId id;
+
+    @Column(name = "task_count", nullable = false)
+    private long count;
+}
@@ -0,0 +1,7 @@
+package com.example.be_todo.entity;
+
+public enum TaskCounterDimension {
+    STATUS,   // bucket = Status.name()
+    PRIORITY, // bucket = Priority.name()
+    CATEGORY  // bucket = id category, NONE nếu task không có category
+}
@@ -0,0 +1,22 @@
+package com.example.be_todo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// change_seq lớn nhất đã cấp cho task / tombstone của 1 user (xem TaskSyncServiceImpl)
+@Entity
+@Table(name = "task_sync_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSyncCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+}
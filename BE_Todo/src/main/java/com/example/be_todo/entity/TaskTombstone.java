@@ -0,0 +1,45 @@
+package com.example.be_todo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dấu vết của task / category không còn trong danh sách của user, để delta sync báo client xoá.
+ * Luôn là dòng mới (Persistable): save() gọi persist thay vì merge, INSERT được batch như Task.
+ */
+@Entity
+@Table(name = "task_tombstones")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskTombstone implements Persistable<TaskTombstoneId> {
+
+    @EmbeddedId
+    private TaskTombstoneId id;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
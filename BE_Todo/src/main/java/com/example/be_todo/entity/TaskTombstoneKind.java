@@ -0,0 +1,6 @@
+package com.example.be_todo.entity;
+
+public enum TaskTombstoneKind {
+    TASK,     // task bị xoá hoặc được gán sang user khác
+    CATEGORY  // category bị xoá
+}
@@ -0,0 +1,49 @@
+package com.example.be_todo.event;
+
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Khoảng thời gian của task trên lịch sau thao tác ghi: tạo mới, đổi startTime / endTime / status,
+ * gán cho user khác hoặc xoá (userId = null). startTime = null: task không có trên lịch.
+ * active = false: task đã COMPLETED, vẫn hiện trên lịch nhưng không tính là trùng lịch.
+ */
+public record TaskCalendarChangedEvent(Long taskId, Long previousUserId, Long userId,
+                                       LocalDateTime startTime, LocalDateTime endTime, boolean active) {
+
+    // Task mới tạo, hoặc trạng thái hiện tại của task trước khi sửa (để so sánh bằng differsFrom)
+    public static TaskCalendarChangedEvent of(Task task) {
+        return new TaskCalendarChangedEvent(task.getId(), null, task.getUser().getId(),
+                task.getStartTime(), task.getEndTime(), task.getStatus() != Status.COMPLETED);
+    }
+
+    public static TaskCalendarChangedEvent removed(Task task) {
+        return new TaskCalendarChangedEvent(task.getId(), task.getUser().getId(), null, null, null, false);
+    }
+
+    public static TaskCalendarChangedEvent updated(TaskCalendarChangedEvent before, Task task) {
+        return new TaskCalendarChangedEvent(task.getId(), before.userId(), task.getUser().getId(),
+                task.getStartTime(), task.getEndTime(), task.getStatus() != Status.COMPLETED);
+    }
+
+    public boolean scheduled() {
+        return startTime != null;
+    }
+
+    // before == null: task mới tạo
+    public boolean differsFrom(TaskCalendarChangedEvent before) {
+        if (before == null) {
+            return scheduled();
+        }
+        if (!scheduled() && !before.scheduled()) {
+            return false;
+        }
+        return !Objects.equals(userId, before.userId())
+                || !Objects.equals(startTime, before.startTime())
+                || !Objects.equals(endTime, before.endTime())
+                || active != before.active();
+    }
+}
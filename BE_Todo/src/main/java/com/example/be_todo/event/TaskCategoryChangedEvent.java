@@ -0,0 +1,5 @@
+package com.example.be_todo.event;
+
+// Phát ra khi danh sách category của user thay đổi (tạo / xoá category)
+public record TaskCategoryChangedEvent(Long userId) {
+}
@@ -0,0 +1,16 @@
+package com.example.be_todo.event;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Phát ra sau mỗi thao tác ghi lên task; userIds là các user có danh sách task bị ảnh hưởng
+public record TaskChangedEvent(Set<Long> userIds) {
+
+    public static TaskChangedEvent of(Long... userIds) {
+        return new TaskChangedEvent(Arrays.stream(userIds)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+}
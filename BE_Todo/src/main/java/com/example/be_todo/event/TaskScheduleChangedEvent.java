@@ -0,0 +1,38 @@
+package com.example.be_todo.event;
+
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.reminder.ReminderKind;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mốc nhắc nhở của 1 task sau thao tác ghi. dueDate / startTime = null khi task không còn gì để nhắc
+ * (đã xoá, đã COMPLETED hoặc không đặt giờ). Service so sánh trước / sau và chỉ phát khi có thay đổi.
+ */
+public record TaskScheduleChangedEvent(Long taskId, LocalDateTime dueDate, LocalDateTime startTime) {
+
+    public static TaskScheduleChangedEvent of(Task task) {
+        if (task.getStatus() == Status.COMPLETED) {
+            return removed(task.getId());
+        }
+        return new TaskScheduleChangedEvent(task.getId(), task.getDueDate(), task.getStartTime());
+    }
+
+    public static TaskScheduleChangedEvent removed(Long taskId) {
+        return new TaskScheduleChangedEvent(taskId, null, null);
+    }
+
+    public boolean hasReminders() {
+        return dueDate != null || startTime != null;
+    }
+
+    // before == null: task mới tạo
+    public boolean differsFrom(TaskScheduleChangedEvent before) {
+        return before == null ? hasReminders() : !equals(before);
+    }
+
+    public LocalDateTime time(ReminderKind kind) {
+        return kind == ReminderKind.DUE ? dueDate : startTime;
+    }
+}
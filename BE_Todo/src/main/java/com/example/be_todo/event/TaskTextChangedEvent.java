@@ -0,0 +1,32 @@
+package com.example.be_todo.event;
+
+import com.example.be_todo.entity.Task;
+
+import java.util.Objects;
+
+/**
+ * Nội dung tìm kiếm của task thay đổi: tạo mới, sửa tiêu đề / mô tả, gán cho user khác hoặc xoá (userId = null).
+ * previousUserId: owner trước thao tác (null nếu task mới tạo).
+ */
+public record TaskTextChangedEvent(Long taskId, Long previousUserId, Long userId, String title, String description) {
+
+    // Task mới tạo, hoặc nội dung hiện tại của task trước khi sửa (để so sánh bằng differsFrom)
+    public static TaskTextChangedEvent of(Task task) {
+        return new TaskTextChangedEvent(task.getId(), null, task.getUser().getId(), task.getTitle(), task.getDescription());
+    }
+
+    public static TaskTextChangedEvent removed(Task task) {
+        return new TaskTextChangedEvent(task.getId(), task.getUser().getId(), null, null, null);
+    }
+
+    public static TaskTextChangedEvent updated(TaskTextChangedEvent before, Task task) {
+        return new TaskTextChangedEvent(task.getId(), before.userId(), task.getUser().getId(),
+                task.getTitle(), task.getDescription());
+    }
+
+    public boolean differsFrom(TaskTextChangedEvent before) {
+        return !Objects.equals(userId, before.userId())
+                || !Objects.equals(title, before.title())
+                || !Objects.equals(description, before.description());
+    }
+}
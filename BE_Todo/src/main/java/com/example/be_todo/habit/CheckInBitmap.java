@@ -0,0 +1,204 @@
+package com.example.be_todo.habit;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Lịch check-in của 1 habit: bit thứ i = đã check-in ngày thứ i tính từ ngày bắt đầu (ngày bắt đầu là bit 0).
+ * Lưu thành mảng long, mỗi word 64 ngày; 10 năm chỉ tốn khoảng 460 byte.
+ * Check-in / huỷ / tra 1 ngày là O(1). Đếm, chuỗi hiện tại, chuỗi dài nhất đi theo từng word
+ * (bitCount, numberOfLeadingZeros...), không duyệt từng ngày.
+ * Không thread-safe: HabitServiceImpl nạp bitmap từ dòng đã khoá, sửa rồi ghi lại.
+ */
+public final class CheckInBitmap {
+
+    // Giới hạn theo cột habits.check_ins (varbinary(8192)): khoảng 179 năm
+    public static final int MAX_BYTES = 8192;
+    public static final int MAX_DAYS = MAX_BYTES * Byte.SIZE;
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] words;
+
+    public CheckInBitmap() {
+        this.words = EMPTY;
+    }
+
+    private CheckInBitmap(long[] words) {
+        this.words = words;
+    }
+
+    // Byte little-endian: byte 0 chứa ngày 0 - 7, bit thấp là ngày trước. null / rỗng = chưa check-in ngày nào
+    public static CheckInBitmap fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return new CheckInBitmap();
+        }
+        if (bytes.length > MAX_BYTES) {
+            throw new IllegalArgumentException("Check-in bitmap longer than " + MAX_BYTES + " bytes");
+        }
+        long[] words = new long[(bytes.length + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return new CheckInBitmap(words);
+    }
+
+    // Ngược với fromBytes, bỏ các byte 0 ở cuối (ngày chưa tới không tốn chỗ)
+    public byte[] toBytes() {
+        int last = words.length - 1;
+        while (last >= 0 && words[last] == 0) {
+            last--;
+        }
+        if (last < 0) {
+            return new byte[0];
+        }
+        int length = (last << 3) + ((Long.SIZE - Long.numberOfLeadingZeros(words[last]) + 7) >>> 3);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return bytes;
+    }
+
+    public boolean get(int day) {
+        int word = day >>> 6;
+        return day >= 0 && word < words.length && (words[word] & (1L << day)) != 0;
+    }
+
+    // Trả về true nếu ngày này trước đó chưa check-in
+    public boolean set(int day) {
+        checkDay(day);
+        int word = day >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.min(Math.max(word + 1, words.length * 2), MAX_DAYS >>> 6));
+        }
+        long before = words[word];
+        words[word] = before | (1L << day);
+        return words[word] != before;
+    }
+
+    // Trả về true nếu ngày này trước đó đã check-in
+    public boolean clear(int day) {
+        checkDay(day);
+        int word = day >>> 6;
+        if (word >= words.length) {
+            return false;
+        }
+        long before = words[word];
+        words[word] = before & ~(1L << day);
+        return words[word] != before;
+    }
+
+    public int count() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Số ngày đã check-in trong [from, to] (tính cả 2 đầu)
+    public int count(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, (words.length << 6) - 1);
+        if (from > to) {
+            return 0;
+        }
+        int first = from >>> 6;
+        int last = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (first == last) {
+            return Long.bitCount(words[first] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(words[first] & firstMask);
+        for (int i = first + 1; i < last; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[last] & lastMask);
+    }
+
+    // Gọi action cho từng ngày đã check-in trong [from, to], theo thứ tự tăng dần
+    public void forEach(int from, int to, IntConsumer action) {
+        from = Math.max(from, 0);
+        to = Math.min(to, (words.length << 6) - 1);
+        if (from > to) {
+            return;
+        }
+        int last = to >>> 6;
+        for (int i = from >>> 6; i <= last; i++) {
+            long word = words[i];
+            if (i == from >>> 6) {
+                word &= -1L << from;
+            }
+            if (i == last) {
+                word &= -1L >>> (63 - (to & 63));
+            }
+            while (word != 0) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Chuỗi ngày liên tiếp đã check-in kết thúc ở today. Hôm nay chưa check-in thì tính chuỗi kết thúc hôm qua:
+     * chuỗi chỉ đứt khi hết ngày hôm nay mà vẫn chưa check-in.
+     */
+    public int currentStreak(int today) {
+        return runEndingAt(get(today) ? today : today - 1);
+    }
+
+    // Chuỗi dài nhất: nối phần cao của word trước với phần thấp của word sau, trong 1 word thì dùng x & (x << 1)
+    public int longestStreak() {
+        int best = 0;
+        int carry = 0;
+        for (long word : words) {
+            if (word == -1L) {
+                carry += 64;
+                continue;
+            }
+            best = Math.max(best, carry + Long.numberOfTrailingZeros(~word));
+            best = Math.max(best, longestRun(word));
+            carry = Long.numberOfLeadingZeros(~word);
+        }
+        return Math.max(best, carry);
+    }
+
+    // Số bit 1 liên tiếp kết thúc ở day (đi lùi về ngày 0)
+    private int runEndingAt(int day) {
+        if (day < 0 || (day >>> 6) >= words.length) {
+            return 0;
+        }
+        int word = day >>> 6;
+        int bit = day & 63;
+        // Đẩy bit của day lên vị trí 63: số bit 1 liên tiếp ở đầu là độ dài chuỗi trong word này
+        int run = Long.numberOfLeadingZeros(~(words[word] << (63 - bit)));
+        if (run <= bit) {
+            return run;
+        }
+        for (int i = word - 1; i >= 0; i--) {
+            if (words[i] != -1L) {
+                return run + Long.numberOfLeadingZeros(~words[i]);
+            }
+            run += 64;
+        }
+        return run;
+    }
+
+    // Mỗi vòng x &= x << 1 bỏ đi 1 bit ở mọi chuỗi: số vòng tới khi x = 0 là độ dài chuỗi dài nhất
+    private static int longestRun(long x) {
+        int run = 0;
+        while (x != 0) {
+            x &= x << 1;
+            run++;
+        }
+        return run;
+    }
+
+    private static void checkDay(int day) {
+        if (day < 0 || day >= MAX_DAYS) {
+            throw new IllegalArgumentException("Day " + day + " outside 0.." + (MAX_DAYS - 1));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.be_todo.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Đếm số câu SQL Hibernate chuẩn bị trên thread hiện tại, giữa begin() và end() (StatementMetricsFilter gọi cho mỗi request).
+ * Tự đăng ký làm StatementInspector của SessionFactory; không đổi câu SQL.
+ */
+@Component
+public class StatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    // Không đè inspector đã cấu hình qua spring.jpa.properties (test dùng để bắt SQL)
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    void begin() {
+        COUNT.set(new int[1]);
+    }
+
+    int end() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+}
@@ -0,0 +1,435 @@
+package com.example.be_todo.push;
+
+import com.example.be_todo.event.TaskCategoryChangedEvent;
+import com.example.be_todo.event.TaskChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Đẩy thông báo "task / category của bạn vừa thay đổi" tới các kết nối SSE của user (GET /api/tasks/events),
+ * thay cho việc mỗi tab / thiết bị poll danh sách. Client nhận sự kiện thì gọi /api/tasks/sync để lấy phần thay đổi.
+ * <ul>
+ *   <li>Kết nối rảnh không giữ thread: SseEmitter chạy trên async request của Tomcat NIO, chỉ tốn 1 socket
+ *   và vài object. Việc ghi do 1 pool nhỏ (dispatch-threads) đảm nhận.</li>
+ *   <li>Mỗi kết nối không có hàng đợi: chỉ nhớ id sự kiện đã gửi của từng loại. Nhiều thay đổi liên tiếp
+ *   gộp thành 1 sự kiện, nên bộ nhớ mỗi kết nối cố định dù client đọc chậm.</li>
+ *   <li>Sự kiện chỉ vài chục byte nên lần ghi hiếm khi bị chặn; kết nối có lần ghi bị chặn quá send-timeout
+ *   (client không đọc) bị bỏ, client kết nối lại và nhận bù qua Last-Event-ID. Lần ghi đang chặn không huỷ được
+ *   từ ngoài: nó giữ thread ghi tới khi hết server.tomcat.connection-timeout (timeout ghi socket của Tomcat)
+ *   rồi lỗi. Vì vậy pool được nới thêm 1 thread cho mỗi lần ghi bị bỏ và thu lại khi lần ghi đó kết thúc:
+ *   kết nối khác luôn còn đủ dispatch-threads thread, tối đa max-stalled-writes lần ghi bị chặn cùng lúc.</li>
+ *   <li>Id sự kiện mang id đã gửi của mọi loại, nên khi kết nối lại chỉ gửi bù đúng loại bị lỡ. Id chỉ có nghĩa
+ *   trong 1 lần chạy của instance này; Last-Event-ID lạ (restart, instance khác) thì gửi bù mọi loại.</li>
+ *   <li>Heartbeat (comment SSE) giữ kết nối qua proxy và phát hiện client đã ngắt.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class TaskEventHub {
+
+    private static final TaskEventKind[] KINDS = TaskEventKind.values();
+
+    // Trạng thái theo user, còn giữ resume-window sau khi kết nối cuối đóng để client kết nối lại nhận bù được
+    private static final class UserChannel {
+        final AtomicLongArray lastIds = new AtomicLongArray(KINDS.length);
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        volatile long idleSince;
+
+        UserChannel(long initialId) {
+            for (int i = 0; i < KINDS.length; i++) {
+                lastIds.set(i, initialId);
+            }
+        }
+
+        long[] snapshot() {
+            long[] ids = new long[KINDS.length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = lastIds.get(i);
+            }
+            return ids;
+        }
+    }
+
+    private static final class Subscriber {
+        final UserChannel channel;
+        final SseEmitter emitter;
+        // Id đã gửi của từng loại; chỉ thread đang giữ draining đọc / ghi
+        final long[] sent;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean heartbeatDue;
+        // System.nanoTime() lúc bắt đầu lần ghi đang chạy, 0 = không ghi
+        volatile long sendingSince;
+        // Lần ghi đang chạy đã bị bỏ và được bù 1 thread trong pool; đọc / ghi khi giữ monitor của subscriber
+        boolean stalled;
+        volatile boolean closed;
+
+        Subscriber(UserChannel channel, SseEmitter emitter, long[] sent) {
+            this.channel = channel;
+            this.emitter = emitter;
+            this.sent = sent;
+        }
+
+        boolean hasPending() {
+            if (heartbeatDue) {
+                return true;
+            }
+            for (int i = 0; i < KINDS.length; i++) {
+                if (channel.lastIds.get(i) > sent[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    // Id sự kiện tăng dần cho mọi user; tăng cả khi user không có kết nối (xem publish)
+    private final AtomicLong sequence = new AtomicLong();
+    private final String bootId = Long.toHexString(new SecureRandom().nextLong());
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Kết nối đang có lần ghi chạy dở: evictStalled chỉ duyệt tập này thay vì mọi kết nối
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final int dispatchThreads;
+    private final int maxStalledWrites;
+    // Số thread đang bị lần ghi đã bỏ giữ, được bù thêm vào pool; chỉ đổi khi giữ monitor của pool
+    private int stalledWrites;
+    private final long timeoutMillis;
+    private final long reconnectMillis;
+    private final long sendTimeoutNanos;
+    private final long resumeWindowNanos;
+    private final int maxPerUser;
+    private final Counter evicted;
+
+    public TaskEventHub(MeterRegistry meterRegistry,
+                        @Value("${tasks.events.dispatch-threads:32}") int dispatchThreads,
+                        @Value("${tasks.events.timeout:30m}") Duration timeout,
+                        @Value("${tasks.events.reconnect-delay:3s}") Duration reconnectDelay,
+                        @Value("${tasks.events.send-timeout:10s}") Duration sendTimeout,
+                        @Value("${tasks.events.resume-window:10m}") Duration resumeWindow,
+                        @Value("${tasks.events.max-per-user:10}") int maxPerUser,
+                        @Value("${tasks.events.max-stalled-writes:256}") int maxStalledWrites) {
+        // Mỗi kết nối có tối đa 1 lượt ghi trong hàng đợi (cờ draining), nên hàng đợi không vượt số kết nối.
+        // Thread chỉ tạo khi có việc và tự thu hồi khi rảnh, nên pool rộng không tốn gì lúc bình thường
+        this.pool = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "taskEvents");
+        this.dispatchThreads = dispatchThreads;
+        this.maxStalledWrites = maxStalledWrites;
+        this.timeoutMillis = timeout.toMillis();
+        this.reconnectMillis = reconnectDelay.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.resumeWindowNanos = resumeWindow.toNanos();
+        this.maxPerUser = maxPerUser;
+        this.evicted = Counter.builder("tasks.events.evicted")
+                .description("Số kết nối SSE bị đóng vì client không đọc kịp hoặc user mở quá max-per-user kết nối")
+                .register(meterRegistry);
+        Gauge.builder("tasks.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Số kết nối SSE đang mở")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Mở luồng sự kiện cho user. lastEventId: header Last-Event-ID do EventSource gửi khi kết nối lại
+     * (null ở lần kết nối đầu: client vừa tải danh sách nên không cần gửi bù).
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        try {
+            // Gửi ngay để header response đi ra và client đặt thời gian chờ trước khi kết nối lại
+            emitter.send(SseEmitter.event().reconnectTime(reconnectMillis).comment("connected"));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+
+        Subscriber[] created = new Subscriber[1];
+        UserChannel channel = channels.compute(userId, (id, existing) -> {
+            // Kênh mới: mọi sự kiện đã phát trước đó (lúc chưa có kênh) đều có id <= sequence hiện tại
+            UserChannel target = existing != null ? existing : new UserChannel(sequence.get());
+            created[0] = new Subscriber(target, emitter, resumePoint(lastEventId, target));
+            target.subscribers.add(created[0]);
+            return target;
+        });
+        Subscriber subscriber = created[0];
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> detach(subscriber));
+        emitter.onTimeout(() -> detach(subscriber));
+        emitter.onError(e -> detach(subscriber));
+
+        // Quá max-per-user: đóng kết nối cũ nhất
+        if (channel.subscribers.size() > maxPerUser) {
+            channel.subscribers.stream().findFirst()
+                    .filter(oldest -> oldest != subscriber && detach(oldest))
+                    .ifPresent(oldest -> {
+                        evicted.increment();
+                        closeLater(oldest);
+                    });
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    public void publish(Long userId, TaskEventKind kind) {
+        // Tăng trước khi tìm kênh: kênh tạo sau đó bắt đầu từ id >= id này, client resume sẽ được gửi bù
+        long id = sequence.incrementAndGet();
+        UserChannel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+        channel.lastIds.accumulateAndGet(kind.ordinal(), id, Math::max);
+        for (Subscriber subscriber : channel.subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        event.userIds().forEach(userId -> publish(userId, TaskEventKind.TASKS));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(TaskCategoryChangedEvent event) {
+        publish(event.userId(), TaskEventKind.CATEGORIES);
+    }
+
+    // Heartbeat cho mọi kết nối; bỏ kênh không còn kết nối quá resume-window
+    @Scheduled(fixedRateString = "${tasks.events.heartbeat-interval:25s}",
+            initialDelayString = "${tasks.events.heartbeat-interval:25s}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        channels.forEach((userId, channel) -> {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.heartbeatDue = true;
+                schedule(subscriber);
+            }
+            if (channel.subscribers.isEmpty()) {
+                channels.computeIfPresent(userId, (id, existing) -> existing.subscribers.isEmpty()
+                        && now - existing.idleSince > resumeWindowNanos ? null : existing);
+            }
+        });
+    }
+
+    // Bỏ kết nối có lần ghi bị chặn quá send-timeout và bù cho pool thread mà lần ghi đó còn giữ
+    @Scheduled(fixedRateString = "${tasks.events.stall-check-interval:1s}",
+            initialDelayString = "${tasks.events.stall-check-interval:1s}")
+    public void evictStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sending) {
+            synchronized (subscriber) {
+                long since = subscriber.sendingSince;
+                if (since == 0 || subscriber.stalled || now - since <= sendTimeoutNanos) {
+                    continue;
+                }
+                // Lần ghi đang chặn giữ monitor của emitter nên không complete() ở đây: chỉ ngừng gửi tiếp,
+                // lần ghi đó lỗi khi hết server.tomcat.connection-timeout, trả thread ghi rồi container đóng kết nối
+                log.debug("Dropping SSE stream: client is not reading");
+                subscriber.stalled = resizePool(1);
+            }
+            if (detach(subscriber)) {
+                evicted.increment();
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> {
+            detach(subscriber);
+            close(subscriber);
+        }));
+        pool.shutdown();
+    }
+
+    private long[] resumePoint(String lastEventId, UserChannel channel) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return channel.snapshot();
+        }
+        long[] acknowledged = parseEventId(lastEventId);
+        if (acknowledged == null) {
+            // Không biết client đã nhận gì: gửi bù mọi loại
+            acknowledged = new long[KINDS.length];
+            Arrays.fill(acknowledged, -1);
+        }
+        return acknowledged;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.closed && subscriber.hasPending() && subscriber.draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Đang shutdown
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            try {
+                flush(subscriber);
+            } catch (IOException | IllegalStateException e) {
+                // Client đã ngắt hoặc emitter đã đóng
+                detach(subscriber);
+                return;
+            } finally {
+                subscriber.draining.set(false);
+            }
+        } while (!subscriber.closed && subscriber.hasPending() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void flush(Subscriber subscriber) throws IOException {
+        long[] latest = subscriber.channel.snapshot();
+        for (TaskEventKind kind : KINDS) {
+            int i = kind.ordinal();
+            if (latest[i] > subscriber.sent[i] && !subscriber.closed) {
+                subscriber.sent[i] = latest[i];
+                send(subscriber, SseEmitter.event()
+                        .id(eventId(subscriber.sent))
+                        .name(kind.eventName())
+                        .data(kind.eventName()));
+            }
+        }
+        if (subscriber.heartbeatDue && !subscriber.closed) {
+            subscriber.heartbeatDue = false;
+            send(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendingSince = System.nanoTime();
+        sending.add(subscriber);
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            sending.remove(subscriber);
+            synchronized (subscriber) {
+                subscriber.sendingSince = 0;
+                if (subscriber.stalled) {
+                    subscriber.stalled = false;
+                    resizePool(-1);
+                }
+            }
+        }
+    }
+
+    // Nới / thu pool theo số lần ghi bị bỏ còn giữ thread; false nếu đã chạm max-stalled-writes (không nới)
+    private synchronized boolean resizePool(int delta) {
+        if (delta > 0 && stalledWrites >= maxStalledWrites) {
+            return false;
+        }
+        stalledWrites += delta;
+        int size = dispatchThreads + stalledWrites;
+        // core <= max ở mọi thời điểm: nới max trước, thu core trước
+        if (delta > 0) {
+            pool.setMaximumPoolSize(size);
+            pool.setCorePoolSize(size);
+        } else {
+            pool.setCorePoolSize(size);
+            pool.setMaximumPoolSize(size);
+        }
+        return true;
+    }
+
+    // Không gửi gì thêm cho kết nối này; false nếu đã tách trước đó
+    private boolean detach(Subscriber subscriber) {
+        subscriber.closed = true;
+        UserChannel channel = subscriber.channel;
+        if (!channel.subscribers.remove(subscriber)) {
+            return false;
+        }
+        subscriberCount.decrementAndGet();
+        if (channel.subscribers.isEmpty()) {
+            channel.idleSince = System.nanoTime();
+        }
+        return true;
+    }
+
+    // complete() chờ monitor của emitter (lần ghi đang chạy), không làm trên thread của request
+    private void closeLater(Subscriber subscriber) {
+        try {
+            executor.execute(() -> close(subscriber));
+        } catch (RejectedExecutionException e) {
+            close(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        try {
+            subscriber.emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("Failed to complete SSE stream", e);
+        }
+    }
+
+    // "<bootId>.<id TASKS>.<id CATEGORIES>" (hex)
+    private String eventId(long[] ids) {
+        StringBuilder builder = new StringBuilder(bootId);
+        for (long id : ids) {
+            builder.append('.').append(Long.toHexString(id));
+        }
+        return builder.toString();
+    }
+
+    // null nếu id không do lần chạy này cấp hoặc sai định dạng
+    private long[] parseEventId(String eventId) {
+        String[] parts = eventId.trim().split("\\.");
+        if (parts.length != KINDS.length + 1 || !parts[0].equals(bootId)) {
+            return null;
+        }
+        long[] ids = new long[KINDS.length];
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = Long.parseUnsignedLong(parts[i + 1], 16);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return ids;
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "task-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
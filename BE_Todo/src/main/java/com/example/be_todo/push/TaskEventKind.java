@@ -0,0 +1,10 @@
+package com.example.be_todo.push;
+
+// Loại thay đổi đẩy qua SSE; tên sự kiện là name() viết thường ("tasks", "categories")
+public enum TaskEventKind {
+    TASKS, CATEGORIES;
+
+    public String eventName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.be_todo.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reminders.log-sink.enabled", havingValue = "true", matchIfMissing = true)
+public class LogReminderSink implements ReminderSink {
+
+    @Override
+    public void send(Reminder reminder) {
+        log.info("Reminder {} for user {}: task {} \"{}\" at {}", reminder.kind(), reminder.userId(),
+                reminder.taskId(), reminder.title(), reminder.at());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.be_todo.reminder;
+
+import java.time.LocalDateTime;
+
+// Thông báo gửi cho ReminderSink: task của user sắp tới mốc `at` (dueDate hoặc startTime tuỳ kind)
+public record Reminder(Long taskId, Long userId, String title, ReminderKind kind, LocalDateTime at) {
+}
@@ -0,0 +1,7 @@
+package com.example.be_todo.reminder;
+
+// Mốc thời gian được nhắc: dueDate (hạn chót) hoặc startTime (giờ bắt đầu)
+public enum ReminderKind {
+    DUE,
+    START
+}
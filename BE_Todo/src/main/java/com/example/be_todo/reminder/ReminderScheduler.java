@@ -0,0 +1,376 @@
+package com.example.be_todo.reminder;
+
+import com.example.be_todo.dto.TaskScheduleDTO;
+import com.example.be_todo.dto.TaskTimeDTO;
+import com.example.be_todo.entity.ReminderCheckpoint;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.event.TaskScheduleChangedEvent;
+import com.example.be_todo.repository.ReminderCheckpointRepository;
+import com.example.be_todo.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Nhắc nhở trước dueDate / startTime của task (lead-time), không poll bảng tasks mỗi phút:
+ * <ul>
+ *   <li>Job nạp định kỳ đọc theo keyset (mốc, id) các task có mốc trong cửa sổ sắp tới (window) vào TimingWheel,
+ *   tối đa max-pending phần tử nên bộ nhớ có giới hạn; phần còn lại được nạp ở lần sau khi wheel vơi bớt.</li>
+ *   <li>Thao tác ghi task phát TaskScheduleChangedEvent: huỷ mốc cũ, thêm mốc mới nếu nằm trong phần đã nạp
+ *   (mốc xa hơn để job nạp lấy sau).</li>
+ *   <li>Mỗi tick lấy các mốc đến hạn, đọc lại task (bỏ qua nếu đã xoá / COMPLETED / dời mốc) rồi gửi cho mọi ReminderSink.</li>
+ *   <li>Mốc đã gửi hết được lưu vào reminder_checkpoints; sau restart nạp lại từ đó (tối đa max-catch-up)
+ *   nên không lỡ nhắc nhở lúc server tắt. Có thể gửi lặp những nhắc nhở sau checkpoint cuối (at-least-once).</li>
+ * </ul>
+ * Chỉ nên bật trên 1 instance (reminders.enabled=false ở các instance còn lại).
+ */
+@Slf4j
+@Component
+public class ReminderScheduler {
+
+    static final String CHECKPOINT_NAME = "default";
+
+    // Keyset đã nạp: mọi (mốc, id) <= cursor của loại này đều đã ở trong wheel (hoặc đã gửi)
+    private record Cursor(LocalDateTime time, long id) {
+
+        boolean covers(LocalDateTime otherTime, long otherId) {
+            int compare = otherTime.compareTo(time);
+            return compare < 0 || (compare == 0 && otherId <= id);
+        }
+    }
+
+    private final TaskRepository taskRepository;
+    private final ReminderCheckpointRepository checkpointRepository;
+    private final List<ReminderSink> sinks;
+    private final boolean enabled;
+    private final long tickMillis;
+    private final Duration window;
+    private final Duration leadTime;
+    private final int maxPending;
+    private final int batchSize;
+    private final Duration maxCatchUp;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    // lock chỉ bao thao tác trong bộ nhớ; truy vấn DB và gọi sink nằm ngoài lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile TimingWheel wheel;
+    private final Map<ReminderKind, Cursor> cursors = new EnumMap<>(ReminderKind.class);
+    // Trong lúc job nạp đang đọc bảng: task thay đổi được event xử lý, bỏ dòng (có thể cũ) mà job đã đọc
+    private LocalDateTime loadingUntil;
+    private Set<Long> changedDuringLoad;
+
+    private volatile LocalDateTime dispatchedUntil;
+    private LocalDateTime checkpointed;
+
+    public ReminderScheduler(TaskRepository taskRepository,
+                             ReminderCheckpointRepository checkpointRepository,
+                             List<ReminderSink> sinks,
+                             MeterRegistry meterRegistry,
+                             @Value("${reminders.enabled:true}") boolean enabled,
+                             @Value("${reminders.tick:1s}") Duration tick,
+                             @Value("${reminders.window:1h}") Duration window,
+                             @Value("${reminders.lead-time:15m}") Duration leadTime,
+                             @Value("${reminders.max-pending:1000000}") int maxPending,
+                             @Value("${reminders.batch-size:10000}") int batchSize,
+                             @Value("${reminders.max-catch-up:1h}") Duration maxCatchUp) {
+        this.taskRepository = taskRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.sinks = sinks;
+        this.enabled = enabled;
+        this.tickMillis = tick.toMillis();
+        this.window = window;
+        this.leadTime = leadTime;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.maxCatchUp = maxCatchUp;
+        if (window.plus(leadTime).toMillis() >= TimingWheel.spanMillis(tickMillis)) {
+            throw new IllegalArgumentException("reminders.window + reminders.lead-time exceeds the timing wheel span");
+        }
+        this.sentCounter = Counter.builder("reminders.sent")
+                .description("Số nhắc nhở đã gửi tới sink")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("reminders.failed")
+                .description("Số lần sink ném lỗi khi gửi nhắc nhở")
+                .register(meterRegistry);
+        Gauge.builder("reminders.pending", this, ReminderScheduler::pending)
+                .description("Số nhắc nhở đang chờ trong timing wheel")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            start(System.currentTimeMillis());
+        }
+    }
+
+    void start(long nowMillis) {
+        LocalDateTime now = toLocal(nowMillis);
+        // Lần đầu chạy: chỉ nhắc từ bây giờ. Restart: nạp lại phần bị lỡ kể từ checkpoint, tối đa max-catch-up
+        LocalDateTime from = checkpointRepository.findById(CHECKPOINT_NAME)
+                .map(checkpoint -> latest(earliest(checkpoint.getFiredUntil(), now), now.minus(maxCatchUp)))
+                .orElse(now);
+        lock.lock();
+        try {
+            for (ReminderKind kind : ReminderKind.values()) {
+                // id MAX: chỉ lấy mốc sau from (mốc = from đã gửi)
+                cursors.put(kind, new Cursor(from.plus(leadTime), Long.MAX_VALUE));
+            }
+            dispatchedUntil = from;
+            checkpointed = null;
+            wheel = new TimingWheel(tickMillis, nowMillis);
+        } finally {
+            lock.unlock();
+        }
+        loadWindow(nowMillis);
+    }
+
+    @Scheduled(fixedRateString = "${reminders.tick:1s}")
+    public void tick() {
+        if (wheel != null) {
+            tick(System.currentTimeMillis());
+        }
+    }
+
+    void tick(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        long firedUntil;
+        lock.lock();
+        try {
+            wheel.advanceTo(nowMillis, expired::add);
+            firedUntil = wheel.firedUntilMillis();
+            // Wheel đầy nên job nạp còn chậm phía sau: checkpoint không được vượt qua phần chưa nạp
+            for (Cursor cursor : cursors.values()) {
+                firedUntil = Math.min(firedUntil, toMillis(cursor.time().minus(leadTime)) - 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!expired.isEmpty()) {
+            dispatch(expired, nowMillis);
+        }
+        dispatchedUntil = toLocal(firedUntil);
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.load-interval:1m}", initialDelayString = "${reminders.load-interval:1m}")
+    public void loadWindow() {
+        if (wheel != null) {
+            loadWindow(System.currentTimeMillis());
+        }
+    }
+
+    void loadWindow(long nowMillis) {
+        LocalDateTime to = toLocal(nowMillis).plus(window).plus(leadTime);
+        lock.lock();
+        try {
+            loadingUntil = to;
+            changedDuringLoad = new HashSet<>();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            for (ReminderKind kind : ReminderKind.values()) {
+                loadWindow(kind, to);
+            }
+        } finally {
+            lock.lock();
+            try {
+                loadingUntil = null;
+                changedDuringLoad = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void loadWindow(ReminderKind kind, LocalDateTime to) {
+        while (true) {
+            int limit;
+            Cursor cursor;
+            lock.lock();
+            try {
+                limit = Math.min(batchSize, maxPending - wheel.size());
+                cursor = cursors.get(kind);
+            } finally {
+                lock.unlock();
+            }
+            if (limit <= 0) {
+                log.warn("Reminder wheel is full ({} pending), {} reminders after {} are loaded later",
+                        maxPending, kind, cursor.time());
+                return;
+            }
+            List<TaskTimeDTO> rows = kind == ReminderKind.DUE
+                    ? taskRepository.findDueReminderWindow(cursor.time(), cursor.id(), to, Status.COMPLETED, Limit.of(limit))
+                    : taskRepository.findStartReminderWindow(cursor.time(), cursor.id(), to, Status.COMPLETED, Limit.of(limit));
+            boolean exhausted = rows.size() < limit;
+            lock.lock();
+            try {
+                for (TaskTimeDTO row : rows) {
+                    if (!changedDuringLoad.contains(row.id())) {
+                        wheel.schedule(key(row.id(), kind), toMillis(row.time().minus(leadTime)));
+                    }
+                }
+                if (exhausted) {
+                    // Đã nạp hết tới `to`: task tạo / sửa sau này có mốc <= to được event thêm thẳng vào wheel
+                    cursors.put(kind, new Cursor(to, Long.MAX_VALUE));
+                } else {
+                    TaskTimeDTO last = rows.get(rows.size() - 1);
+                    cursors.put(kind, new Cursor(last.time(), last.id()));
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (exhausted) {
+                return;
+            }
+        }
+    }
+
+    // Service chỉ phát event khi mốc của task thực sự thay đổi nên không gửi lại nhắc nhở khi sửa tiêu đề...
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskScheduleChanged(TaskScheduleChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        lock.lock();
+        try {
+            if (wheel == null) {
+                return;
+            }
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(event.taskId());
+            }
+            for (ReminderKind kind : ReminderKind.values()) {
+                long key = key(event.taskId(), kind);
+                wheel.cancel(key);
+                LocalDateTime time = event.time(kind);
+                // Mốc đã qua thì không nhắc nữa; mốc chưa qua nhưng đã trễ lead-time thì nhắc ngay ở tick sau
+                if (time == null || !time.isAfter(now)) {
+                    continue;
+                }
+                boolean loaded = cursors.get(kind).covers(time, event.taskId())
+                        || (loadingUntil != null && !time.isAfter(loadingUntil));
+                if (loaded) {
+                    wheel.schedule(key, toMillis(time.minus(leadTime)));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.checkpoint-interval:10s}")
+    public void checkpoint() {
+        LocalDateTime firedUntil = dispatchedUntil;
+        if (firedUntil == null || firedUntil.equals(checkpointed)) {
+            return;
+        }
+        checkpointRepository.save(new ReminderCheckpoint(CHECKPOINT_NAME, firedUntil));
+        checkpointed = firedUntil;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (wheel != null) {
+            checkpoint();
+        }
+    }
+
+    int pending() {
+        lock.lock();
+        try {
+            return wheel != null ? wheel.size() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch(List<Long> keys, long nowMillis) {
+        Set<Long> taskIds = new LinkedHashSet<>();
+        keys.forEach(key -> taskIds.add(key >>> 1));
+        List<Long> ids = new ArrayList<>(taskIds);
+        Map<Long, TaskScheduleDTO> tasks = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            taskRepository.findScheduleByIdIn(ids.subList(from, Math.min(ids.size(), from + batchSize)))
+                    .forEach(task -> tasks.put(task.id(), task));
+        }
+
+        for (long key : keys) {
+            ReminderKind kind = ReminderKind.values()[(int) (key & 1)];
+            TaskScheduleDTO task = tasks.get(key >>> 1);
+            if (task == null || task.status() == Status.COMPLETED) {
+                continue;
+            }
+            LocalDateTime time = kind == ReminderKind.DUE ? task.dueDate() : task.startTime();
+            if (time == null) {
+                continue;
+            }
+            long fireMillis = toMillis(time.minus(leadTime));
+            if (fireMillis > nowMillis) {
+                // Mốc bị dời về sau mà wheel chưa biết (sửa thẳng trong DB, event bị lỡ): hẹn lại theo mốc mới
+                lock.lock();
+                try {
+                    wheel.schedule(key, fireMillis);
+                } finally {
+                    lock.unlock();
+                }
+                continue;
+            }
+            send(new Reminder(task.id(), task.userId(), task.title(), kind, time));
+        }
+    }
+
+    private void send(Reminder reminder) {
+        for (ReminderSink sink : sinks) {
+            try {
+                sink.send(reminder);
+                sentCounter.increment();
+            } catch (RuntimeException ex) {
+                failedCounter.increment();
+                log.warn("Reminder sink {} failed for task {}", sink.getClass().getSimpleName(), reminder.taskId(), ex);
+            }
+        }
+    }
+
+    // 1 bit cuối cho loại mốc, còn lại là task id
+    private static long key(Long taskId, ReminderKind kind) {
+        return taskId << 1 | kind.ordinal();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
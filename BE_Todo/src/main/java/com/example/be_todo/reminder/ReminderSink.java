@@ -0,0 +1,10 @@
+package com.example.be_todo.reminder;
+
+/**
+ * Nơi nhận nhắc nhở (email, push, websocket...). Mọi bean ReminderSink đều được gọi;
+ * mặc định chỉ có LogReminderSink (tắt bằng reminders.log-sink.enabled=false).
+ * Được gọi tuần tự trên thread của scheduler nên không nên chặn lâu.
+ */
+public interface ReminderSink {
+    void send(Reminder reminder);
+}
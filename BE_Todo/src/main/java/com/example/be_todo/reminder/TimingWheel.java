@@ -0,0 +1,250 @@
+package com.example.be_todo.reminder;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Timing wheel phân cấp (kiểu timer wheel cũ của Linux): LEVELS tầng x 64 slot, slot tầng l rộng 64^l tick
+ * (tick 1s thì phủ được 64^4 s ~ 194 ngày). Mỗi tick chỉ lấy 1 slot tầng 0; khi tầng dưới quay hết 1 vòng
+ * thì dàn các node trong slot tương ứng của tầng trên xuống tầng dưới (cascade).
+ * Thêm / huỷ O(1): node nằm trong danh sách liên kết đôi của slot và được tra theo id qua bảng băm nội bộ
+ * (không boxing Long, không Map.Entry), khoảng 50 byte cho mỗi phần tử.
+ * Không thread-safe, ReminderScheduler khoá bên ngoài.
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private static final class Node {
+        final long id;
+        long deadlineTick;
+        Node prev;
+        Node next;
+        // Node kế tiếp trong cùng bucket của bảng băm
+        Node chain;
+
+        Node(long id) {
+            this.id = id;
+        }
+    }
+
+    private final long tickMillis;
+    // Mỗi slot là 1 node đầu (sentinel) của danh sách vòng
+    private final Node[][] wheels = new Node[LEVELS][SLOTS];
+    private Node[] table = new Node[16];
+    private int size;
+    // Tick kế tiếp chưa xử lý: mọi deadline nhỏ hơn đã được trả ra
+    private long currentTick;
+
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+        for (Node[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                Node head = new Node(-1);
+                head.prev = head;
+                head.next = head;
+                wheel[i] = head;
+            }
+        }
+    }
+
+    // Khoảng thời gian wheel phủ được với tick này
+    static long spanMillis(long tickMillis) {
+        return SPAN_TICKS * tickMillis;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Mọi deadline <= giá trị này đã được trả ra bởi advanceTo
+    long firedUntilMillis() {
+        return (currentTick - 1) * tickMillis;
+    }
+
+    // Deadline xa nhất nhận được tại thời điểm hiện tại
+    long horizonMillis() {
+        return (currentTick + SPAN_TICKS - 1) * tickMillis;
+    }
+
+    /**
+     * Thêm id hoặc dời deadline nếu đã có. Deadline đã qua thì được trả ra ở lần advanceTo kế tiếp.
+     * Trả về false (và không thêm) nếu deadline vượt quá horizonMillis().
+     */
+    boolean schedule(long id, long deadlineMillis) {
+        // Làm tròn lên: không bao giờ trả ra trước deadline
+        long deadlineTick = -Math.floorDiv(-deadlineMillis, tickMillis);
+        if (deadlineTick - currentTick >= SPAN_TICKS) {
+            return false;
+        }
+        Node node = find(id);
+        if (node != null) {
+            unlink(node);
+        } else {
+            node = new Node(id);
+            insert(node);
+        }
+        node.deadlineTick = deadlineTick;
+        place(node);
+        return true;
+    }
+
+    boolean cancel(long id) {
+        Node[] tab = table;
+        int index = bucket(id, tab.length);
+        Node previous = null;
+        for (Node node = tab[index]; node != null; previous = node, node = node.chain) {
+            if (node.id == id) {
+                if (previous == null) {
+                    tab[index] = node.chain;
+                } else {
+                    previous.chain = node.chain;
+                }
+                unlink(node);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Chạy tới thời điểm nowMillis, trả ra (và bỏ khỏi wheel) theo thứ tự tick mọi id có deadline <= firedUntilMillis():
+     * không bao giờ sớm hơn deadline, trễ tối đa 1 tick. expired không được gọi ngược lại vào wheel.
+     */
+    void advanceTo(long nowMillis, LongConsumer expired) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        if (size == 0) {
+            currentTick = Math.max(currentTick, nowTick + 1);
+            return;
+        }
+        while (currentTick <= nowTick) {
+            int index = (int) (currentTick & SLOT_MASK);
+            if (index == 0) {
+                cascade();
+            }
+            Node head = wheels[0][index];
+            Node node = head.next;
+            head.next = head;
+            head.prev = head;
+            currentTick++;
+            while (node != head) {
+                Node next = node.next;
+                node.prev = null;
+                node.next = null;
+                removeFromTable(node);
+                size--;
+                expired.accept(node.id);
+                node = next;
+            }
+        }
+    }
+
+    // Tầng 0 vừa quay hết 1 vòng: dàn slot hiện tại của tầng 1 xuống; tầng 1 cũng hết vòng thì tới tầng 2...
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            Node head = wheels[level][index];
+            Node node = head.next;
+            head.next = head;
+            head.prev = head;
+            while (node != head) {
+                Node next = node.next;
+                place(node);
+                node = next;
+            }
+            if (index != 0) {
+                return;
+            }
+        }
+    }
+
+    private void place(Node node) {
+        long delta = node.deadlineTick - currentTick;
+        Node head;
+        if (delta < 0) {
+            // Đã quá hạn: vào slot xử lý ở tick kế tiếp
+            head = wheels[0][(int) (currentTick & SLOT_MASK)];
+        } else {
+            int level = 0;
+            while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            head = wheels[level][(int) ((node.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        }
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private static void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private Node find(long id) {
+        for (Node node = table[bucket(id, table.length)]; node != null; node = node.chain) {
+            if (node.id == id) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private void insert(Node node) {
+        if (size >= table.length - (table.length >>> 2)) {
+            resize();
+        }
+        int index = bucket(node.id, table.length);
+        node.chain = table[index];
+        table[index] = node;
+        size++;
+    }
+
+    private void removeFromTable(Node target) {
+        int index = bucket(target.id, table.length);
+        Node previous = null;
+        for (Node node = table[index]; node != null; previous = node, node = node.chain) {
+            if (node == target) {
+                if (previous == null) {
+                    table[index] = node.chain;
+                } else {
+                    previous.chain = node.chain;
+                }
+                node.chain = null;
+                return;
+            }
+        }
+    }
+
+    private void resize() {
+        Node[] old = table;
+        Node[] tab = new Node[old.length << 1];
+        for (Node head : old) {
+            for (Node node = head; node != null; ) {
+                Node next = node.chain;
+                int index = bucket(node.id, tab.length);
+                node.chain = tab[index];
+                tab[index] = node;
+                node = next;
+            }
+        }
+        table = tab;
+    }
+
+    // Trộn bit (Murmur3 fmix64) vì id liên tiếp hay chỉ khác nhau ở vài bit thấp
+    private static int bucket(long id, int length) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & (length - 1);
+    }
+}
@@ -1,8 +1,23 @@
 package com.example.be_todo.repository;
 
 import com.example.be_todo.entity.Habit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface HabitRepository extends JpaRepository<Habit, Long> {
 
+    List<Habit> findByUserIdOrderById(Long userId);
+
+    Optional<Habit> findByIdAndUserId(Long id, Long userId);
+
+    // Check-in: khoá dòng để 2 check-in đồng thời (khác ngày) không ghi đè bitmap của nhau
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from Habit h where h.id = :id and h.user.id = :userId")
+    Optional<Habit> lockByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 }
@@ -0,0 +1,7 @@
+package com.example.be_todo.repository;
+
+import com.example.be_todo.entity.ReminderCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReminderCheckpointRepository extends JpaRepository<ReminderCheckpoint, String> {
+}
@@ -0,0 +1,31 @@
+package com.example.be_todo.repository;
+
+import com.example.be_todo.entity.RevokedToken;
+import com.example.be_todo.entity.RevokedTokenType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // INSERT thật (save() với id gán sẵn sẽ merge): id đã có thì ném DataIntegrityViolationException
+    @Transactional
+    @Modifying
+    @Query("insert into RevokedToken (id, type, username, expiresAt, revokedAt) " +
+            "values (:id, :type, :username, :expiresAt, :revokedAt)")
+    int insert(@Param("id") String id, @Param("type") RevokedTokenType type, @Param("username") String username,
+               @Param("expiresAt") LocalDateTime expiresAt, @Param("revokedAt") LocalDateTime revokedAt);
+
+    @Query("select r.id from RevokedToken r where r.expiresAt > :now")
+    List<String> findActiveIds(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
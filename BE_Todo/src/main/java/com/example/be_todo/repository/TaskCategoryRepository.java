@@ -2,12 +2,25 @@ package com.example.be_todo.repository;
 
 import com.example.be_todo.entity.TaskCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface TaskCategoryRepository extends JpaRepository<TaskCategory, Long> {
-        List<TaskCategory> findByUserId(Long userId);
+        // JPQL thay vì derived query để lọc thẳng trên cột user_id (có index) thay vì join sang users
+        @Query("select c from TaskCategory c where c.user.id = :userId")
+        List<TaskCategory> findByUserId(@Param("userId") Long userId);
         Optional<TaskCategory> findByIdAndUserId(Long categoryId, Long userId);
+        boolean existsByIdAndUserId(Long categoryId, Long userId);
+        long countByUserIdAndIdIn(Long userId, Collection<Long> categoryIds);
+
+        // Xoá trực tiếp, không cascade qua TaskCategory.tasks (task đã được gỡ category trước đó)
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("delete from TaskCategory c where c.id = :categoryId and c.user.id = :userId")
+        int deleteByIdAndUserId(@Param("categoryId") Long categoryId, @Param("userId") Long userId);
 
 }
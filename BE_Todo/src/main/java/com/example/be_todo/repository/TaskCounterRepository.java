@@ -0,0 +1,34 @@
+package com.example.be_todo.repository;
+
+import com.example.be_todo.entity.TaskCounter;
+import com.example.be_todo.entity.TaskCounterId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TaskCounterRepository extends JpaRepository<TaskCounter, TaskCounterId> {
+
+    // Cộng dồn nguyên tử (MySQL và H2 mode MySQL): dòng chưa có thì tạo với giá trị delta
+    @Modifying
+    @Query(value = "insert into task_counters (user_id, dimension, bucket, task_count) " +
+            "values (:userId, :dimension, :bucket, :delta) " +
+            "on duplicate key update task_count = task_count + :delta", nativeQuery = true)
+    int increment(@Param("userId") Long userId, @Param("dimension") String dimension,
+                  @Param("bucket") String bucket, @Param("delta") long delta);
+
+    @Query("select c from TaskCounter c where c.id.userId = :userId")
+    List<TaskCounter> findByUserId(@Param("userId") Long userId);
+
+    // Reconcile: khoá các bộ đếm của user để thao tác ghi đồng thời chờ tới khi sửa xong
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from TaskCounter c where c.id.userId = :userId")
+    List<TaskCounter> lockByUserId(@Param("userId") Long userId);
+
+    @Query("select distinct c.id.userId from TaskCounter c")
+    List<Long> findUserIds();
+}
@@ -0,0 +1,22 @@
+package com.example.be_todo.repository;
+
+import com.example.be_todo.dto.TaskPatch;
+import com.example.be_todo.entity.TaskCategory;
+
+import java.time.LocalDateTime;
+
+// Phần của TaskRepository viết tay (TaskPatchRepositoryImpl): câu UPDATE có tập cột thay đổi theo request
+public interface TaskPatchRepository {
+
+    /**
+     * Ghi các field có trong patch bằng 1 câu UPDATE có điều kiện, không SELECT trước:
+     * {@code update tasks set <field trong patch>, change_seq, updated_at, version = version + 1
+     * where id = ? and version = ? [and user_id = ?]}.
+     *
+     * @param ownerId  chỉ sửa khi task thuộc user này (null = không kiểm tra owner)
+     * @param category giá trị cho categoryId khi patch có field này (null = bỏ category)
+     * @return 1 nếu đã ghi, 0 nếu task không tồn tại, khác owner hoặc version đã đổi
+     */
+    int patch(Long taskId, Long ownerId, long expectedVersion, TaskPatch patch, TaskCategory category,
+              long changeSeq, LocalDateTime now);
+}
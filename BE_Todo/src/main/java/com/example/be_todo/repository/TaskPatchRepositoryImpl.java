@@ -0,0 +1,72 @@
+package com.example.be_todo.repository;
+
+import com.example.be_todo.dto.TaskPatch;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+class TaskPatchRepositoryImpl implements TaskPatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int patch(Long taskId, Long ownerId, long expectedVersion, TaskPatch patch, TaskCategory category,
+                     long changeSeq, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+
+        for (TaskPatch.Field field : patch.fields()) {
+            switch (field) {
+                case TITLE -> set(cb, update, task.get("title"), patch.<String>get(field), String.class);
+                case DESCRIPTION -> set(cb, update, task.get("description"), patch.<String>get(field), String.class);
+                case STATUS -> {
+                    Status status = patch.get(field);
+                    update.set(task.<Status>get("status"), status);
+                    // Giống Task.preUpdate: giữ mốc hoàn thành đầu tiên
+                    if (status == Status.COMPLETED) {
+                        Path<LocalDateTime> completedAt = task.get("completedAt");
+                        update.set(completedAt, cb.coalesce(completedAt, now));
+                    }
+                }
+                case PRIORITY -> update.set(task.<Priority>get("priority"), patch.<Priority>get(field));
+                case DUE_DATE -> set(cb, update, task.get("dueDate"), patch.<LocalDateTime>get(field), LocalDateTime.class);
+                case START_TIME -> set(cb, update, task.get("startTime"), patch.<LocalDateTime>get(field), LocalDateTime.class);
+                case END_TIME -> set(cb, update, task.get("endTime"), patch.<LocalDateTime>get(field), LocalDateTime.class);
+                case CATEGORY_ID -> set(cb, update, task.get("category"), category, TaskCategory.class);
+            }
+        }
+        update.set(task.<Long>get("changeSeq"), changeSeq);
+        update.set(task.<LocalDateTime>get("updatedAt"), now);
+        Path<Long> version = task.get("version");
+        update.set(version, cb.sum(version, 1L));
+
+        Predicate where = cb.and(cb.equal(task.get("id"), taskId), cb.equal(version, expectedVersion));
+        if (ownerId != null) {
+            where = cb.and(where, cb.equal(task.get("user").get("id"), ownerId));
+        }
+        update.where(where);
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static <T> void set(CriteriaBuilder cb, CriteriaUpdate<Task> update, Path<T> path, T value, Class<T> type) {
+        if (value == null) {
+            update.set(path, cb.nullLiteral(type));
+        } else {
+            update.set(path, value);
+        }
+    }
+}
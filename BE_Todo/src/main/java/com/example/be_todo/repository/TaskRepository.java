@@ -1,16 +1,194 @@
 package com.example.be_todo.repository;
 
+import com.example.be_todo.dto.TaskChangeDTO;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskIntervalDTO;
+import com.example.be_todo.dto.TaskScheduleDTO;
+import com.example.be_todo.dto.TaskStampDTO;
+import com.example.be_todo.dto.TaskTextDTO;
+import com.example.be_todo.dto.TaskTimeDTO;
 import com.example.be_todo.entity.Priority;
 import com.example.be_todo.entity.Status;
 import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByUserId(Long userId);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskPatchRepository {
     List<Task> findByStatus(Status status);
     List<Task> findByPriority(Priority priority);
-    List<Task> findByUserIdAndStatus(Long userId, Status status);
-    List<Task> findByCategoryId(Long categoryId);
-}
 
+    // Viết JPQL thay vì derived query: derived query sinh LEFT JOIN task_categories rồi lọc trên c.id (quét toàn bảng tasks)
+    @Query("select t from Task t where t.category.id = :categoryId")
+    List<Task> findByCategoryId(@Param("categoryId") Long categoryId);
+
+    // ----- Đọc danh sách: projection thẳng vào TaskDTO (1 câu SELECT có join category, không tạo entity) -----
+
+    String TASK_DTO_SELECT = "select new com.example.be_todo.dto.TaskDTO(" +
+            "t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.user.id, " +
+            "t.createdAt, t.updatedAt, t.completedAt, t.startTime, t.endTime, c.id, c.name, c.color, t.version) " +
+            "from Task t left join t.category c ";
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId order by t.id")
+    List<TaskDTO> findDtoByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId and t.status = :status order by t.id")
+    List<TaskDTO> findDtoByUserIdAndStatus(@Param("userId") Long userId, @Param("status") Status status, Limit limit);
+
+    // ----- Cập nhật hàng loạt theo category: 1 câu UPDATE, không nạp entity -----
+
+    // [userId, số task] của category (task có thể thuộc user khác do admin gán)
+    @Query("select t.user.id, count(t) from Task t where t.category.id = :categoryId group by t.user.id")
+    List<Object[]> countByCategoryIdGroupByUser(@Param("categoryId") Long categoryId);
+
+    // Theo từng owner: change_seq là số thứ tự riêng của mỗi user
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.category = null, t.updatedAt = :now, t.changeSeq = :changeSeq, t.version = t.version + 1 " +
+            "where t.category.id = :categoryId and t.user.id = :userId")
+    int clearCategory(@Param("categoryId") Long categoryId, @Param("userId") Long userId,
+                      @Param("changeSeq") long changeSeq, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.category = :target, t.updatedAt = :now, t.changeSeq = :changeSeq, t.version = t.version + 1 " +
+            "where t.category.id = :sourceCategoryId and t.user.id = :userId")
+    int moveToCategory(@Param("userId") Long userId, @Param("sourceCategoryId") Long sourceCategoryId,
+                       @Param("target") TaskCategory target, @Param("changeSeq") long changeSeq,
+                       @Param("now") LocalDateTime now);
+
+    // ----- Delta sync: task đứng sau (afterSeq, afterId) theo (change_seq, id), tới upTo; range scan trên
+    // idx_tasks_user_change_seq (user_id, change_seq, id) -----
+
+    String TASK_CHANGE_SELECT = "select new com.example.be_todo.dto.TaskChangeDTO(t.changeSeq, " +
+            "t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.user.id, " +
+            "t.createdAt, t.updatedAt, t.completedAt, t.startTime, t.endTime, c.id, c.name, c.color, t.version) " +
+            "from Task t left join t.category c ";
+
+    @Query(TASK_CHANGE_SELECT + "where t.user.id = :userId and t.changeSeq <= :upTo " +
+            "and (t.changeSeq > :afterSeq or (t.changeSeq = :afterSeq and t.id > :afterId)) " +
+            "order by t.changeSeq, t.id")
+    List<TaskChangeDTO> findSyncPage(@Param("userId") Long userId, @Param("afterSeq") long afterSeq,
+                                     @Param("afterId") long afterId, @Param("upTo") long upTo, Limit limit);
+
+    // ----- Thống kê: số task quá hạn tính lúc đọc (phụ thuộc thời điểm), phần còn lại lấy từ task_counters -----
+
+    @Query("select count(t) from Task t where t.user.id = :userId and t.dueDate < :now and t.status <> :done")
+    long countOverdue(@Param("userId") Long userId, @Param("now") LocalDateTime now, @Param("done") Status done);
+
+    // Reconcile bộ đếm: đếm thật theo từng chiều, [giá trị, số task]
+    @Query("select t.status, count(t) from Task t where t.user.id = :userId group by t.status")
+    List<Object[]> countByStatus(@Param("userId") Long userId);
+
+    @Query("select t.priority, count(t) from Task t where t.user.id = :userId group by t.priority")
+    List<Object[]> countByPriority(@Param("userId") Long userId);
+
+    @Query("select t.category.id, count(t) from Task t where t.user.id = :userId group by t.category.id")
+    List<Object[]> countByCategory(@Param("userId") Long userId);
+
+    @Query("select distinct t.user.id from Task t")
+    List<Long> findOwnerIds();
+
+    // ----- Nhắc nhở: keyset theo (mốc, id) trên mọi user, task chưa COMPLETED có mốc trong (after, to] -----
+
+    @Query("select new com.example.be_todo.dto.TaskTimeDTO(t.id, t.dueDate) from Task t " +
+            "where t.dueDate <= :to and (t.dueDate > :after or (t.dueDate = :after and t.id > :afterId)) " +
+            "and t.status <> :done order by t.dueDate asc, t.id asc")
+    List<TaskTimeDTO> findDueReminderWindow(@Param("after") LocalDateTime after, @Param("afterId") Long afterId,
+                                            @Param("to") LocalDateTime to, @Param("done") Status done, Limit limit);
+
+    @Query("select new com.example.be_todo.dto.TaskTimeDTO(t.id, t.startTime) from Task t " +
+            "where t.startTime <= :to and (t.startTime > :after or (t.startTime = :after and t.id > :afterId)) " +
+            "and t.status <> :done order by t.startTime asc, t.id asc")
+    List<TaskTimeDTO> findStartReminderWindow(@Param("after") LocalDateTime after, @Param("afterId") Long afterId,
+                                              @Param("to") LocalDateTime to, @Param("done") Status done, Limit limit);
+
+    @Query("select new com.example.be_todo.dto.TaskScheduleDTO(t.id, t.user.id, t.title, t.status, t.dueDate, t.startTime) " +
+            "from Task t where t.id in :ids")
+    List<TaskScheduleDTO> findScheduleByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ----- Lịch: khoảng [startTime, endTime) mọi task có startTime của 1 user, nạp vào interval tree -----
+
+    @Query("select new com.example.be_todo.dto.TaskIntervalDTO(t.id, t.startTime, t.endTime, t.status) from Task t " +
+            "where t.user.id = :userId and t.startTime is not null")
+    List<TaskIntervalDTO> findIntervalsByUserId(@Param("userId") Long userId);
+
+    // ----- Tìm kiếm: index trong bộ nhớ trả taskId đã xếp hạng, DB chỉ đọc đúng các task của trang -----
+
+    @Query(TASK_DTO_SELECT + "where t.id in :ids and t.user.id = :userId")
+    List<TaskDTO> findDtoByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("select new com.example.be_todo.dto.TaskTextDTO(t.id, t.user.id, t.title, t.description) " +
+            "from Task t where t.id in :ids")
+    List<TaskTextDTO> findTextByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Dựng / đối chiếu index lúc khởi động: chủ động duyệt cả bảng
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select new com.example.be_todo.dto.TaskTextDTO(t.id, t.user.id, t.title, t.description) from Task t")
+    Stream<TaskTextDTO> streamText();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select new com.example.be_todo.dto.TaskStampDTO(t.id, t.user.id, t.updatedAt) from Task t " +
+            "order by t.user.id, t.id")
+    Stream<TaskStampDTO> streamStamps();
+
+    // ----- Export: đọc tuần tự bằng cursor forward-only, không nạp cả list -----
+    // (MySQL cần useCursorFetch=true trên JDBC URL để fetch size có hiệu lực)
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId order by t.id")
+    Stream<TaskDTO> streamByUserId(@Param("userId") Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query(TASK_DTO_SELECT + "order by t.id")
+    Stream<TaskDTO> streamAll();
+
+    // ----- Phân trang keyset theo (dueDate asc, id asc), task không có dueDate nằm cuối -----
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId and (:status is null or t.status = :status) " +
+            "and t.dueDate is not null " +
+            "order by t.dueDate asc, t.id asc")
+    List<TaskDTO> findDueDatePage(@Param("userId") Long userId, @Param("status") Status status, Limit limit);
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId and (:status is null or t.status = :status) " +
+            "and t.dueDate is not null and (t.dueDate > :dueDate or (t.dueDate = :dueDate and t.id > :id)) " +
+            "order by t.dueDate asc, t.id asc")
+    List<TaskDTO> findDueDatePageAfter(@Param("userId") Long userId, @Param("status") Status status,
+                                    @Param("dueDate") LocalDateTime dueDate, @Param("id") Long id, Limit limit);
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId and (:status is null or t.status = :status) " +
+            "and t.dueDate is null and t.id > :id " +
+            "order by t.id asc")
+    List<TaskDTO> findNoDueDatePageAfter(@Param("userId") Long userId, @Param("status") Status status,
+                                      @Param("id") Long id, Limit limit);
+
+    // ----- Phân trang keyset theo (updatedAt desc, id desc), task chưa có updatedAt nằm cuối -----
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId and (:status is null or t.status = :status) " +
+            "and t.updatedAt is not null " +
+            "order by t.updatedAt desc, t.id desc")
+    List<TaskDTO> findUpdatedAtPage(@Param("userId") Long userId, @Param("status") Status status, Limit limit);
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId and (:status is null or t.status = :status) " +
+            "and t.updatedAt is not null and (t.updatedAt < :updatedAt or (t.updatedAt = :updatedAt and t.id < :id)) " +
+            "order by t.updatedAt desc, t.id desc")
+    List<TaskDTO> findUpdatedAtPageBefore(@Param("userId") Long userId, @Param("status") Status status,
+                                       @Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id, Limit limit);
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId and (:status is null or t.status = :status) " +
+            "and t.updatedAt is null and t.id > :id " +
+            "order by t.id asc")
+    List<TaskDTO> findNoUpdatedAtPageAfter(@Param("userId") Long userId, @Param("status") Status status,
+                                        @Param("id") Long id, Limit limit);
+}
@@ -0,0 +1,21 @@
+package com.example.be_todo.repository;
+
+import com.example.be_todo.entity.TaskSyncCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface TaskSyncCounterRepository extends JpaRepository<TaskSyncCounter, Long> {
+
+    // Tăng và khoá dòng của user tới hết transaction (MySQL và H2 mode MySQL): chưa có thì tạo với giá trị 1
+    @Modifying
+    @Query(value = "insert into task_sync_counters (user_id, last_seq) values (:userId, 1) " +
+            "on duplicate key update last_seq = last_seq + 1", nativeQuery = true)
+    int increment(@Param("userId") Long userId);
+
+    @Query("select c.lastSeq from TaskSyncCounter c where c.userId = :userId")
+    Optional<Long> findLastSeq(@Param("userId") Long userId);
+}
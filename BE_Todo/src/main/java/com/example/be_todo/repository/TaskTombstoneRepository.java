@@ -0,0 +1,39 @@
+package com.example.be_todo.repository;
+
+import com.example.be_todo.entity.TaskTombstone;
+import com.example.be_todo.entity.TaskTombstoneId;
+import com.example.be_todo.entity.TaskTombstoneKind;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, TaskTombstoneId> {
+
+    // Tombstone đứng sau vị trí cursor theo (change_seq, kind, object_id), tới upTo. Kind lưu dạng chuỗi nên
+    // CATEGORY đứng trước TASK; trong nhóm afterSeq mỗi kind có mốc object_id riêng (xem TaskSyncCursor.idAfter)
+    @Query("select t from TaskTombstone t where t.id.userId = :userId and t.changeSeq <= :upTo " +
+            "and (t.changeSeq > :afterSeq or (t.changeSeq = :afterSeq and (" +
+            "(t.id.kind = com.example.be_todo.entity.TaskTombstoneKind.CATEGORY and t.id.objectId > :afterCategoryId) " +
+            "or (t.id.kind = com.example.be_todo.entity.TaskTombstoneKind.TASK and t.id.objectId > :afterTaskId)))) " +
+            "order by t.changeSeq, t.id.kind, t.id.objectId")
+    List<TaskTombstone> findSyncPage(@Param("userId") Long userId, @Param("afterSeq") long afterSeq,
+                                     @Param("afterCategoryId") long afterCategoryId,
+                                     @Param("afterTaskId") long afterTaskId,
+                                     @Param("upTo") long upTo, Limit limit);
+
+    // Task được gán lại cho user cũ: bỏ tombstone trước đó để dòng task là trạng thái duy nhất
+    @Modifying
+    @Query("delete from TaskTombstone t where t.id.userId = :userId and t.id.kind = :kind and t.id.objectId = :objectId")
+    int deleteOne(@Param("userId") Long userId, @Param("kind") TaskTombstoneKind kind, @Param("objectId") Long objectId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
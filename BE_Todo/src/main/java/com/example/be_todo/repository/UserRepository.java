@@ -2,10 +2,16 @@ package com.example.be_todo.repository;
 
 import com.example.be_todo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
-}
 
+    // Lấy user kèm roles trong 1 câu SELECT (dùng cho xác thực)
+    @Query("select distinct u from User u left join fetch u.roles where u.username = :username")
+    Optional<User> findWithRolesByUsername(@Param("username") String username);
+}
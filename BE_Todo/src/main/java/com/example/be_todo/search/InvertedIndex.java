@@ -0,0 +1,119 @@
+package com.example.be_todo.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index theo user trên tiêu đề + mô tả task. Mỗi user có index riêng (truy vấn luôn trong
+ * phạm vi 1 user) nên thống kê BM25 và lock cũng theo user: ghi của user này không chặn tìm của user khác.
+ */
+public final class InvertedIndex {
+
+    // 1 lần xuất hiện trong tiêu đề nặng bằng chừng này lần trong mô tả
+    static final int TITLE_WEIGHT = 2;
+    private static final int SNAPSHOT_MAGIC = 0x54534958; // "TSIX"
+
+    /**
+     * total: tổng số task khớp; taskIds: task của trang được yêu cầu, đã sắp theo điểm.
+     */
+    public record Page(int total, List<Long> taskIds) {
+    }
+
+    private final Map<Long, UserIndex> users = new ConcurrentHashMap<>();
+
+    public void put(long userId, long taskId, String title, String description) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String term : TextTokenizer.tokenize(title)) {
+            termFrequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : TextTokenizer.tokenize(description)) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        users.computeIfAbsent(userId, id -> new UserIndex()).put(taskId, termFrequencies, length);
+    }
+
+    public boolean remove(long userId, long taskId) {
+        UserIndex index = users.get(userId);
+        return index != null && index.remove(taskId);
+    }
+
+    public boolean contains(long userId, long taskId) {
+        UserIndex index = users.get(userId);
+        return index != null && index.contains(taskId);
+    }
+
+    public long size() {
+        return users.values().stream().mapToLong(UserIndex::size).sum();
+    }
+
+    // Đồng bộ với DB sau restart: chỉ giữ các task taskIds của user, xoá phần còn lại. Trả về số task đã xoá
+    public int retain(long userId, Set<Long> taskIds) {
+        UserIndex index = users.get(userId);
+        return index != null ? index.retainAll(taskIds) : 0;
+    }
+
+    // Bỏ index của user không còn task nào trong DB
+    public int retainUsers(Set<Long> userIds) {
+        int removed = 0;
+        for (Map.Entry<Long, UserIndex> entry : users.entrySet()) {
+            if (!userIds.contains(entry.getKey())) {
+                removed += entry.getValue().size();
+                users.remove(entry.getKey());
+            }
+        }
+        return removed;
+    }
+
+    public Page search(long userId, String query, int offset, int limit) {
+        UserIndex index = users.get(userId);
+        if (index == null) {
+            return new Page(0, List.of());
+        }
+        // Token lặp lại không làm đổi kết quả AND. Token cuối của truy vấn (tra theo tiền tố) phải đứng cuối danh sách
+        List<String> queryTokens = TextTokenizer.tokenize(query);
+        String last = queryTokens.isEmpty() ? null : queryTokens.get(queryTokens.size() - 1);
+        List<String> tokens = new ArrayList<>(queryTokens.stream().filter(token -> !token.equals(last)).distinct().toList());
+        if (last != null) {
+            tokens.add(last);
+        }
+        List<UserIndex.Hit> hits = index.search(tokens);
+        List<Long> taskIds = hits.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(UserIndex.Hit::taskId)
+                .toList();
+        return new Page(hits.size(), taskIds);
+    }
+
+    // ----- Snapshot -----
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        for (Map.Entry<Long, UserIndex> entry : users.entrySet()) {
+            out.writeBoolean(true);
+            out.writeLong(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
+        out.writeBoolean(false);
+    }
+
+    public static InvertedIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a task search snapshot");
+        }
+        InvertedIndex index = new InvertedIndex();
+        while (in.readBoolean()) {
+            long userId = in.readLong();
+            index.users.put(userId, UserIndex.readFrom(in));
+        }
+        return index;
+    }
+}
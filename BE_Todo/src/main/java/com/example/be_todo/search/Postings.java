@@ -0,0 +1,169 @@
+package com.example.be_todo.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Danh sách (taskId, tf) của 1 term, sắp theo taskId tăng dần, nén thành mảng byte:
+ * mỗi phần tử là varint(taskId - taskId trước) rồi varint(tf). Task id tăng theo sequence nên
+ * khoảng cách thường nhỏ, đa số phần tử chỉ tốn 2 - 3 byte thay vì 12 byte của long + int.
+ * Thêm task id lớn hơn mọi id hiện có (task mới) là nối vào cuối; sửa / xoá phải mã hoá lại cả mảng.
+ * Không thread-safe, UserIndex khoá bên ngoài.
+ */
+final class Postings {
+
+    @FunctionalInterface
+    interface Visitor {
+        void accept(long taskId, int tf);
+    }
+
+    private byte[] data;
+    private int length;
+    private int size;
+    private long lastTaskId;
+
+    Postings() {
+        this(new byte[8], 0, 0, 0);
+    }
+
+    private Postings(byte[] data, int length, int size, long lastTaskId) {
+        this.data = data;
+        this.length = length;
+        this.size = size;
+        this.lastTaskId = lastTaskId;
+    }
+
+    // Document frequency của term
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(long taskId, int tf) {
+        if (size == 0 || taskId > lastTaskId) {
+            append(taskId, tf);
+            return;
+        }
+        long[] ids = new long[size + 1];
+        int[] tfs = new int[size + 1];
+        int count = decode(ids, tfs);
+        int index = Arrays.binarySearch(ids, 0, count, taskId);
+        if (index >= 0) {
+            tfs[index] = tf;
+        } else {
+            index = -index - 1;
+            System.arraycopy(ids, index, ids, index + 1, count - index);
+            System.arraycopy(tfs, index, tfs, index + 1, count - index);
+            ids[index] = taskId;
+            tfs[index] = tf;
+            count++;
+        }
+        rewrite(ids, tfs, count);
+    }
+
+    // Trả về false nếu không có taskId
+    boolean remove(long taskId) {
+        long[] ids = new long[size];
+        int[] tfs = new int[size];
+        int count = decode(ids, tfs);
+        int index = Arrays.binarySearch(ids, 0, count, taskId);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(ids, index + 1, ids, index, count - index - 1);
+        System.arraycopy(tfs, index + 1, tfs, index, count - index - 1);
+        rewrite(ids, tfs, count - 1);
+        return true;
+    }
+
+    void forEach(Visitor visitor) {
+        int position = 0;
+        long taskId = 0;
+        while (position < length) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            int tf = 0;
+            shift = 0;
+            do {
+                b = data[position++];
+                tf |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            taskId += delta;
+            visitor.accept(taskId, tf);
+        }
+    }
+
+    // Số byte dữ liệu (không tính phần dư của mảng)
+    int bytes() {
+        return length;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        out.writeLong(lastTaskId);
+        out.writeInt(length);
+        out.write(data, 0, length);
+    }
+
+    static Postings readFrom(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        long lastTaskId = in.readLong();
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        return new Postings(data, data.length, size, lastTaskId);
+    }
+
+    private int decode(long[] ids, int[] tfs) {
+        int[] count = {0};
+        forEach((taskId, tf) -> {
+            ids[count[0]] = taskId;
+            tfs[count[0]++] = tf;
+        });
+        return count[0];
+    }
+
+    private void rewrite(long[] ids, int[] tfs, int count) {
+        length = 0;
+        size = 0;
+        lastTaskId = 0;
+        for (int i = 0; i < count; i++) {
+            append(ids[i], tfs[i]);
+        }
+        if (data.length > 64 && length < data.length >>> 2) {
+            data = Arrays.copyOf(data, Math.max(8, length * 2));
+        }
+    }
+
+    private void append(long taskId, int tf) {
+        // varint tối đa 10 byte cho delta + 5 byte cho tf
+        if (length + 15 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 15));
+        }
+        long delta = taskId - lastTaskId;
+        while ((delta & ~0x7fL) != 0) {
+            data[length++] = (byte) ((delta & 0x7f) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+        int value = tf;
+        while ((value & ~0x7f) != 0) {
+            data[length++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+        lastTaskId = taskId;
+        size++;
+    }
+}
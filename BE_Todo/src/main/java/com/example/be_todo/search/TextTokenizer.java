@@ -0,0 +1,48 @@
+package com.example.be_todo.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tách văn bản thành term: chữ thường, bỏ dấu tiếng Việt ("Đi chợ" -> "di", "cho"),
+ * mọi ký tự không phải chữ / số là dấu phân cách. Dùng chung cho lúc index và lúc tìm.
+ */
+final class TextTokenizer {
+
+    // Term dài hơn bị cắt (chuỗi base64, URL...), không ai gõ cả đoạn đó để tìm
+    static final int MAX_TERM_LENGTH = 32;
+
+    private TextTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'đ' || c == 'Đ') {
+                c = 'd';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (term.length() < MAX_TERM_LENGTH) {
+                    term.append(Character.toLowerCase(c));
+                }
+            } else if (!term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+}
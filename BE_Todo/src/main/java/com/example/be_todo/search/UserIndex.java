@@ -0,0 +1,254 @@
+package com.example.be_todo.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index của 1 user: term -> Postings (TreeMap để tra theo tiền tố), cộng forward index
+ * taskId -> các term của task để sửa / xoá không phải duyệt mọi term. Nhiều luồng tìm đồng thời,
+ * ghi độc quyền (ReentrantReadWriteLock).
+ */
+final class UserIndex {
+
+    // BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Term chỉ khớp tiền tố ("hop" -> "hoply") xếp sau term khớp nguyên từ
+    private static final double PREFIX_WEIGHT = 0.7;
+    // Tiền tố quá ngắn khớp quá nhiều term: chỉ lấy chừng này term có nhiều task nhất (term hiếm bị bỏ trước)
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final Comparator<Map.Entry<String, Postings>> BY_DOCUMENT_FREQUENCY =
+            Comparator.<Map.Entry<String, Postings>>comparingInt(entry -> entry.getValue().size())
+                    .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+    record Hit(long taskId, double score) {
+    }
+
+    private record Doc(int length, String[] terms) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Thêm hoặc thay nội dung của task. termFrequencies đã nhân trọng số (term trong tiêu đề tính nhiều lần hơn),
+     * length là tổng các tf.
+     */
+    void put(long taskId, Map<String, Integer> termFrequencies, int length) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId);
+            if (termFrequencies.isEmpty()) {
+                return;
+            }
+            String[] docTerms = new String[termFrequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(taskId, entry.getValue());
+                docTerms[i++] = entry.getKey();
+            }
+            docs.put(taskId, new Doc(length, docTerms));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(long taskId) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean contains(long taskId) {
+        lock.readLock().lock();
+        try {
+            return docs.containsKey(taskId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Xoá các task không có trong keep (đã bị xoá / chuyển sang user khác lúc index chưa theo dõi)
+    int retainAll(Set<Long> keep) {
+        lock.writeLock().lock();
+        try {
+            List<Long> stale = new ArrayList<>();
+            for (Long taskId : docs.keySet()) {
+                if (!keep.contains(taskId)) {
+                    stale.add(taskId);
+                }
+            }
+            stale.forEach(this::removeLocked);
+            return stale.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Task chứa mọi token của truy vấn (AND). Token khớp nguyên từ; riêng token cuối (người dùng đang gõ dở)
+     * khớp thêm các term nhận nó làm tiền tố. Điểm BM25 cộng theo token (mỗi token lấy term cho điểm cao nhất), sắp theo điểm giảm dần rồi taskId giảm dần.
+     */
+    List<Hit> search(List<String> tokens) {
+        lock.readLock().lock();
+        try {
+            if (docs.isEmpty() || tokens.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / docs.size();
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefix = i == tokens.size() - 1;
+                Map<Long, Double> tokenScores = scoreToken(tokens.get(i), prefix, averageLength, scores);
+                if (tokenScores.isEmpty()) {
+                    return List.of();
+                }
+                if (scores != null) {
+                    Map<Long, Double> previous = scores;
+                    tokenScores.replaceAll((taskId, score) -> score + previous.get(taskId));
+                }
+                scores = tokenScores;
+            }
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((taskId, score) -> hits.add(new Hit(taskId, score)));
+            hits.sort((a, b) -> a.score() != b.score()
+                    ? Double.compare(b.score(), a.score())
+                    : Long.compare(b.taskId(), a.taskId()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // candidates != null: chỉ chấm các task đã khớp những token trước (AND)
+    private Map<Long, Double> scoreToken(String token, boolean prefix, double averageLength,
+                                         Map<Long, Double> candidates) {
+        Map<Long, Double> scores = new HashMap<>();
+        Postings exact = terms.get(token);
+        if (exact != null) {
+            scorePostings(exact, 1.0, averageLength, candidates, scores);
+        }
+        if (prefix) {
+            for (Postings postings : prefixExpansions(token)) {
+                scorePostings(postings, PREFIX_WEIGHT, averageLength, candidates, scores);
+            }
+        }
+        return scores;
+    }
+
+    // Các term dài hơn nhận token làm tiền tố; quá MAX_PREFIX_EXPANSIONS thì giữ các term có document frequency cao nhất
+    private List<Postings> prefixExpansions(String token) {
+        SortedMap<String, Postings> prefixed = terms.subMap(token, false, token + Character.MAX_VALUE, false);
+        if (prefixed.size() <= MAX_PREFIX_EXPANSIONS) {
+            return new ArrayList<>(prefixed.values());
+        }
+        // Min-heap kích thước cố định: O(m log k) với m term khớp tiền tố
+        PriorityQueue<Map.Entry<String, Postings>> top = new PriorityQueue<>(MAX_PREFIX_EXPANSIONS + 1, BY_DOCUMENT_FREQUENCY);
+        for (Map.Entry<String, Postings> entry : prefixed.entrySet()) {
+            top.add(entry);
+            if (top.size() > MAX_PREFIX_EXPANSIONS) {
+                top.poll();
+            }
+        }
+        List<Postings> expansions = new ArrayList<>(top.size());
+        top.forEach(entry -> expansions.add(entry.getValue()));
+        return expansions;
+    }
+
+    private void scorePostings(Postings postings, double weight, double averageLength,
+                               Map<Long, Double> candidates, Map<Long, Double> scores) {
+        int documents = docs.size();
+        int df = postings.size();
+        double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+        postings.forEach((taskId, tf) -> {
+            if (candidates != null && !candidates.containsKey(taskId)) {
+                return;
+            }
+            double norm = K1 * (1 - B + B * docs.get(taskId).length() / averageLength);
+            double score = weight * idf * tf * (K1 + 1) / (tf + norm);
+            scores.merge(taskId, score, Math::max);
+        });
+    }
+
+    private boolean removeLocked(long taskId) {
+        Doc doc = docs.remove(taskId);
+        if (doc == null) {
+            return false;
+        }
+        for (String term : doc.terms()) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(taskId) && postings.isEmpty()) {
+                terms.remove(term);
+            }
+        }
+        totalLength -= doc.length();
+        return true;
+    }
+
+    // ----- Snapshot: postings giữ nguyên dạng nén; forward index dựng lại từ postings khi đọc -----
+
+    void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(terms.size());
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+            out.writeInt(docs.size());
+            for (Map.Entry<Long, Doc> entry : docs.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue().length());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static UserIndex readFrom(DataInputStream in) throws IOException {
+        UserIndex index = new UserIndex();
+        int termCount = in.readInt();
+        for (int i = 0; i < termCount; i++) {
+            String term = in.readUTF();
+            index.terms.put(term, Postings.readFrom(in));
+        }
+        Map<Long, List<String>> docTerms = new HashMap<>();
+        index.terms.forEach((term, postings) -> postings.forEach((taskId, tf) ->
+                docTerms.computeIfAbsent(taskId, id -> new ArrayList<>()).add(term)));
+        int docCount = in.readInt();
+        for (int i = 0; i < docCount; i++) {
+            long taskId = in.readLong();
+            int length = in.readInt();
+            List<String> termsOfDoc = docTerms.getOrDefault(taskId, List.of());
+            index.docs.put(taskId, new Doc(length, termsOfDoc.toArray(String[]::new)));
+            index.totalLength += length;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.be_todo.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+// Principal dựng từ claims của access token, không cần truy vấn DB
+public record AuthenticatedUser(
+        Long id,
+        String username,
+        String name,
+        String email,
+        List<String> roles
+) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.be_todo.security;
 
-import com.example.be_todo.entity.User;
 import com.example.be_todo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,22 +12,11 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findAll()
-                .stream()
-                .filter(u -> u.getUsername().equals(username))
-                .findFirst()
+        return userDetailsCache.get(username, userRepository::findWithRolesByUsername)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
-                        .map(r -> "ROLE_" + r.getName())
-                        .toArray(String[]::new))
-                .build();
     }
 }
-
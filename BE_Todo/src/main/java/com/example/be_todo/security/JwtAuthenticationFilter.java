@@ -1,26 +1,38 @@
 package com.example.be_todo.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final boolean strictMode;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   @Value("${jwt.strict-mode:false}") boolean strictMode) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.strictMode = strictMode;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -29,33 +41,49 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser principal = resolvePrincipal(authHeader.substring(7));
+
+            if (principal != null) {
+                Collection<? extends GrantedAuthority> authorities = strictMode
+                        ? revalidate(principal)
+                        : principal.authorities();
+
+                if (authorities != null) {
+                    UsernamePasswordAuthenticationToken authToken =
+                            new UsernamePasswordAuthenticationToken(principal, null, authorities);
+                    authToken.setDetails(
+                            new WebAuthenticationDetailsSource().buildDetails(request)
+                    );
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser resolvePrincipal(String jwt) {
+        try {
+            return jwtService.validateAndExtract(jwt).principal();
+        } catch (JwtException | IllegalArgumentException ex) {
+            // token sai chữ ký / hết hạn / sai định dạng: để request đi tiếp như chưa đăng nhập
+            return null;
+        }
+    }
+
+    // Strict mode: đối chiếu lại với UserDetailsCache để thu hồi role / user bị xoá có hiệu lực ngay
+    private Collection<? extends GrantedAuthority> revalidate(AuthenticatedUser principal) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(principal.username());
+            return userDetails.getAuthorities();
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+    }
 }
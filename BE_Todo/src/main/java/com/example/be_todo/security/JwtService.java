@@ -1,91 +1,214 @@
 package com.example.be_todo.security;
 
+import com.example.be_todo.entity.Role;
+import com.example.be_todo.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_NAME = "name";
+    static final String CLAIM_EMAIL = "email";
+    // Refresh token: jti (id riêng của từng token) + fam (id chung của chuỗi token sinh ra từ 1 lần login)
+    static final String CLAIM_FAMILY = "fam";
 
-    @Value("${jwt.access.expiration}")
-    private long accessTokenExpiration;
+    private final long accessTokenExpiration;
+    private final long refreshTokenExpiration;
 
-    @Value("${jwt.refresh.expiration}")
-    private long refreshTokenExpiration;
+    // Key và parser dựng 1 lần, dùng chung cho mọi request (JwtParser thread-safe)
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Token đã verify, key = phần chữ ký (HMAC của header.payload), tự hết hạn đúng lúc token hết hạn.
+    // null khi jwt.verified-cache.max-size=0 (tắt cache)
+    private final Cache<String, CachedToken> verifiedTokens;
+
+    private record CachedToken(String token, VerifiedToken verified) {
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    // jwt.verify theo kết quả: cached (lấy từ cache), verified (đã tính HMAC), rejected (token không hợp lệ)
+    private final Timer verifyCached;
+    private final Timer verifyParsed;
+    private final Timer verifyRejected;
+
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.access.expiration}") long accessTokenExpiration,
+                      @Value("${jwt.refresh.expiration}") long refreshTokenExpiration,
+                      @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheMaxSize,
+                      MeterRegistry meterRegistry) {
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.refreshTokenExpiration = refreshTokenExpiration;
+        this.verifyCached = verifyTimer(meterRegistry, "cached");
+        this.verifyParsed = verifyTimer(meterRegistry, "verified");
+        this.verifyRejected = verifyTimer(meterRegistry, "rejected");
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = verifiedCacheMaxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+                        long millisLeft = value.verified().expiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return Math.max(0, millisLeft) * 1_000_000L;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
-    public String extractUsernameIgnoreExpiration(String token) {
+
+    /**
+     * Parse và verify token đúng 1 lần, trả về mọi claim cần dùng.
+     * Token đã verify trước đó (client gửi lại cùng access token) lấy thẳng từ cache, bỏ qua HMAC.
+     *
+     * @throws io.jsonwebtoken.JwtException nếu token sai chữ ký, sai định dạng hoặc đã hết hạn
+     */
+    public VerifiedToken validateAndExtract(String token) {
+        long start = System.nanoTime();
+        String signature = verifiedTokens != null ? signatureOf(token) : null;
+        CachedToken cached = signature != null ? verifiedTokens.getIfPresent(signature) : null;
+        if (cached != null && cached.token().equals(token) && !cached.verified().isExpired(Instant.now())) {
+            verifyCached.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached.verified();
+        }
+
+        VerifiedToken verified;
         try {
-            return extractClaim(token, Claims::getSubject);
-        } catch (io.jsonwebtoken.ExpiredJwtException ex) {
-            return ex.getClaims().getSubject(); // vẫn lấy được username từ token hết hạn
+            verified = toVerifiedToken(parser.parseClaimsJws(token).getBody());
+        } catch (JwtException | IllegalArgumentException e) {
+            verifyRejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        if (signature != null && verified.expiresAt() != null) {
+            verifiedTokens.put(signature, new CachedToken(token, verified));
         }
+        verifyParsed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return verified;
     }
 
-    public boolean isRefreshTokenValid(String token) {
-        try {
-            Date expiration = extractClaim(token, Claims::getExpiration);
-            return expiration.after(new Date()); // chưa hết hạn thì hợp lệ
-        } catch (Exception e) {
-            return false;
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verify")
+                .description("Thời gian verify access token trong JwtAuthenticationFilter")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String signatureOf(String token) {
+        int lastDot = token.lastIndexOf('.');
+        return lastDot > 0 && lastDot < token.length() - 1 ? token.substring(lastDot + 1) : null;
+    }
+
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                expiration != null ? expiration.toInstant() : null,
+                toPrincipal(claims)
+        );
+    }
+
+    private static AuthenticatedUser toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return null;
         }
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        return new AuthenticatedUser(
+                userId.longValue(),
+                claims.getSubject(),
+                claims.get(CLAIM_NAME, String.class),
+                claims.get(CLAIM_EMAIL, String.class),
+                roles == null ? List.of() : roles.stream().map(String::valueOf).toList()
+        );
+    }
+
+    /**
+     * Verify refresh token (chữ ký + hạn) và lấy jti / fam. Token cũ không có jti trả về tokenId == null.
+     *
+     * @throws io.jsonwebtoken.JwtException nếu token sai chữ ký, sai định dạng hoặc đã hết hạn
+     */
+    public RefreshTokenClaims parseRefreshToken(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return new RefreshTokenClaims(
+                claims.getSubject(),
+                claims.getId(),
+                claims.get(CLAIM_FAMILY, String.class),
+                claims.getExpiration().toInstant()
+        );
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         try {
-            final Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            return claimsResolver.apply(claims);
-        } catch (io.jsonwebtoken.ExpiredJwtException ex) {
+            return claimsResolver.apply(parser.parseClaimsJws(token).getBody());
+        } catch (ExpiredJwtException ex) {
             return claimsResolver.apply(ex.getClaims()); // lấy claims từ token hết hạn
         }
     }
 
+    public String generateAccessToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLES, user.getRoles().stream().map(Role::getName).toList());
+        claims.put(CLAIM_NAME, user.getName());
+        claims.put(CLAIM_EMAIL, user.getEmail());
+        return buildToken(claims, user.getUsername(), accessTokenExpiration);
+    }
 
-    public String generateAccessToken(String username) {
-        return buildToken(username, accessTokenExpiration);
+    // Mỗi refresh token có jti mới; familyId giữ nguyên qua các lần rotate
+    public String generateRefreshToken(String username, String familyId) {
+        return buildToken(Map.of(Claims.ID, UUID.randomUUID().toString(), CLAIM_FAMILY, familyId),
+                username, refreshTokenExpiration);
     }
 
-    public String generateRefreshToken(String username) {
-        return buildToken(username, refreshTokenExpiration);
+    public long getRefreshTokenExpiration() {
+        return refreshTokenExpiration;
     }
 
-    private String buildToken(String username, long expiration) {
+    private String buildToken(Map<String, Object> claims, String username, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .addClaims(claims)
                 .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-
-    public boolean isTokenValid(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
-    }
 }
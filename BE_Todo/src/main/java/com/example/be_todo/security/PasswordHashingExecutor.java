@@ -0,0 +1,77 @@
+package com.example.be_todo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool riêng, giới hạn số thread và độ dài hàng đợi, cho việc tốn CPU của BCrypt (login, register).
+ * Hàng đợi đầy thì từ chối ngay bằng 503 thay vì giữ request: login dồn dập không chiếm hết thread của Tomcat
+ * và không làm chậm các API task.
+ * Metric: executor.* với tag name=passwordHashing (executor.queued, executor.active, executor.idle = thời gian chờ trong queue...).
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    public static final String EXECUTOR_NAME = "passwordHashing";
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(@Value("${security.password-hashing.threads:0}") int threads,
+                                   @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        // 0 = một nửa số core, để phần còn lại cho request thường
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, EXECUTOR_NAME);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Số request login/register bị từ chối (503) vì hàng đợi BCrypt đầy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Chạy task trên pool BCrypt.
+     *
+     * @throws ResponseStatusException 503 nếu hàng đợi đã đầy
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
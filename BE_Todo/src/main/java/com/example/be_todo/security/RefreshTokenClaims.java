@@ -0,0 +1,9 @@
+package com.example.be_todo.security;
+
+import java.time.Instant;
+
+/**
+ * Claim của refresh token đã verify. tokenId = jti, familyId = fam (chung cho mọi token rotate từ 1 lần login).
+ */
+public record RefreshTokenClaims(String username, String tokenId, String familyId, Instant expiresAt) {
+}
@@ -0,0 +1,88 @@
+package com.example.be_todo.security;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tập id (jti / family) đã thu hồi trong bộ nhớ: Bloom filter đứng trước 1 set chính xác.
+ * Trường hợp thường gặp (token chưa bị thu hồi) chỉ tính hash trên các ký tự của id và đọc vài bit,
+ * không cấp phát object. Chỉ khi Bloom báo "có thể" mới tra set để loại false positive.
+ * Thêm được sau khi dựng (thread-safe); quá capacity thì tỉ lệ false positive tăng nhưng kết quả vẫn đúng,
+ * lần rebuild sau sẽ dựng lại theo số phần tử mới.
+ */
+public final class RevokedTokenFilter {
+
+    private static final int MIN_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+    private final Set<String> exact;
+
+    private RevokedTokenFilter(int capacity) {
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-capacity * Math.log(FALSE_POSITIVE_RATE) / (ln2 * ln2));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+        this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+        this.exact = ConcurrentHashMap.newKeySet(capacity);
+    }
+
+    // Capacity gấp đôi số id hiện có để còn chỗ cho các id thu hồi tới trước lần rebuild sau
+    public static RevokedTokenFilter of(Collection<String> ids) {
+        RevokedTokenFilter filter = new RevokedTokenFilter(Math.max(MIN_CAPACITY, ids.size() * 2));
+        ids.forEach(filter::add);
+        return filter;
+    }
+
+    public void add(String id) {
+        exact.add(id);
+        long hash = hash(id);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+            bits.accumulateAndGet(bit >>> 6, 1L << bit, (current, mask) -> current | mask);
+        }
+    }
+
+    public boolean contains(String id) {
+        long hash = hash(id);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return exact.contains(id);
+    }
+
+    public int size() {
+        return exact.size();
+    }
+
+    // FNV-1a 64 bit trên từng char, không tạo byte[]
+    private static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizer của MurmurHash3 (fmix64): trộn đều các bit trước khi chia lấy vị trí
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.be_todo.security;
+
+import com.example.be_todo.entity.Role;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.cache.CacheLoads;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class UserDetailsCache {
+
+    // Chỉ cache snapshot bất biến: UserDetails của Spring bị xoá password sau khi xác thực (eraseCredentials)
+    private record CachedUser(String username, String password, String[] authorities) {
+
+        static CachedUser from(User user) {
+            return new CachedUser(
+                    user.getUsername(),
+                    user.getPassword(),
+                    user.getRoles().stream()
+                            .map(Role::getName)
+                            .map(name -> "ROLE_" + name)
+                            .toArray(String[]::new)
+            );
+        }
+
+        UserDetails toUserDetails() {
+            return org.springframework.security.core.userdetails.User.builder()
+                    .username(username)
+                    .password(password)
+                    .authorities(authorities)
+                    .build();
+        }
+    }
+
+    private final AsyncCache<String, Optional<CachedUser>> cache;
+
+    public UserDetailsCache(@Value("${security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${security.user-cache.ttl:5m}") Duration ttl,
+                            @Value("${security.user-cache.negative-ttl:30s}") Duration negativeTtl) {
+        long ttlNanos = ttl.toNanos();
+        long negativeTtlNanos = negativeTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Optional<CachedUser>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<CachedUser> value, long currentTime) {
+                        // Username không tồn tại được cache ngắn hơn
+                        return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<CachedUser> value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<CachedUser> value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<UserDetails> get(String username, Function<String, Optional<User>> loader) {
+        // Không nạp trong lock của map: loader truy vấn DB (xem CacheLoads)
+        return CacheLoads.getOrLoad(cache, username, key -> loader.apply(key).map(CachedUser::from))
+                .map(CachedUser::toUserDetails);
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            cache.synchronous().invalidate(username);
+        }
+    }
+
+    public void evictAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.be_todo.security;
+
+import java.time.Instant;
+
+/**
+ * Kết quả của một lần parse + verify token.
+ * principal == null với refresh token hoặc access token cũ không có claim uid.
+ */
+public record VerifiedToken(String username, Instant expiresAt, AuthenticatedUser principal) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.HabitDTO;
+import com.example.be_todo.dto.HabitRequestDTO;
+import com.example.be_todo.dto.HabitStatsDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface HabitService {
+    // from / to (tuỳ chọn): khoảng ngày trả về trong HabitDTO.checkIns
+    List<HabitDTO> getHabits(Long userId, LocalDate from, LocalDate to);
+
+    HabitDTO getHabit(Long habitId, Long userId, LocalDate from, LocalDate to);
+
+    HabitDTO createHabit(Long userId, HabitRequestDTO request);
+
+    HabitDTO updateHabit(Long habitId, Long userId, HabitRequestDTO request);
+
+    void deleteHabit(Long habitId, Long userId);
+
+    // Đánh dấu / bỏ đánh dấu 1 ngày (null = hôm nay); gọi lại nhiều lần cho cùng ngày không đổi gì
+    HabitDTO checkIn(Long habitId, Long userId, LocalDate date);
+
+    HabitDTO undoCheckIn(Long habitId, Long userId, LocalDate date);
+
+    // from / to null = từ startDate / tới hôm nay
+    HabitStatsDTO getStats(Long habitId, Long userId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,184 @@
+package com.example.be_todo.service.Impl;
+
+import com.example.be_todo.dto.HabitDTO;
+import com.example.be_todo.dto.HabitRequestDTO;
+import com.example.be_todo.dto.HabitStatsDTO;
+import com.example.be_todo.entity.Habit;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.habit.CheckInBitmap;
+import com.example.be_todo.repository.HabitRepository;
+import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.service.HabitService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Check-in lưu trong cột bitmap của chính dòng habits (không có bảng check-in riêng):
+ * check-in = khoá dòng, bật 1 bit, ghi lại cột; streak / tỉ lệ hoàn thành tính trên bitmap trong bộ nhớ.
+ */
+@Service
+@RequiredArgsConstructor
+public class HabitServiceImpl implements HabitService {
+
+    private final HabitRepository habitRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HabitDTO> getHabits(Long userId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        return habitRepository.findByUserIdOrderById(userId).stream()
+                .map(habit -> toDto(habit, CheckInBitmap.fromBytes(habit.getCheckIns()), today, from, to))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public HabitDTO getHabit(Long habitId, Long userId, LocalDate from, LocalDate to) {
+        Habit habit = findOwned(habitId, userId);
+        return toDto(habit, CheckInBitmap.fromBytes(habit.getCheckIns()), LocalDate.now(), from, to);
+    }
+
+    @Override
+    @Transactional
+    public HabitDTO createHabit(Long userId, HabitRequestDTO request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        Habit habit = new Habit();
+        apply(habit, request);
+        habit.setStartDate(request.getStartDate() != null ? request.getStartDate() : LocalDate.now());
+        habit.setUser(user);
+        Habit saved = habitRepository.save(habit);
+        return toDto(saved, new CheckInBitmap(), LocalDate.now(), null, null);
+    }
+
+    @Override
+    @Transactional
+    public HabitDTO updateHabit(Long habitId, Long userId, HabitRequestDTO request) {
+        Habit habit = findOwned(habitId, userId);
+        apply(habit, request);
+        return toDto(habit, CheckInBitmap.fromBytes(habit.getCheckIns()), LocalDate.now(), null, null);
+    }
+
+    @Override
+    @Transactional
+    public void deleteHabit(Long habitId, Long userId) {
+        habitRepository.delete(findOwned(habitId, userId));
+    }
+
+    @Override
+    @Transactional
+    public HabitDTO checkIn(Long habitId, Long userId, LocalDate date) {
+        return updateCheckIn(habitId, userId, date, true);
+    }
+
+    @Override
+    @Transactional
+    public HabitDTO undoCheckIn(Long habitId, Long userId, LocalDate date) {
+        return updateCheckIn(habitId, userId, date, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public HabitStatsDTO getStats(Long habitId, Long userId, LocalDate from, LocalDate to) {
+        Habit habit = findOwned(habitId, userId);
+        CheckInBitmap bitmap = CheckInBitmap.fromBytes(habit.getCheckIns());
+        LocalDate today = LocalDate.now();
+        // Cắt khoảng theo [startDate, hôm nay]: ngày ngoài khoảng này không thể có check-in
+        LocalDate start = later(from, habit.getStartDate());
+        LocalDate end = to == null || to.isAfter(today) ? today : to;
+        int days = start.isAfter(end) ? 0 : (int) ChronoUnit.DAYS.between(start, end) + 1;
+        int checkedDays = days == 0 ? 0 : bitmap.count(dayIndex(habit, start), dayIndex(habit, end));
+        return new HabitStatsDTO(habit.getId(), start, end, days, checkedDays, rate(checkedDays, days),
+                bitmap.currentStreak(dayIndex(habit, today)), bitmap.longestStreak());
+    }
+
+    private HabitDTO updateCheckIn(Long habitId, Long userId, LocalDate date, boolean checked) {
+        Habit habit = habitRepository.lockByIdAndUserId(habitId, userId)
+                .orElseThrow(() -> new EntityNotFoundException("Habit not found"));
+        LocalDate today = LocalDate.now();
+        LocalDate day = date != null ? date : today;
+        if (day.isBefore(habit.getStartDate())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Date " + day + " is before the habit start date " + habit.getStartDate());
+        }
+        if (day.isAfter(today)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot check in a future date: " + day);
+        }
+        long index = ChronoUnit.DAYS.between(habit.getStartDate(), day);
+        if (index >= CheckInBitmap.MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date " + day + " is too far from the habit start date");
+        }
+
+        CheckInBitmap bitmap = CheckInBitmap.fromBytes(habit.getCheckIns());
+        boolean changed = checked ? bitmap.set((int) index) : bitmap.clear((int) index);
+        if (changed) {
+            habit.setCheckIns(bitmap.toBytes());
+            habit.setCompletedDays(bitmap.count());
+        }
+        return toDto(habit, bitmap, today, null, null);
+    }
+
+    private Habit findOwned(Long habitId, Long userId) {
+        return habitRepository.findByIdAndUserId(habitId, userId)
+                .orElseThrow(() -> new EntityNotFoundException("Habit not found"));
+    }
+
+    private static void apply(Habit habit, HabitRequestDTO request) {
+        if (request.getTitle() == null || request.getTitle().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "title is required");
+        }
+        if (request.getTargetDays() != null && request.getTargetDays() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "targetDays cannot be negative");
+        }
+        habit.setTitle(request.getTitle());
+        habit.setDescription(request.getDescription());
+        if (request.getTargetDays() != null) {
+            habit.setTargetDays(request.getTargetDays());
+        }
+    }
+
+    private static HabitDTO toDto(Habit habit, CheckInBitmap bitmap, LocalDate today, LocalDate from, LocalDate to) {
+        int todayIndex = dayIndex(habit, today);
+        int elapsedDays = Math.max(todayIndex + 1, 0);
+        List<LocalDate> checkIns = new ArrayList<>();
+        if (from != null || to != null) {
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+            }
+            LocalDate start = later(from, habit.getStartDate());
+            LocalDate end = to == null || to.isAfter(today) ? today : to;
+            if (!start.isAfter(end)) {
+                bitmap.forEach(dayIndex(habit, start), dayIndex(habit, end),
+                        day -> checkIns.add(habit.getStartDate().plusDays(day)));
+            }
+        }
+        return new HabitDTO(habit.getId(), habit.getTitle(), habit.getDescription(), habit.getTargetDays(),
+                habit.getCompletedDays(), habit.getStartDate(), bitmap.get(todayIndex),
+                bitmap.currentStreak(todayIndex), bitmap.longestStreak(),
+                rate(bitmap.count(0, todayIndex), elapsedDays), checkIns);
+    }
+
+    // Số ngày tính từ startDate, kẹp vào phạm vi int (ngày trước startDate ra số âm)
+    private static int dayIndex(Habit habit, LocalDate date) {
+        long days = ChronoUnit.DAYS.between(habit.getStartDate(), date);
+        return (int) Math.max(Math.min(days, Integer.MAX_VALUE), Integer.MIN_VALUE);
+    }
+
+    private static LocalDate later(LocalDate date, LocalDate startDate) {
+        return date == null || date.isBefore(startDate) ? startDate : date;
+    }
+
+    private static double rate(int checkedDays, int days) {
+        return days <= 0 ? 0 : (double) checkedDays / days;
+    }
+}
@@ -1,20 +1,37 @@
 package com.example.be_todo.service.Impl;
 
+import com.example.be_todo.cache.ListVersions;
+import com.example.be_todo.cache.TaskListCache;
 import com.example.be_todo.dto.TaskCategoryDTO;
+import com.example.be_todo.dto.TaskDTO;
 import com.example.be_todo.entity.Task;
 import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.TaskTombstoneKind;
 import com.example.be_todo.entity.User;
 import com.example.be_todo.entity.Status;
+import com.example.be_todo.event.TaskCategoryChangedEvent;
+import com.example.be_todo.event.TaskCalendarChangedEvent;
+import com.example.be_todo.event.TaskChangedEvent;
+import com.example.be_todo.event.TaskScheduleChangedEvent;
+import com.example.be_todo.event.TaskTextChangedEvent;
 import com.example.be_todo.repository.TaskCategoryRepository;
 import com.example.be_todo.repository.TaskRepository;
 import com.example.be_todo.repository.UserRepository;
 import com.example.be_todo.service.PersonalTaskService;
+import com.example.be_todo.service.TaskChangePublisher;
+import com.example.be_todo.service.TaskCounterChanges;
+import com.example.be_todo.service.TaskStatsService;
+import com.example.be_todo.service.TaskSyncService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -25,7 +42,12 @@ public class PersonalTaskServiceImpl implements PersonalTaskService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final TaskCategoryRepository taskCategoryRepository;
-
+    private final TaskListCache taskListCache;
+    private final ListVersions listVersions;
+    private final TaskStatsService taskStatsService;
+    private final TaskSyncService taskSyncService;
+    private final TaskChangePublisher taskChangePublisher;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<TaskCategory> getAllCategories() {
@@ -33,6 +55,7 @@ public class PersonalTaskServiceImpl implements PersonalTaskService {
     }
 
     @Override
+    @Transactional
     public Task createTask(Long currentUserId, Task task) {
         User user = userRepository.findById(currentUserId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
@@ -48,8 +71,16 @@ public class PersonalTaskServiceImpl implements PersonalTaskService {
         task.setStatus(task.getStatus() != null ? task.getStatus() : Status.PENDING);
         task.setCreatedAt(LocalDateTime.now());
         task.setUpdatedAt(LocalDateTime.now());
+        task.setChangeSeq(taskSyncService.nextSeq(currentUserId));
+        task.setVersion(null);
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskStatsService.apply(new TaskCounterChanges().add(saved));
+        taskChangePublisher.publishScheduleChange(null, saved);
+        taskChangePublisher.publishCalendarChange(null, saved);
+        eventPublisher.publishEvent(TaskTextChangedEvent.of(saved));
+        eventPublisher.publishEvent(TaskChangedEvent.of(currentUserId));
+        return saved;
     }
 
     @Override
@@ -58,22 +89,61 @@ public class PersonalTaskServiceImpl implements PersonalTaskService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
         taskCategory.setUser(user);
-        return taskCategoryRepository.save(taskCategory);
+        TaskCategory saved = taskCategoryRepository.save(taskCategory);
+        eventPublisher.publishEvent(new TaskCategoryChangedEvent(currentUserId));
+        return saved;
     }
 
+    // Số câu SQL cố định (kiểm tra quyền + 1 UPDATE + 1 DELETE) bất kể category có bao nhiêu task
     @Override
+    @Transactional
     public void deleteTaskCategory(Long currentUserId, Long categoryId) {
-        TaskCategory category = taskCategoryRepository.findByIdAndUserId(categoryId, currentUserId)
-                .orElseThrow(() -> new EntityNotFoundException("Category not found or not owned by user"));
+        if (!taskCategoryRepository.existsByIdAndUserId(categoryId, currentUserId)) {
+            throw new EntityNotFoundException("Category not found or not owned by user");
+        }
+
+        // Task trong category có thể thuộc user khác (admin gán), lấy owner + số task trước khi gỡ liên kết
+        TaskCounterChanges counterChanges = new TaskCounterChanges();
+        List<Long> affectedUserIds = new ArrayList<>();
+        for (Object[] row : taskRepository.countByCategoryIdGroupByUser(categoryId)) {
+            Long userId = (Long) row[0];
+            affectedUserIds.add(userId);
+            counterChanges.moveCategory(userId, categoryId, null, (Long) row[1]);
+        }
+
+        List<Long> syncUserIds = new ArrayList<>(affectedUserIds);
+        syncUserIds.add(currentUserId);
+        Map<Long, Long> changeSeqs = taskSyncService.nextSeqs(syncUserIds);
+        // Bỏ liên kết category bằng 1 câu UPDATE cho mỗi owner (thường chỉ có chính user này)
+        LocalDateTime now = LocalDateTime.now();
+        for (Long userId : affectedUserIds) {
+            taskRepository.clearCategory(categoryId, userId, changeSeqs.get(userId), now);
+        }
+        taskCategoryRepository.deleteByIdAndUserId(categoryId, currentUserId);
+        taskSyncService.recordDeleted(currentUserId, TaskTombstoneKind.CATEGORY, categoryId, changeSeqs.get(currentUserId));
+        taskStatsService.apply(counterChanges);
+        eventPublisher.publishEvent(new TaskCategoryChangedEvent(currentUserId));
+        eventPublisher.publishEvent(TaskChangedEvent.of(affectedUserIds.toArray(Long[]::new)));
+    }
 
-        // Lấy tất cả tasks thuộc category
-        List<Task> tasks = taskRepository.findByCategoryId(categoryId);
-        for (Task task : tasks) {
-            task.setCategory(null); // Bỏ liên kết category
+    @Override
+    @Transactional
+    public int moveTasksToCategory(Long currentUserId, Long fromCategoryId, Long toCategoryId) {
+        if (fromCategoryId.equals(toCategoryId)) {
+            return 0;
+        }
+        if (taskCategoryRepository.countByUserIdAndIdIn(currentUserId, List.of(fromCategoryId, toCategoryId)) != 2) {
+            throw new EntityNotFoundException("Category not found or not owned by user");
         }
-        taskRepository.saveAll(tasks);
 
-        taskCategoryRepository.delete(category);
+        int moved = taskRepository.moveToCategory(currentUserId, fromCategoryId,
+                taskCategoryRepository.getReferenceById(toCategoryId), taskSyncService.nextSeq(currentUserId),
+                LocalDateTime.now());
+        if (moved > 0) {
+            taskStatsService.apply(new TaskCounterChanges().moveCategory(currentUserId, fromCategoryId, toCategoryId, moved));
+            eventPublisher.publishEvent(TaskChangedEvent.of(currentUserId));
+        }
+        return moved;
     }
 
     @Override
@@ -86,6 +156,7 @@ public class PersonalTaskServiceImpl implements PersonalTaskService {
 
 
     @Override
+    @Transactional
     public Task updateTask(Long taskId, Task updatedTask, Long currentUserId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
@@ -93,6 +164,15 @@ public class PersonalTaskServiceImpl implements PersonalTaskService {
         if (!task.getUser().getId().equals(currentUserId)) {
             throw new SecurityException("You are not allowed to update this task");
         }
+        // Body mang version client đang có (null = không kiểm tra): lệch thì 409
+        if (updatedTask.getVersion() != null && !updatedTask.getVersion().equals(task.getVersion())) {
+            throw TaskChangePublisher.conflict(taskId);
+        }
+        TaskCounterChanges counterChanges = new TaskCounterChanges().remove(task);
+        TaskScheduleChangedEvent scheduleBefore = TaskScheduleChangedEvent.of(task);
+        TaskCalendarChangedEvent calendarBefore = TaskCalendarChangedEvent.of(task);
+        TaskTextChangedEvent textBefore = TaskTextChangedEvent.of(task);
+        task.setChangeSeq(taskSyncService.nextSeq(currentUserId));
 
         if (updatedTask.getCategory() != null && updatedTask.getCategory().getId() != null) {
             TaskCategory category = taskCategoryRepository.findById(updatedTask.getCategory().getId())
@@ -107,10 +187,17 @@ public class PersonalTaskServiceImpl implements PersonalTaskService {
         task.setStatus(updatedTask.getStatus());
         task.setUpdatedAt(LocalDateTime.now());
 
-        return taskRepository.save(task);
+        Task saved = taskChangePublisher.saveChecked(task);
+        taskStatsService.apply(counterChanges.add(saved));
+        taskChangePublisher.publishScheduleChange(scheduleBefore, saved);
+        taskChangePublisher.publishCalendarChange(calendarBefore, saved);
+        taskChangePublisher.publishTextChange(textBefore, saved);
+        eventPublisher.publishEvent(TaskChangedEvent.of(currentUserId));
+        return saved;
     }
 
     @Override
+    @Transactional
     public Task updateStatus(Long taskId, Status status, Long currentUserId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
@@ -119,12 +206,22 @@ public class PersonalTaskServiceImpl implements PersonalTaskService {
             throw new SecurityException("You are not allowed to update this task");
         }
 
+        TaskCounterChanges counterChanges = new TaskCounterChanges().remove(task);
+        TaskScheduleChangedEvent scheduleBefore = TaskScheduleChangedEvent.of(task);
+        TaskCalendarChangedEvent calendarBefore = TaskCalendarChangedEvent.of(task);
+        task.setChangeSeq(taskSyncService.nextSeq(currentUserId));
         task.setStatus(status);
         task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        Task saved = taskChangePublisher.saveChecked(task);
+        taskStatsService.apply(counterChanges.add(saved));
+        taskChangePublisher.publishScheduleChange(scheduleBefore, saved);
+        taskChangePublisher.publishCalendarChange(calendarBefore, saved);
+        eventPublisher.publishEvent(TaskChangedEvent.of(currentUserId));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteTask(Long taskId, Long currentUserId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
@@ -133,17 +230,41 @@ public class PersonalTaskServiceImpl implements PersonalTaskService {
             throw new SecurityException("You are not allowed to delete this task");
         }
 
-        taskRepository.deleteById(taskId);
+        long changeSeq = taskSyncService.nextSeq(currentUserId);
+        TaskScheduleChangedEvent scheduleBefore = TaskScheduleChangedEvent.of(task);
+        taskChangePublisher.deleteChecked(task);
+        taskStatsService.apply(new TaskCounterChanges().remove(task));
+        taskSyncService.recordDeleted(currentUserId, TaskTombstoneKind.TASK, taskId, changeSeq);
+        if (scheduleBefore.hasReminders()) {
+            eventPublisher.publishEvent(TaskScheduleChangedEvent.removed(taskId));
+        }
+        if (task.getStartTime() != null) {
+            eventPublisher.publishEvent(TaskCalendarChangedEvent.removed(task));
+        }
+        eventPublisher.publishEvent(TaskTextChangedEvent.removed(task));
+        eventPublisher.publishEvent(TaskChangedEvent.of(currentUserId));
+    }
+
+    @Override
+    public List<TaskDTO> getMyTasks(Long currentUserId) {
+        return taskListCache.getUnpaged(currentUserId, null,
+                limit -> taskRepository.findDtoByUserId(currentUserId, limit));
+    }
+
+    @Override
+    public List<TaskDTO> getMyTasksByStatus(Long currentUserId, Status status) {
+        return taskListCache.getUnpaged(currentUserId, status,
+                limit -> taskRepository.findDtoByUserIdAndStatus(currentUserId, status, limit));
     }
 
     @Override
-    public List<Task> getMyTasks(Long currentUserId) {
-        return taskRepository.findByUserId(currentUserId);
+    public String getMyTasksETag(Long currentUserId) {
+        return taskListCache.eTag(currentUserId, null);
     }
 
     @Override
-    public List<Task> getMyTasksByStatus(Long currentUserId, Status status) {
-        return taskRepository.findByUserIdAndStatus(currentUserId, status);
+    public String getTaskCategoriesETag(Long currentUserId) {
+        return listVersions.eTag(currentUserId, ListVersions.ListKind.CATEGORIES, null);
     }
 }
 
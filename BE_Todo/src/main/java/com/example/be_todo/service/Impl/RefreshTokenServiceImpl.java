@@ -0,0 +1,208 @@
+package com.example.be_todo.service.Impl;
+
+import com.example.be_todo.cache.CacheLoads;
+import com.example.be_todo.dto.AuthResponse;
+import com.example.be_todo.entity.RevokedTokenType;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.RevokedTokenRepository;
+import com.example.be_todo.security.JwtService;
+import com.example.be_todo.security.RefreshTokenClaims;
+import com.example.be_todo.security.RevokedTokenFilter;
+import com.example.be_todo.service.RefreshTokenService;
+import com.example.be_todo.service.UserService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Refresh token xoay vòng: mỗi lần refresh, jti cũ bị thu hồi và token mới (jti mới, cùng family) được cấp.
+ * Token đã thu hồi mà còn được gửi lên nghĩa là bị lộ: thu hồi cả family, mọi token của lần login đó mất hiệu lực.
+ * Ngoại lệ: nhiều tab cùng refresh bằng 1 token (chung localStorage) trong reuse-grace thì nhận lại đúng token kế tiếp
+ * của lần rotate đầu thay vì bị coi là dùng lại. Grace chỉ giữ trong bộ nhớ của instance đã rotate, request rơi vào
+ * instance khác vẫn bị coi là dùng lại; FE tự tuần tự hoá refresh giữa các tab nên đây chỉ là lớp dự phòng.
+ * Bảng revoked_tokens là nguồn chính; RevokedTokenFilter giữ bản sao trong bộ nhớ để kiểm tra O(1),
+ * được dựng lại định kỳ (nhận thu hồi từ instance khác, bỏ id đã hết hạn) và dòng hết hạn bị prune khỏi bảng.
+ * Refresh bình thường không đọc bảng: family thu hồi ở instance khác có hiệu lực sau lần rebuild kế tiếp.
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private final JwtService jwtService;
+    private final UserService userService;
+    private final RevokedTokenRepository revokedTokenRepository;
+    // jti vừa rotate -> refresh token kế tiếp. Request cùng jti đang chạy thì chờ kết quả của request đầu
+    private final AsyncCache<String, String> rotations;
+
+    // lock chỉ bao thao tác trong bộ nhớ (không I/O); contains() không cần lock
+    private final ReentrantLock filterLock = new ReentrantLock();
+    private volatile RevokedTokenFilter filter = RevokedTokenFilter.of(List.of());
+    // Id thu hồi trong lúc rebuild đang đọc bảng, thêm lại vào filter mới để không bị mất
+    private List<String> revokedDuringRebuild;
+
+    public RefreshTokenServiceImpl(JwtService jwtService,
+                                   UserService userService,
+                                   RevokedTokenRepository revokedTokenRepository,
+                                   @Value("${jwt.refresh.reuse-grace:10s}") Duration reuseGrace) {
+        this.jwtService = jwtService;
+        this.userService = userService;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.rotations = Caffeine.newBuilder()
+                .expireAfterWrite(reuseGrace)
+                .buildAsync();
+    }
+
+    @Override
+    public String issue(String username) {
+        return jwtService.generateRefreshToken(username, UUID.randomUUID().toString());
+    }
+
+    @Override
+    public AuthResponse rotate(String refreshToken) {
+        RefreshTokenClaims claims = parse(refreshToken);
+        if (claims.tokenId() == null || claims.familyId() == null) {
+            // Token cấp trước khi có rotation: không thu hồi được nên không nhận nữa, user login lại
+            throw unauthorized("Refresh token is no longer supported, please log in again");
+        }
+        if (filter.contains(claims.familyId())) {
+            throw unauthorized("Refresh token has been revoked");
+        }
+        String successor = CacheLoads.getOrLoad(rotations, claims.tokenId(), tokenId -> rotateOnce(claims));
+
+        // Nạp lại user để access token mới mang roles hiện tại
+        User user = userService.getUserByUsername(claims.username())
+                .orElseThrow(() -> unauthorized("User not found"));
+        return new AuthResponse(jwtService.generateAccessToken(user), successor);
+    }
+
+    private String rotateOnce(RefreshTokenClaims claims) {
+        if (filter.contains(claims.tokenId()) || !tryRevoke(claims.tokenId(), RevokedTokenType.TOKEN,
+                claims.username(), toLocalDateTime(claims.expiresAt()))) {
+            // Token đã rotate rồi (quá reuse-grace, hoặc ở instance khác) mà vẫn được dùng lại
+            log.warn("Refresh token reuse detected for user {}, revoking family {}", claims.username(), claims.familyId());
+            revokeFamily(claims);
+            throw unauthorized("Refresh token has been revoked");
+        }
+        return jwtService.generateRefreshToken(claims.username(), claims.familyId());
+    }
+
+    @Override
+    public void revoke(String refreshToken) {
+        RefreshTokenClaims claims;
+        try {
+            claims = jwtService.parseRefreshToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            return; // token hỏng / hết hạn: không còn gì để thu hồi
+        }
+        if (claims.familyId() != null) {
+            revokeFamily(claims);
+        }
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:1m}",
+            initialDelayString = "${jwt.revocation.rebuild-interval:1m}")
+    public void rebuildFilter() {
+        filterLock.lock();
+        try {
+            revokedDuringRebuild = new ArrayList<>();
+        } finally {
+            filterLock.unlock();
+        }
+
+        List<String> ids;
+        try {
+            ids = revokedTokenRepository.findActiveIds(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            filterLock.lock();
+            try {
+                revokedDuringRebuild = null;
+            } finally {
+                filterLock.unlock();
+            }
+            throw e;
+        }
+        RevokedTokenFilter rebuilt = RevokedTokenFilter.of(ids);
+
+        filterLock.lock();
+        try {
+            revokedDuringRebuild.forEach(rebuilt::add);
+            revokedDuringRebuild = null;
+            filter = rebuilt;
+        } finally {
+            filterLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:1h}",
+            initialDelayString = "${jwt.revocation.prune-interval:1h}")
+    public void pruneExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Pruned {} expired revoked refresh tokens", deleted);
+        }
+    }
+
+    private void revokeFamily(RefreshTokenClaims claims) {
+        // Mọi token của family được cấp trước lúc này, nên hết hạn chậm nhất sau 1 vòng đời refresh token
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(jwtService.getRefreshTokenExpiration() * 1_000_000L);
+        tryRevoke(claims.familyId(), RevokedTokenType.FAMILY, claims.username(), expiresAt);
+        markRevoked(claims.familyId()); // family đã có trong bảng (thu hồi từ trước) thì vẫn đưa vào filter
+    }
+
+    // false nếu id đã bị thu hồi từ trước
+    private boolean tryRevoke(String id, RevokedTokenType type, String username, LocalDateTime expiresAt) {
+        try {
+            revokedTokenRepository.insert(id, type, username, expiresAt, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+        markRevoked(id);
+        return true;
+    }
+
+    private void markRevoked(String id) {
+        filterLock.lock();
+        try {
+            filter.add(id);
+            if (revokedDuringRebuild != null) {
+                revokedDuringRebuild.add(id);
+            }
+        } finally {
+            filterLock.unlock();
+        }
+    }
+
+    private RefreshTokenClaims parse(String refreshToken) {
+        try {
+            return jwtService.parseRefreshToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw unauthorized("Invalid or expired refresh token");
+        }
+    }
+
+    private static ResponseStatusException unauthorized(String reason) {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, reason);
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
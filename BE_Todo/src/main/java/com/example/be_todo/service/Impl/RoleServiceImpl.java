@@ -4,6 +4,7 @@ import com.example.be_todo.entity.Role;
 import com.example.be_todo.entity.User;
 import com.example.be_todo.repository.RoleRepository;
 import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.security.UserDetailsCache;
 import com.example.be_todo.service.RoleService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -16,12 +17,14 @@ import java.util.List;
 public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Autowired
     UserRepository userRepository;
 
-    public RoleServiceImpl(RoleRepository roleRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository, UserDetailsCache userDetailsCache) {
         this.roleRepository = roleRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -33,13 +36,17 @@ public class RoleServiceImpl implements RoleService {
     public Role updateRole(Long id, Role role) {
         return roleRepository.findById(id).map(r -> {
             r.setName(role.getName());
-            return roleRepository.save(r);
+            Role saved = roleRepository.save(r);
+            // Đổi tên role ảnh hưởng authorities của mọi user đang cache
+            userDetailsCache.evictAll();
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Role not found"));
     }
 
     @Override
     public void deleteRole(Long id) {
         roleRepository.deleteById(id);
+        userDetailsCache.evictAll();
     }
 
     @Override
@@ -62,7 +69,9 @@ public class RoleServiceImpl implements RoleService {
                 .orElseThrow(() -> new EntityNotFoundException("Role not found"));
 
         user.getRoles().add(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsCache.evict(saved.getUsername());
+        return saved;
     }
 }
 
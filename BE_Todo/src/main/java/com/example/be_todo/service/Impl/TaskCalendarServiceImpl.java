@@ -0,0 +1,150 @@
+package com.example.be_todo.service.Impl;
+
+import com.example.be_todo.cache.CacheLoads;
+import com.example.be_todo.calendar.UserCalendar;
+import com.example.be_todo.dto.TaskConflictDTO;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskIntervalDTO;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.event.TaskCalendarChangedEvent;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.service.TaskCalendarService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lịch task dựa trên interval tree trong bộ nhớ (UserCalendar), mỗi user 1 cây.
+ * <ul>
+ *   <li>Cây được nạp khi user cần tới lần đầu, bằng 1 câu quét index (user_id, start_time).</li>
+ *   <li>Thao tác ghi task phát TaskCalendarChangedEvent, cây đã nạp được sửa tại chỗ sau khi transaction commit.
+ *   Sự kiện tới lúc cây đang nạp thì bỏ cây đó (lần đọc sau nạp lại), vì bản đang nạp có thể đã đọc dữ liệu cũ.</li>
+ *   <li>Cây hết hạn sau tasks.calendar.ttl kể từ lúc nạp: thay đổi từ instance khác chỉ trễ tối đa chừng đó.</li>
+ * </ul>
+ * Truy vấn khoảng / kiểm tra trùng giờ là O(log n + k) trên cây, DB chỉ đọc theo khoá chính các task trả về.
+ */
+@Service
+public class TaskCalendarServiceImpl implements TaskCalendarService {
+
+    public static final String CACHE_NAME = "taskCalendars";
+
+    private final TaskRepository taskRepository;
+    private final AsyncCache<Long, UserCalendar> calendars;
+    private final int maxResults;
+    private final int maxConflicts;
+
+    public TaskCalendarServiceImpl(TaskRepository taskRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${tasks.calendar.max-users:10000}") long maxUsers,
+                                   @Value("${tasks.calendar.ttl:10m}") Duration ttl,
+                                   @Value("${tasks.calendar.max-results:1000}") int maxResults,
+                                   @Value("${tasks.calendar.max-conflicts:50}") int maxConflicts) {
+        this.taskRepository = taskRepository;
+        this.maxResults = maxResults;
+        this.maxConflicts = maxConflicts;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, calendars, CACHE_NAME);
+    }
+
+    @Override
+    public List<TaskDTO> getCalendar(Long userId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        UserCalendar.Overlaps overlaps = calendar(userId).window(from, to, maxResults);
+        if (overlaps.truncated()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "More than " + maxResults + " tasks in the window, narrow the range");
+        }
+        return load(overlaps.taskIds(), userId);
+    }
+
+    @Override
+    public TaskConflictDTO findConflicts(Long userId, LocalDateTime startTime, LocalDateTime endTime, Long excludeTaskId) {
+        UserCalendar.Overlaps overlaps = conflicts(userId, startTime, endTime, excludeTaskId);
+        return new TaskConflictDTO(load(overlaps.taskIds(), userId), overlaps.truncated());
+    }
+
+    @Override
+    public List<Long> findConflictIds(TaskDTO task) {
+        if (task.startTime() == null || task.userId() == null || Status.COMPLETED.name().equals(task.status())) {
+            return List.of();
+        }
+        return conflicts(task.userId(), task.startTime(), task.endTime(), task.id()).taskIds();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskCalendarChanged(TaskCalendarChangedEvent event) {
+        if (event.previousUserId() != null && !event.previousUserId().equals(event.userId())) {
+            apply(event.previousUserId(), calendar -> calendar.remove(event.taskId()));
+        }
+        if (event.userId() != null) {
+            apply(event.userId(), calendar -> calendar.put(event.taskId(), event.startTime(), event.endTime(), event.active()));
+        }
+    }
+
+    private UserCalendar.Overlaps conflicts(Long userId, LocalDateTime startTime, LocalDateTime endTime, Long excludeTaskId) {
+        if (startTime == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "start is required");
+        }
+        return calendar(userId).conflicts(startTime, endTime, excludeTaskId, maxConflicts);
+    }
+
+    private UserCalendar calendar(Long userId) {
+        return CacheLoads.getOrLoad(calendars, userId, this::build);
+    }
+
+    private UserCalendar build(Long userId) {
+        UserCalendar calendar = new UserCalendar();
+        for (TaskIntervalDTO task : taskRepository.findIntervalsByUserId(userId)) {
+            calendar.put(task.id(), task.startTime(), task.endTime(), task.status() != Status.COMPLETED);
+        }
+        return calendar;
+    }
+
+    // Lịch chưa nạp: bỏ qua, lần đọc sau nạp từ DB (đã có thay đổi này)
+    private void apply(Long userId, Consumer<UserCalendar> change) {
+        CompletableFuture<UserCalendar> loaded = calendars.getIfPresent(userId);
+        if (loaded == null) {
+            return;
+        }
+        if (loaded.isDone() && !loaded.isCompletedExceptionally()) {
+            change.accept(loaded.join());
+        } else {
+            calendars.synchronous().invalidate(userId);
+        }
+    }
+
+    // 1 câu SELECT theo khoá chính, giữ thứ tự startTime của cây
+    private List<TaskDTO> load(List<Long> taskIds, Long userId) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TaskDTO> tasks = taskRepository.findDtoByIdInAndUserId(taskIds, userId).stream()
+                .collect(Collectors.toMap(TaskDTO::id, Function.identity()));
+        return taskIds.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
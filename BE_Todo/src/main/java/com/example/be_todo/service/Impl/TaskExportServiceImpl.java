@@ -0,0 +1,51 @@
+package com.example.be_todo.service.Impl;
+
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.service.TaskExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TaskExportServiceImpl implements TaskExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTasks(Long userId, OutputStream out) throws IOException {
+        long count = 0;
+        // Projection thẳng vào TaskDTO: không có entity nào trong persistence context, heap không tăng theo số dòng
+        try (Stream<TaskDTO> tasks = userId != null ? taskRepository.streamByUserId(userId) : taskRepository.streamAll();
+             SequenceWriter writer = objectMapper.writer()
+                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            Iterator<TaskDTO> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            if (count > 0) {
+                writer.flush();
+                out.write('\n');
+            }
+        }
+        return count;
+    }
+}
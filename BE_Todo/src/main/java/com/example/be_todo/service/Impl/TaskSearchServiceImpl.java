@@ -0,0 +1,274 @@
+package com.example.be_todo.service.Impl;
+
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskSearchPageDTO;
+import com.example.be_todo.dto.TaskStampDTO;
+import com.example.be_todo.dto.TaskTextDTO;
+import com.example.be_todo.event.TaskTextChangedEvent;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.search.InvertedIndex;
+import com.example.be_todo.service.TaskSearchService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tìm kiếm task bằng inverted index trong bộ nhớ thay cho LIKE '%...%' (quét toàn bảng tasks).
+ * <ul>
+ *   <li>Khởi động: đọc snapshot rồi chỉ nạp lại task sửa sau lúc ghi snapshot (trừ hao catch-up-margin);
+ *   không có snapshot thì dựng lại từ cả bảng tasks.</li>
+ *   <li>Thao tác ghi task phát TaskTextChangedEvent, index được cập nhật sau khi transaction commit.</li>
+ *   <li>Snapshot được ghi định kỳ (nếu index có thay đổi) và khi tắt ứng dụng, ghi ra file tạm rồi đổi tên.</li>
+ * </ul>
+ * Index nằm trong bộ nhớ của từng instance: chạy nhiều instance thì mỗi instance chỉ thấy thay đổi của chính nó
+ * cho tới lần khởi động sau.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskSearchServiceImpl implements TaskSearchService {
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private record Snapshot(InvertedIndex index, LocalDateTime writtenAt) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${search.snapshot-path:}")
+    private String snapshotPath;
+
+    @Value("${search.catch-up-margin:5m}")
+    private Duration catchUpMargin;
+
+    @Value("${search.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${search.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${search.max-query-length:200}")
+    private int maxQueryLength;
+
+    @Value("${search.batch-size:1000}")
+    private int batchSize;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    // Số thay đổi đã áp vào index; snapshot chỉ ghi lại khi con số này khác lần ghi trước
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long snapshotChanges = -1;
+
+    @PostConstruct
+    public void start() {
+        long started = System.nanoTime();
+        Snapshot snapshot = readSnapshot();
+        if (snapshot != null) {
+            catchUp(snapshot);
+            index = snapshot.index();
+        } else {
+            index = build();
+        }
+        snapshotChanges = -1;
+        log.info("Task search index ready: {} task(s) in {} ms ({})", index.size(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis(), snapshot != null ? "snapshot" : "full build");
+        Gauge.builder("search.index.tasks", this, service -> service.index.size())
+                .description("Số task trong index tìm kiếm")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TaskSearchPageDTO search(Long userId, String query, Integer page, Integer size) {
+        if (query != null && query.length() > maxQueryLength) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Query too long (max " + maxQueryLength + " characters)");
+        }
+        int pageSize = Math.max(1, Math.min(size != null ? size : defaultPageSize, maxPageSize));
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+
+        InvertedIndex.Page hits = index.search(userId, query, pageNumber * pageSize, pageSize);
+        if (hits.taskIds().isEmpty()) {
+            return new TaskSearchPageDTO(List.of(), hits.total(), null);
+        }
+        // 1 câu SELECT theo khoá chính cho cả trang, giữ thứ tự xếp hạng của index
+        Map<Long, TaskDTO> tasks = taskRepository.findDtoByIdInAndUserId(hits.taskIds(), userId).stream()
+                .collect(Collectors.toMap(TaskDTO::id, Function.identity()));
+        List<TaskDTO> items = hits.taskIds().stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .toList();
+        boolean hasMore = (long) (pageNumber + 1) * pageSize < hits.total();
+        return new TaskSearchPageDTO(items, hits.total(), hasMore ? pageNumber + 1 : null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskTextChanged(TaskTextChangedEvent event) {
+        InvertedIndex current = index;
+        if (event.previousUserId() != null && !event.previousUserId().equals(event.userId())) {
+            current.remove(event.previousUserId(), event.taskId());
+        }
+        if (event.userId() != null) {
+            current.put(event.userId(), event.taskId(), event.title(), event.description());
+        }
+        changes.incrementAndGet();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${search.snapshot-interval:10m}", initialDelayString = "${search.snapshot-interval:10m}")
+    public boolean writeSnapshot() {
+        Path path = snapshotFile();
+        long version = changes.get();
+        if (path == null || version == snapshotChanges) {
+            return false;
+        }
+        // Lấy mốc trước khi ghi: thay đổi xen vào lúc đang ghi được catch-up nạp lại ở lần khởi động sau
+        LocalDateTime writtenAt = LocalDateTime.now();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(SNAPSHOT_VERSION);
+                    out.writeLong(writtenAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                    index.writeTo(out);
+                }
+                move(temp, path);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            log.warn("Cannot write task search snapshot to {}", path, ex);
+            return false;
+        }
+        snapshotChanges = version;
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeSnapshot();
+    }
+
+    private InvertedIndex build() {
+        InvertedIndex built = new InvertedIndex();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TaskTextDTO> tasks = taskRepository.streamText()) {
+                tasks.forEach(task -> built.put(task.userId(), task.id(), task.title(), task.description()));
+            }
+        });
+        return built;
+    }
+
+    /**
+     * Đồng bộ snapshot với DB: duyệt (id, owner, updatedAt) của mọi task theo thứ tự owner, nạp lại nội dung
+     * task mới / sửa sau snapshot, bỏ task đã xoá hoặc đã chuyển sang user khác.
+     */
+    private void catchUp(Snapshot snapshot) {
+        InvertedIndex loaded = snapshot.index();
+        LocalDateTime since = snapshot.writtenAt().minus(catchUpMargin);
+        List<Long> stale = new ArrayList<>();
+        Set<Long> owners = new HashSet<>();
+        int[] removed = {0};
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TaskStampDTO> stamps = taskRepository.streamStamps()) {
+                // Stream sắp theo owner: chỉ giữ taskId của 1 user trong bộ nhớ mỗi lúc
+                Long[] currentUser = {null};
+                Set<Long> userTasks = new HashSet<>();
+                stamps.forEach(task -> {
+                    if (!task.userId().equals(currentUser[0])) {
+                        if (currentUser[0] != null) {
+                            removed[0] += loaded.retain(currentUser[0], userTasks);
+                        }
+                        currentUser[0] = task.userId();
+                        owners.add(task.userId());
+                        userTasks.clear();
+                    }
+                    userTasks.add(task.id());
+                    if (task.updatedAt() == null || task.updatedAt().isAfter(since)
+                            || !loaded.contains(task.userId(), task.id())) {
+                        stale.add(task.id());
+                    }
+                });
+                if (currentUser[0] != null) {
+                    removed[0] += loaded.retain(currentUser[0], userTasks);
+                }
+            }
+        });
+        removed[0] += loaded.retainUsers(owners);
+
+        for (int from = 0; from < stale.size(); from += batchSize) {
+            List<Long> ids = stale.subList(from, Math.min(stale.size(), from + batchSize));
+            for (TaskTextDTO task : taskRepository.findTextByIdIn(ids)) {
+                // Task chuyển owner sau snapshot: owner cũ đã bị retain xoá ở trên
+                loaded.put(task.userId(), task.id(), task.title(), task.description());
+            }
+        }
+        log.info("Task search snapshot from {}: reloaded {} task(s), removed {}", snapshot.writtenAt(), stale.size(), removed[0]);
+    }
+
+    private Snapshot readSnapshot() {
+        Path path = snapshotFile();
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Task search snapshot {} has an unsupported version, rebuilding", path);
+                return null;
+            }
+            LocalDateTime writtenAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneId.systemDefault());
+            return new Snapshot(InvertedIndex.readFrom(in), writtenAt);
+        } catch (IOException ex) {
+            log.warn("Cannot read task search snapshot {}, rebuilding", path, ex);
+            return null;
+        }
+    }
+
+    private Path snapshotFile() {
+        return snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -1,18 +1,48 @@
 package com.example.be_todo.service.Impl;
 
+import com.example.be_todo.cache.TaskListCache;
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchOperationType;
+import com.example.be_todo.dto.TaskBatchResultDTO;
+import com.example.be_todo.dto.TaskCursor;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskPageDTO;
+import com.example.be_todo.dto.TaskPatch;
+import com.example.be_todo.dto.TaskSort;
 import com.example.be_todo.dto.TaskUpdateRequestDTO;
 import com.example.be_todo.entity.*;
+import com.example.be_todo.event.TaskCalendarChangedEvent;
+import com.example.be_todo.event.TaskChangedEvent;
+import com.example.be_todo.event.TaskScheduleChangedEvent;
+import com.example.be_todo.event.TaskTextChangedEvent;
 import com.example.be_todo.repository.TaskCategoryRepository;
 import com.example.be_todo.repository.TaskRepository;
 import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.service.TaskChangePublisher;
+import com.example.be_todo.service.TaskCounterChanges;
 import com.example.be_todo.service.TaskService;
+import com.example.be_todo.service.TaskStatsService;
+import com.example.be_todo.service.TaskSyncService;
 import com.example.be_todo.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +51,20 @@ public class TaskServiceImpl implements TaskService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final TaskCategoryRepository taskCategoryRepository;
+    private final TaskListCache taskListCache;
+    private final TaskStatsService taskStatsService;
+    private final TaskSyncService taskSyncService;
+    private final TaskChangePublisher taskChangePublisher;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Value("${tasks.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${tasks.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${tasks.batch.max-size:1000}")
+    private int maxBatchSize;
 
     //    @Override
 //    public Task createTask(Long userId, Task task) {
@@ -31,6 +74,7 @@ public class TaskServiceImpl implements TaskService {
 //        return taskRepository.save(task);
 //    }
     @Override
+    @Transactional
     public Task createTask(Long userId, Task task, boolean isAdmin) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
@@ -50,11 +94,20 @@ public class TaskServiceImpl implements TaskService {
         task.setDueDate(task.getDueDate());
         task.setCreatedAt(LocalDateTime.now());
         task.setUpdatedAt(LocalDateTime.now());
+        task.setChangeSeq(taskSyncService.nextSeq(user.getId()));
+        task.setVersion(null);
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskStatsService.apply(new TaskCounterChanges().add(saved));
+        taskChangePublisher.publishScheduleChange(null, saved);
+        taskChangePublisher.publishCalendarChange(null, saved);
+        eventPublisher.publishEvent(TaskTextChangedEvent.of(saved));
+        eventPublisher.publishEvent(TaskChangedEvent.of(user.getId()));
+        return saved;
     }
 
     @Override
+    @Transactional
     public Task updateTask(Long taskId, TaskUpdateRequestDTO request, Long currentUserId, boolean isAdmin) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
@@ -62,12 +115,23 @@ public class TaskServiceImpl implements TaskService {
         if (!isAdmin && !task.getUser().getId().equals(currentUserId)) {
             throw new SecurityException("You are not allowed to update this task");
         }
+        checkVersion(task, request.getVersion());
+        Long previousOwnerId = task.getUser().getId();
+        // Trừ theo giá trị cũ (kể cả user cũ khi admin gán lại), cộng theo giá trị mới
+        TaskCounterChanges counterChanges = new TaskCounterChanges().remove(task);
+        TaskScheduleChangedEvent scheduleBefore = TaskScheduleChangedEvent.of(task);
+        TaskCalendarChangedEvent calendarBefore = TaskCalendarChangedEvent.of(task);
+        TaskTextChangedEvent textBefore = TaskTextChangedEvent.of(task);
+        User newUser = request.getUserId() != null
+                ? userRepository.findById(request.getUserId())
+                        .orElseThrow(() -> new EntityNotFoundException("User not found"))
+                : null;
+        // Cấp change_seq trước khi sửa entity: câu lệnh của bộ đếm không làm flush UPDATE dở dang
+        long changeSeq = reserveChangeSeq(task.getId(), previousOwnerId,
+                newUser != null ? newUser.getId() : previousOwnerId);
 
         // Nếu admin gán user mới
-        if (request.getUserId() != null) {
-            User newUser = userRepository.findById(request.getUserId())
-                    .orElseThrow(() -> new EntityNotFoundException("User not found"));
-
+        if (newUser != null) {
             // Nếu khác user cũ thì reset category
             if (!newUser.getId().equals(task.getUser().getId())) {
                 task.setCategory(null); // hoặc set category mặc định
@@ -83,6 +147,7 @@ public class TaskServiceImpl implements TaskService {
             task.setCategory(category);
         }
 
+        task.setChangeSeq(changeSeq);
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
         task.setPriority(request.getPriority());
@@ -90,12 +155,77 @@ public class TaskServiceImpl implements TaskService {
         task.setDueDate(request.getDueDate());
         task.setUpdatedAt(LocalDateTime.now());
 
-        return taskRepository.save(task);
+        Task saved = taskChangePublisher.saveChecked(task);
+        taskStatsService.apply(counterChanges.add(saved));
+        taskChangePublisher.publishScheduleChange(scheduleBefore, saved);
+        taskChangePublisher.publishCalendarChange(calendarBefore, saved);
+        taskChangePublisher.publishTextChange(textBefore, saved);
+        // Admin gán lại task cho user khác: cả danh sách của user cũ và user mới đều thay đổi
+        eventPublisher.publishEvent(TaskChangedEvent.of(previousOwnerId, saved.getUser().getId()));
+        return saved;
     }
 
+    /**
+     * JSON Merge Patch. Task của chính currentUser và patch chỉ gồm title / description / endTime:
+     * 1 câu UPDATE có điều kiện (id, owner, version), không SELECT trước; event dựng từ bản ghi đọc lại sau UPDATE.
+     * Patch có field cần giá trị cũ (TaskPatch.NEEDS_CURRENT) hoặc admin: nạp task, so version rồi để Hibernate
+     * ghi các cột đã đổi kèm "where version = ?". Admin không đi đường tắt vì đường tắt khoá change_seq của người gọi
+     * trước rồi mới tới của owner, ngược thứ tự khoá nhiều user (userId tăng dần) của nextSeqs.
+     */
+    @Override
+    @Transactional
+    public TaskDTO patchTask(Long taskId, TaskPatch patch, long expectedVersion, Long currentUserId, boolean isAdmin) {
+        if (!isAdmin && !patch.isEmpty() && !patch.containsAny(TaskPatch.NEEDS_CURRENT)) {
+            long changeSeq = taskSyncService.nextSeq(currentUserId);
+            if (taskRepository.patch(taskId, currentUserId, expectedVersion, patch, null, changeSeq, LocalDateTime.now()) == 1) {
+                TaskDTO patched = taskRepository.findDtoByIdInAndUserId(List.of(taskId), currentUserId).get(0);
+                if (patch.contains(TaskPatch.Field.TITLE) || patch.contains(TaskPatch.Field.DESCRIPTION)) {
+                    eventPublisher.publishEvent(new TaskTextChangedEvent(taskId, currentUserId, currentUserId,
+                            patched.title(), patched.description()));
+                }
+                if (patch.contains(TaskPatch.Field.END_TIME) && patched.startTime() != null) {
+                    eventPublisher.publishEvent(new TaskCalendarChangedEvent(taskId, currentUserId, currentUserId,
+                            patched.startTime(), patched.endTime(), !Status.COMPLETED.name().equals(patched.status())));
+                }
+                eventPublisher.publishEvent(TaskChangedEvent.of(currentUserId));
+                return patched;
+            }
+            // Không ghi được dòng nào: task không tồn tại, của user khác hoặc version đã đổi; nhánh dưới phân biệt
+        }
 
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new EntityNotFoundException("Task not found"));
+        if (!isAdmin && !task.getUser().getId().equals(currentUserId)) {
+            throw new SecurityException("You are not allowed to update this task");
+        }
+        checkVersion(task, expectedVersion);
+        if (patch.isEmpty()) {
+            return TaskDTO.from(task);
+        }
+        Long ownerId = task.getUser().getId();
+        TaskCategory category = null;
+        if (patch.contains(TaskPatch.Field.CATEGORY_ID) && patch.get(TaskPatch.Field.CATEGORY_ID) != null) {
+            category = taskCategoryRepository.findByIdAndUserId(patch.get(TaskPatch.Field.CATEGORY_ID), ownerId)
+                    .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+        }
+        TaskCounterChanges counterChanges = new TaskCounterChanges().remove(task);
+        TaskScheduleChangedEvent scheduleBefore = TaskScheduleChangedEvent.of(task);
+        TaskCalendarChangedEvent calendarBefore = TaskCalendarChangedEvent.of(task);
+        TaskTextChangedEvent textBefore = TaskTextChangedEvent.of(task);
+        task.setChangeSeq(taskSyncService.nextSeq(ownerId));
+        patch.applyTo(task, category);
+
+        Task saved = taskChangePublisher.saveChecked(task);
+        taskStatsService.apply(counterChanges.add(saved));
+        taskChangePublisher.publishScheduleChange(scheduleBefore, saved);
+        taskChangePublisher.publishCalendarChange(calendarBefore, saved);
+        taskChangePublisher.publishTextChange(textBefore, saved);
+        eventPublisher.publishEvent(TaskChangedEvent.of(ownerId));
+        return TaskDTO.from(saved);
+    }
 
     @Override
+    @Transactional
     public Task updateStatus(Long taskId, Status status, Long currentUserId, boolean isAdmin) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
@@ -104,11 +234,21 @@ public class TaskServiceImpl implements TaskService {
             throw new SecurityException("You are not allowed to update status of this task");
         }
 
+        TaskCounterChanges counterChanges = new TaskCounterChanges().remove(task);
+        TaskScheduleChangedEvent scheduleBefore = TaskScheduleChangedEvent.of(task);
+        TaskCalendarChangedEvent calendarBefore = TaskCalendarChangedEvent.of(task);
+        task.setChangeSeq(taskSyncService.nextSeq(task.getUser().getId()));
         task.setStatus(status);
-        return taskRepository.save(task);
+        Task saved = taskChangePublisher.saveChecked(task);
+        taskStatsService.apply(counterChanges.add(saved));
+        taskChangePublisher.publishScheduleChange(scheduleBefore, saved);
+        taskChangePublisher.publishCalendarChange(calendarBefore, saved);
+        eventPublisher.publishEvent(TaskChangedEvent.of(saved.getUser().getId()));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteTask(Long taskId, Long currentUserId, boolean isAdmin) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
@@ -117,16 +257,235 @@ public class TaskServiceImpl implements TaskService {
             throw new SecurityException("You are not allowed to delete this task");
         }
 
-        taskRepository.deleteById(taskId);
+        Long ownerId = task.getUser().getId();
+        // Lấy change_seq trước khi xoá: cùng thứ tự khoá với mọi thao tác ghi khác (sync counter -> task -> bộ đếm)
+        long changeSeq = taskSyncService.nextSeq(ownerId);
+        TaskScheduleChangedEvent scheduleBefore = TaskScheduleChangedEvent.of(task);
+        taskChangePublisher.deleteChecked(task);
+        taskStatsService.apply(new TaskCounterChanges().remove(task));
+        taskSyncService.recordDeleted(ownerId, TaskTombstoneKind.TASK, taskId, changeSeq);
+        if (scheduleBefore.hasReminders()) {
+            eventPublisher.publishEvent(TaskScheduleChangedEvent.removed(taskId));
+        }
+        if (task.getStartTime() != null) {
+            eventPublisher.publishEvent(TaskCalendarChangedEvent.removed(task));
+        }
+        eventPublisher.publishEvent(TaskTextChangedEvent.removed(task));
+        eventPublisher.publishEvent(TaskChangedEvent.of(task.getUser().getId()));
+    }
+
+    /**
+     * Thực hiện nhiều thao tác trong 1 transaction. Task được nạp bằng 1 câu SELECT ... IN,
+     * INSERT/UPDATE/DELETE được Hibernate gom thành JDBC batch khi flush lúc commit.
+     * Thao tác không hợp lệ (không tìm thấy, không có quyền...) chỉ bị bỏ qua và báo lỗi trong kết quả.
+     */
+    @Override
+    @Transactional
+    public List<TaskBatchResultDTO> executeBatch(List<TaskBatchOperationDTO> operations, Long currentUserId, boolean isAdmin) {
+        if (operations == null || operations.isEmpty()) {
+            return List.of();
+        }
+        if (operations.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch too large (max " + maxBatchSize + " operations)");
+        }
+
+        Map<Long, Task> tasks = taskRepository.findAllById(operations.stream()
+                        .filter(op -> op.getType() != TaskBatchOperationType.CREATE)
+                        .map(TaskBatchOperationDTO::getTaskId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        Map<Long, TaskCategory> categories = taskCategoryRepository.findAllById(operations.stream()
+                        .filter(op -> op.getType() == TaskBatchOperationType.CREATE && op.getTask() != null)
+                        .map(op -> op.getTask().getCategory())
+                        .filter(category -> category != null && category.getId() != null)
+                        .map(TaskCategory::getId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(TaskCategory::getId, Function.identity()));
+
+        User currentUser = userRepository.getReferenceById(currentUserId);
+        // 1 change_seq cho mỗi user bị ảnh hưởng, dùng chung cho mọi thao tác của user đó trong batch
+        Set<Long> ownerIds = new HashSet<>();
+        ownerIds.add(currentUserId);
+        if (isAdmin) {
+            tasks.values().forEach(task -> ownerIds.add(task.getUser().getId()));
+        }
+        Map<Long, Long> changeSeqs = taskSyncService.nextSeqs(ownerIds);
+        Set<Long> deleted = new HashSet<>();
+        Set<Long> affectedUserIds = new HashSet<>();
+        // Gom thay đổi bộ đếm của cả batch, ghi 1 lần mỗi bucket ở cuối
+        TaskCounterChanges counterChanges = new TaskCounterChanges();
+        List<TaskBatchResultDTO> results = new ArrayList<>(operations.size());
+
+        for (int i = 0; i < operations.size(); i++) {
+            TaskBatchOperationDTO op = operations.get(i);
+            TaskBatchOperationType type = op.getType();
+            if (type == null) {
+                results.add(TaskBatchResultDTO.failed(i, null, op.getTaskId(), "Missing operation type"));
+                continue;
+            }
+
+            if (type == TaskBatchOperationType.CREATE) {
+                TaskBatchResultDTO result = batchCreate(i, op.getTask(), currentUser, categories, changeSeqs.get(currentUserId));
+                if (result.success()) {
+                    counterChanges.add(op.getTask());
+                    taskChangePublisher.publishScheduleChange(null, op.getTask());
+                    taskChangePublisher.publishCalendarChange(null, op.getTask());
+                    eventPublisher.publishEvent(TaskTextChangedEvent.of(op.getTask()));
+                    affectedUserIds.add(currentUserId);
+                }
+                results.add(result);
+                continue;
+            }
+
+            Task task = deleted.contains(op.getTaskId()) ? null : tasks.get(op.getTaskId());
+            if (task == null) {
+                results.add(TaskBatchResultDTO.failed(i, type, op.getTaskId(), "Task not found"));
+            } else if (!isAdmin && !task.getUser().getId().equals(currentUserId)) {
+                results.add(TaskBatchResultDTO.failed(i, type, op.getTaskId(), "You are not allowed to modify this task"));
+            } else if (type == TaskBatchOperationType.UPDATE_STATUS) {
+                if (op.getStatus() == null) {
+                    results.add(TaskBatchResultDTO.failed(i, type, op.getTaskId(), "Missing status"));
+                    continue;
+                }
+                counterChanges.remove(task);
+                TaskScheduleChangedEvent scheduleBefore = TaskScheduleChangedEvent.of(task);
+                TaskCalendarChangedEvent calendarBefore = TaskCalendarChangedEvent.of(task);
+                task.setStatus(op.getStatus()); // dirty checking, UPDATE được batch khi flush
+                task.setChangeSeq(changeSeqs.get(task.getUser().getId()));
+                counterChanges.add(task);
+                taskChangePublisher.publishScheduleChange(scheduleBefore, task);
+                taskChangePublisher.publishCalendarChange(calendarBefore, task);
+                affectedUserIds.add(task.getUser().getId());
+                results.add(TaskBatchResultDTO.ok(i, type, task.getId()));
+            } else {
+                counterChanges.remove(task);
+                if (TaskScheduleChangedEvent.of(task).hasReminders()) {
+                    eventPublisher.publishEvent(TaskScheduleChangedEvent.removed(task.getId()));
+                }
+                if (task.getStartTime() != null) {
+                    eventPublisher.publishEvent(TaskCalendarChangedEvent.removed(task));
+                }
+                eventPublisher.publishEvent(TaskTextChangedEvent.removed(task));
+                taskRepository.delete(task);
+                taskSyncService.recordDeleted(task.getUser().getId(), TaskTombstoneKind.TASK, task.getId(),
+                        changeSeqs.get(task.getUser().getId()));
+                deleted.add(task.getId());
+                affectedUserIds.add(task.getUser().getId());
+                results.add(TaskBatchResultDTO.ok(i, type, task.getId()));
+            }
+        }
+        // Task bị sửa đồng thời bởi request khác: cả batch rollback với 409
+        taskChangePublisher.flushChecked();
+        taskStatsService.apply(counterChanges);
+        // Listener chỉ chạy sau khi transaction commit
+        eventPublisher.publishEvent(new TaskChangedEvent(affectedUserIds));
+        return results;
+    }
+
+    // Client gửi version đang có (null = không kiểm tra): lệch thì 409 trước khi sửa gì
+    private static void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw TaskChangePublisher.conflict(task.getId());
+        }
+    }
+
+    // Gán cho user khác: user cũ nhận tombstone, user mới bỏ tombstone cũ (nếu task từng là của họ)
+    private long reserveChangeSeq(Long taskId, Long previousOwnerId, Long ownerId) {
+        if (ownerId.equals(previousOwnerId)) {
+            return taskSyncService.nextSeq(ownerId);
+        }
+        Map<Long, Long> changeSeqs = taskSyncService.nextSeqs(List.of(previousOwnerId, ownerId));
+        taskSyncService.recordDeleted(previousOwnerId, TaskTombstoneKind.TASK, taskId, changeSeqs.get(previousOwnerId));
+        taskSyncService.clearDeleted(ownerId, TaskTombstoneKind.TASK, taskId);
+        return changeSeqs.get(ownerId);
+    }
+
+    private TaskBatchResultDTO batchCreate(int index, Task task, User currentUser, Map<Long, TaskCategory> categories,
+                                           long changeSeq) {
+        if (task == null || task.getTitle() == null || task.getTitle().isBlank()) {
+            return TaskBatchResultDTO.failed(index, TaskBatchOperationType.CREATE, null, "Missing title");
+        }
+        if (task.getCategory() != null && task.getCategory().getId() != null) {
+            TaskCategory category = categories.get(task.getCategory().getId());
+            if (category == null || !category.getUser().getId().equals(currentUser.getId())) {
+                return TaskBatchResultDTO.failed(index, TaskBatchOperationType.CREATE, null, "Category not found");
+            }
+            task.setCategory(category);
+        } else {
+            task.setCategory(null);
+        }
+        task.setId(null);
+        task.setVersion(null);
+        task.setUser(currentUser);
+        task.setPriority(task.getPriority() != null ? task.getPriority() : Priority.MEDIUM);
+        task.setStatus(task.getStatus() != null ? task.getStatus() : Status.PENDING);
+        task.setChangeSeq(changeSeq);
+
+        // Id lấy từ pool của sequence ngay khi persist, INSERT thật sự được batch lúc flush
+        Task saved = taskRepository.save(task);
+        return TaskBatchResultDTO.ok(index, TaskBatchOperationType.CREATE, saved.getId());
     }
 
     @Override
-    public List<Task> getTasksByUser(Long userId) {
-        return taskRepository.findByUserId(userId);
+    public List<TaskDTO> getTasksByUser(Long userId) {
+        return taskListCache.getUnpaged(userId, null,
+                limit -> taskRepository.findDtoByUserId(userId, limit));
     }
 
     @Override
-    public List<Task> getTasksByUserAndStatus(Long userId, Status status) {
-        return taskRepository.findByUserIdAndStatus(userId, status);
+    public List<TaskDTO> getTasksByUserAndStatus(Long userId, Status status) {
+        return taskListCache.getUnpaged(userId, status,
+                limit -> taskRepository.findDtoByUserIdAndStatus(userId, status, limit));
+    }
+
+    @Override
+    public String getTaskListETag(Long userId, Status status) {
+        return taskListCache.eTag(userId, status);
+    }
+
+
+    @Override
+    public TaskPageDTO getTaskPage(Long userId, Status status, TaskSort sort, String cursor, Integer size) {
+        // Kẹp cả giá trị mặc định trong config, tránh default-size > max-size hoặc <= 0
+        int pageSize = Math.max(1, Math.min(size != null ? size : defaultPageSize, maxPageSize));
+        TaskCursor after = cursor != null && !cursor.isBlank() ? TaskCursor.decode(cursor, sort) : null;
+
+        // Lấy dư 1 dòng để biết còn trang sau hay không
+        List<TaskDTO> rows = new ArrayList<>(pageSize + 1);
+        if (after == null || !after.inNullSegment()) {
+            rows.addAll(findKeyed(userId, status, sort, after, Limit.of(pageSize + 1)));
+        }
+        if (rows.size() <= pageSize) {
+            // Hết phần có giá trị khoá: nối tiếp phần khoá null (sắp theo id)
+            long afterId = after != null && after.inNullSegment() ? after.id() : 0L;
+            rows.addAll(findNullKeyed(userId, status, sort, afterId, Limit.of(pageSize + 1 - rows.size())));
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskDTO> page = hasMore ? List.copyOf(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasMore ? TaskCursor.after(sort, page.get(page.size() - 1)).encode() : null;
+        return new TaskPageDTO(page, nextCursor);
+    }
+
+    private List<TaskDTO> findKeyed(Long userId, Status status, TaskSort sort, TaskCursor after, Limit limit) {
+        if (sort == TaskSort.DUE_DATE) {
+            return after == null
+                    ? taskRepository.findDueDatePage(userId, status, limit)
+                    : taskRepository.findDueDatePageAfter(userId, status, after.value(), after.id(), limit);
+        }
+        return after == null
+                ? taskRepository.findUpdatedAtPage(userId, status, limit)
+                : taskRepository.findUpdatedAtPageBefore(userId, status, after.value(), after.id(), limit);
+    }
+
+    private List<TaskDTO> findNullKeyed(Long userId, Status status, TaskSort sort, long afterId, Limit limit) {
+        return sort == TaskSort.DUE_DATE
+                ? taskRepository.findNoDueDatePageAfter(userId, status, afterId, limit)
+                : taskRepository.findNoUpdatedAtPageAfter(userId, status, afterId, limit);
     }
 }
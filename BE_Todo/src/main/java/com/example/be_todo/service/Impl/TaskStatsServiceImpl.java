@@ -0,0 +1,160 @@
+package com.example.be_todo.service.Impl;
+
+import com.example.be_todo.dto.TaskStatsDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.TaskCounter;
+import com.example.be_todo.entity.TaskCounterDimension;
+import com.example.be_todo.entity.TaskCounterId;
+import com.example.be_todo.repository.TaskCategoryRepository;
+import com.example.be_todo.repository.TaskCounterRepository;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.service.TaskCounterChanges;
+import com.example.be_todo.service.TaskStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Thống kê task đọc từ bảng task_counters (vài dòng theo khoá chính) thay vì GROUP BY trên tasks.
+ * Bộ đếm được cộng / trừ trong transaction của mọi thao tác ghi task; job reconcile đếm lại định kỳ
+ * để sửa phần lệch (ghi thẳng vào DB, bug...).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskStatsServiceImpl implements TaskStatsService {
+
+    private final TaskCounterRepository taskCounterRepository;
+    private final TaskRepository taskRepository;
+    private final TaskCategoryRepository taskCategoryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public TaskStatsDTO getStats(Long userId) {
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            byStatus.put(status, 0L);
+        }
+        Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, 0L);
+        }
+        long uncategorized = 0;
+        Map<Long, Long> byCategoryId = new TreeMap<>();
+
+        for (TaskCounter counter : taskCounterRepository.findByUserId(userId)) {
+            if (counter.getCount() <= 0) {
+                continue;
+            }
+            String bucket = counter.getId().getBucket();
+            switch (counter.getId().getDimension()) {
+                case STATUS -> byStatus.put(Status.valueOf(bucket), counter.getCount());
+                case PRIORITY -> byPriority.put(Priority.valueOf(bucket), counter.getCount());
+                case CATEGORY -> {
+                    if (TaskCounterChanges.NO_CATEGORY.equals(bucket)) {
+                        uncategorized = counter.getCount();
+                    } else {
+                        byCategoryId.put(Long.valueOf(bucket), counter.getCount());
+                    }
+                }
+            }
+        }
+
+        Map<Long, TaskCategory> categories = taskCategoryRepository.findAllById(byCategoryId.keySet()).stream()
+                .collect(Collectors.toMap(TaskCategory::getId, Function.identity()));
+        List<TaskStatsDTO.CategoryCount> byCategory = new ArrayList<>(byCategoryId.size());
+        byCategoryId.forEach((categoryId, count) -> {
+            TaskCategory category = categories.get(categoryId);
+            byCategory.add(new TaskStatsDTO.CategoryCount(categoryId,
+                    category != null ? category.getName() : null,
+                    category != null ? category.getColor() : null,
+                    count));
+        });
+
+        long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        // Quá hạn phụ thuộc thời điểm đọc nên không đếm sẵn được: range scan trên idx_tasks_user_due_date
+        long overdue = taskRepository.countOverdue(userId, LocalDateTime.now(), Status.COMPLETED);
+        return new TaskStatsDTO(total, overdue, byStatus, byPriority, uncategorized, byCategory);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(TaskCounterChanges changes) {
+        changes.deltas().forEach((key, delta) ->
+                taskCounterRepository.increment(key.userId(), key.dimension().name(), key.bucket(), delta));
+    }
+
+    @Override
+    public int reconcile(Long userId) {
+        Integer repaired = transactionTemplate.execute(status -> {
+            // Khoá bộ đếm trước rồi mới đếm: thao tác ghi đang chạy dở phải chờ, cộng tiếp lên giá trị đã sửa
+            Map<TaskCounterId, TaskCounter> stored = new HashMap<>();
+            taskCounterRepository.lockByUserId(userId).forEach(counter -> stored.put(counter.getId(), counter));
+
+            Map<TaskCounterId, Long> actual = new HashMap<>();
+            taskRepository.countByStatus(userId).forEach(row -> actual.put(
+                    new TaskCounterId(userId, TaskCounterDimension.STATUS, ((Status) row[0]).name()), (Long) row[1]));
+            taskRepository.countByPriority(userId).forEach(row -> actual.put(
+                    new TaskCounterId(userId, TaskCounterDimension.PRIORITY, ((Priority) row[0]).name()), (Long) row[1]));
+            taskRepository.countByCategory(userId).forEach(row -> actual.put(
+                    new TaskCounterId(userId, TaskCounterDimension.CATEGORY,
+                            TaskCounterChanges.categoryBucket((Long) row[0])), (Long) row[1]));
+
+            int fixed = 0;
+            for (Map.Entry<TaskCounterId, Long> entry : actual.entrySet()) {
+                TaskCounter counter = stored.remove(entry.getKey());
+                if (counter == null) {
+                    taskCounterRepository.save(new TaskCounter(entry.getKey(), entry.getValue()));
+                    fixed++;
+                } else if (counter.getCount() != entry.getValue()) {
+                    counter.setCount(entry.getValue());
+                    fixed++;
+                }
+            }
+            // Bucket không còn task nào: xoá dòng (dòng = 0 chỉ là dọn dẹp, không tính là lệch)
+            for (TaskCounter counter : stored.values()) {
+                if (counter.getCount() != 0) {
+                    fixed++;
+                }
+                taskCounterRepository.delete(counter);
+            }
+            return fixed;
+        });
+        return repaired != null ? repaired : 0;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${tasks.stats.reconcile-interval:6h}",
+            initialDelayString = "${tasks.stats.reconcile-interval:6h}")
+    public int reconcileAll() {
+        // User có task hoặc còn dòng bộ đếm (task đã bị xoá hết / user đã bị xoá)
+        TreeSet<Long> userIds = new TreeSet<>(taskRepository.findOwnerIds());
+        userIds.addAll(taskCounterRepository.findUserIds());
+
+        int repaired = 0;
+        for (Long userId : userIds) {
+            repaired += reconcile(userId);
+        }
+        if (repaired > 0) {
+            log.warn("Task counters drifted: repaired {} bucket(s) across {} user(s)", repaired, userIds.size());
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.be_todo.service.Impl;
+
+import com.example.be_todo.dto.TaskChangeDTO;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskSyncCursor;
+import com.example.be_todo.dto.TaskSyncDTO;
+import com.example.be_todo.entity.TaskTombstone;
+import com.example.be_todo.entity.TaskTombstoneId;
+import com.example.be_todo.entity.TaskTombstoneKind;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.repository.TaskSyncCounterRepository;
+import com.example.be_todo.repository.TaskTombstoneRepository;
+import com.example.be_todo.service.TaskSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Delta sync theo change_seq: số thứ tự riêng của từng user, tăng ở mọi thao tác ghi task / category của user đó.
+ * <ul>
+ *   <li>Thao tác ghi tăng task_sync_counters trong transaction của nó và giữ khoá dòng tới lúc commit,
+ *   nên 2 thao tác của cùng 1 user commit đúng theo thứ tự change_seq.</li>
+ *   <li>Mọi dòng ghi trong 1 transaction dùng chung 1 change_seq (UPDATE hàng loạt theo category...).</li>
+ *   <li>Đọc: lấy last_seq đã commit trước, rồi chỉ đọc thay đổi có change_seq <= last_seq. Transaction đang
+ *   chạy dở chắc chắn nhận số lớn hơn, nên cursor trả về không bao giờ vượt qua thay đổi chưa commit.</li>
+ *   <li>Phân trang keyset theo (change_seq, id) trên idx_tasks_user_change_seq / idx_task_tombstones_user_seq:
+ *   nhóm change_seq lớn hơn cả trang được chia qua nhiều trang, mỗi trang không vượt page size.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskSyncServiceImpl implements TaskSyncService {
+
+    // Tombstone mang deleted_at lúc câu lệnh chạy, có thể sớm hơn lúc commit: trừ hao khi kiểm tra cursor
+    private static final Duration COMMIT_SLACK = Duration.ofHours(1);
+
+    private final TaskRepository taskRepository;
+    private final TaskSyncCounterRepository taskSyncCounterRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+
+    @Value("${tasks.sync.default-size:500}")
+    private int defaultPageSize;
+
+    @Value("${tasks.sync.max-size:2000}")
+    private int maxPageSize;
+
+    @Value("${tasks.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+
+    @Override
+    public TaskSyncDTO getChanges(Long userId, String cursor, Integer size) {
+        int pageSize = Math.max(1, Math.min(size != null ? size : defaultPageSize, maxPageSize));
+        Instant now = Instant.now();
+        TaskSyncCursor after = cursor != null && !cursor.isBlank()
+                ? TaskSyncCursor.decode(cursor)
+                : TaskSyncCursor.initial(now);
+        if (after.since().isBefore(now.minus(tombstoneRetention).plus(COMMIT_SLACK))) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Sync cursor expired, sync again without cursor");
+        }
+
+        // Mọi thay đổi có change_seq <= upTo đã commit
+        long upTo = Math.max(after.seq(), taskSyncCounterRepository.findLastSeq(userId).orElse(0L));
+        List<TaskChangeDTO> tasks = taskRepository.findSyncPage(userId, after.seq(),
+                after.idAfter(TaskSyncCursor.TASK), upTo, Limit.of(pageSize + 1));
+        List<TaskTombstone> tombstones = taskTombstoneRepository.findSyncPage(userId, after.seq(),
+                after.idAfter(TaskSyncCursor.CATEGORY_TOMBSTONE), after.idAfter(TaskSyncCursor.TASK_TOMBSTONE),
+                upTo, Limit.of(pageSize + 1));
+
+        // Trộn 2 danh sách đã sắp theo khoá cursor, lấy tối đa pageSize phần tử đầu
+        List<TaskDTO> changed = new ArrayList<>();
+        List<Long> deletedTaskIds = new ArrayList<>();
+        List<Long> deletedCategoryIds = new ArrayList<>();
+        TaskSyncCursor last = after;
+        int t = 0;
+        int d = 0;
+        for (int i = 0; i < pageSize && (t < tasks.size() || d < tombstones.size()); i++) {
+            boolean takeTombstone = t >= tasks.size()
+                    || (d < tombstones.size() && tombstones.get(d).getChangeSeq() <= tasks.get(t).changeSeq());
+            if (takeTombstone) {
+                TaskTombstone tombstone = tombstones.get(d++);
+                TaskTombstoneId id = tombstone.getId();
+                boolean task = id.getKind() == TaskTombstoneKind.TASK;
+                (task ? deletedTaskIds : deletedCategoryIds).add(id.getObjectId());
+                last = new TaskSyncCursor(tombstone.getChangeSeq(),
+                        task ? TaskSyncCursor.TASK_TOMBSTONE : TaskSyncCursor.CATEGORY_TOMBSTONE,
+                        id.getObjectId(), after.since());
+            } else {
+                TaskChangeDTO change = tasks.get(t++);
+                changed.add(change.task());
+                last = new TaskSyncCursor(change.changeSeq(), TaskSyncCursor.TASK, change.task().id(), after.since());
+            }
+        }
+        boolean hasMore = t < tasks.size() || d < tombstones.size();
+
+        // Còn trang sau: tombstone chưa nhận có thể cũ ngang lần sync trước, giữ nguyên mốc since
+        TaskSyncCursor next = hasMore ? last : TaskSyncCursor.through(upTo, now);
+        return new TaskSyncDTO(changed, deletedTaskIds, deletedCategoryIds, next.encode(), hasMore);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextSeq(Long userId) {
+        taskSyncCounterRepository.increment(userId);
+        return taskSyncCounterRepository.findLastSeq(userId).orElseThrow();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Long> nextSeqs(Collection<Long> userIds) {
+        Map<Long, Long> seqs = new LinkedHashMap<>();
+        // Khoá theo cùng 1 thứ tự ở mọi transaction để không deadlock
+        for (Long userId : new TreeSet<>(userIds)) {
+            seqs.put(userId, nextSeq(userId));
+        }
+        return seqs;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long userId, TaskTombstoneKind kind, Long objectId, long changeSeq) {
+        taskTombstoneRepository.save(TaskTombstone.builder()
+                .id(new TaskTombstoneId(userId, kind, objectId))
+                .changeSeq(changeSeq)
+                .deletedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void clearDeleted(Long userId, TaskTombstoneKind kind, Long objectId) {
+        taskTombstoneRepository.deleteOne(userId, kind, objectId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${tasks.sync.tombstone-purge-interval:1h}",
+            initialDelayString = "${tasks.sync.tombstone-purge-interval:1h}")
+    public int purgeTombstones() {
+        int purged = taskTombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} task tombstone(s) older than {}", purged, tombstoneRetention);
+        }
+        return purged;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.be_todo.service.Impl;
 
 import com.example.be_todo.entity.User;
 import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.security.UserDetailsCache;
 import com.example.be_todo.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,14 +14,19 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
     public User createUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Xoá kết quả "không tồn tại" đã cache cho username này
+        userDetailsCache.evict(saved.getUsername());
+        return saved;
     }
 
     @Override
@@ -33,18 +39,26 @@ public class UserServiceImpl implements UserService {
     public User updateUser(Long id, User user) {
         return userRepository.findById(id)
                 .map(existing -> {
+                    String oldUsername = existing.getUsername();
                     existing.setUsername(user.getUsername());
                     existing.setPassword(user.getPassword());
                     existing.setEmail(user.getEmail());
                     existing.setRoles(user.getRoles());
-                    return userRepository.save(existing);
+                    User saved = userRepository.save(existing);
+                    userDetailsCache.evict(oldUsername);
+                    userDetailsCache.evict(saved.getUsername());
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
     @Override
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id)
+                .ifPresent(user -> {
+                    userRepository.delete(user);
+                    userDetailsCache.evict(user.getUsername());
+                });
     }
 
     @Override
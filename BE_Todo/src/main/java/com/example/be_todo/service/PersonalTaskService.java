@@ -1,6 +1,7 @@
 package com.example.be_todo.service;
 
 import com.example.be_todo.dto.TaskCategoryDTO;
+import com.example.be_todo.dto.TaskDTO;
 import com.example.be_todo.entity.Task;
 import com.example.be_todo.entity.Status;
 import com.example.be_todo.entity.TaskCategory;
@@ -13,10 +14,14 @@ public interface PersonalTaskService {
     Task updateTask(Long taskId, Task updatedTask, Long currentUserId);
     Task updateStatus(Long taskId, Status status, Long currentUserId);
     void deleteTask(Long taskId, Long currentUserId);
-    List<Task> getMyTasks(Long currentUserId);
-    List<Task> getMyTasksByStatus(Long currentUserId, Status status);
+    List<TaskDTO> getMyTasks(Long currentUserId);
+    List<TaskDTO> getMyTasksByStatus(Long currentUserId, Status status);
+    // ETag của getMyTasks / getTaskCategoriesByUser, không truy vấn DB
+    String getMyTasksETag(Long currentUserId);
+    String getTaskCategoriesETag(Long currentUserId);
 
     void deleteTaskCategory(Long currentUserId, Long categoryId);
+    int moveTasksToCategory(Long currentUserId, Long fromCategoryId, Long toCategoryId);
 
     TaskCategory createTaskCategory(Long currentUserId, TaskCategory taskCategory);
     List<TaskCategoryDTO> getTaskCategoriesByUser(Long currentUserId);
@@ -0,0 +1,14 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.AuthResponse;
+
+public interface RefreshTokenService {
+    // Refresh token đầu tiên của 1 lần login (family mới)
+    String issue(String username);
+
+    // Thu hồi refresh token đang dùng, trả access token + refresh token mới cùng family. Token đã dùng rồi: thu hồi cả family
+    AuthResponse rotate(String refreshToken);
+
+    // Logout: thu hồi cả family của token
+    void revoke(String refreshToken);
+}
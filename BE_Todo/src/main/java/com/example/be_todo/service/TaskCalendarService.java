@@ -0,0 +1,22 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskConflictDTO;
+import com.example.be_todo.dto.TaskDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskCalendarService {
+    // Header trả kèm khi tạo / sửa task: id các task chưa xong trùng giờ, cách nhau bởi dấu phẩy
+    String CONFLICTS_HEADER = "X-Schedule-Conflicts";
+
+    // Task của user (kể cả đã xong) có khoảng [startTime, endTime) giao với [from, to), theo startTime tăng dần
+    List<TaskDTO> getCalendar(Long userId, LocalDateTime from, LocalDateTime to);
+
+    // Task chưa xong của user trùng giờ với [startTime, endTime). excludeTaskId: chính task đang sửa (null nếu chưa tạo)
+    TaskConflictDTO findConflicts(Long userId, LocalDateTime startTime, LocalDateTime endTime, Long excludeTaskId);
+
+    // Id các task khác của owner trùng giờ với task vừa tạo / sửa (rỗng nếu task không đặt giờ hoặc đã xong).
+    // Không đọc DB khi lịch của owner đã nạp
+    List<Long> findConflictIds(TaskDTO task);
+}
@@ -0,0 +1,84 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.event.TaskCalendarChangedEvent;
+import com.example.be_todo.event.TaskScheduleChangedEvent;
+import com.example.be_todo.event.TaskTextChangedEvent;
+import com.example.be_todo.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Phần dùng chung của mọi đường ghi task (TaskService, PersonalTaskService):
+ * ghi kèm kiểm tra version (lệch thì 409), phát event cho nhắc nhở / lịch / index tìm kiếm
+ * chỉ khi phần liên quan thay đổi.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskChangePublisher {
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Flush ngay để UPDATE ... where version = ? không khớp (request khác vừa ghi) thành 409 thay vì lỗi lúc commit
+    public Task saveChecked(Task task) {
+        try {
+            return taskRepository.saveAndFlush(task);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw conflict(task.getId());
+        }
+    }
+
+    // DELETE ... where version = ?: task vừa bị request khác sửa thì 409 thay vì lỗi 500 lúc ghi bộ đếm / commit
+    public void deleteChecked(Task task) {
+        try {
+            taskRepository.delete(task);
+            taskRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw conflict(task.getId());
+        }
+    }
+
+    public void flushChecked() {
+        try {
+            taskRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw conflict(e.getIdentifier());
+        }
+    }
+
+    public static ResponseStatusException conflict(Object taskId) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Task " + taskId + " was modified by another request, reload it and retry");
+    }
+
+    // Chỉ phát khi mốc nhắc nhở thay đổi: sửa tiêu đề, mô tả... không làm gửi lại nhắc nhở
+    public void publishScheduleChange(TaskScheduleChangedEvent before, Task task) {
+        TaskScheduleChangedEvent after = TaskScheduleChangedEvent.of(task);
+        if (after.differsFrom(before)) {
+            eventPublisher.publishEvent(after);
+        }
+    }
+
+    // Lịch (interval tree) chỉ cần cập nhật khi startTime / endTime, trạng thái xong hay owner thay đổi
+    public void publishCalendarChange(TaskCalendarChangedEvent before, Task task) {
+        TaskCalendarChangedEvent after = before == null
+                ? TaskCalendarChangedEvent.of(task)
+                : TaskCalendarChangedEvent.updated(before, task);
+        if (after.differsFrom(before)) {
+            eventPublisher.publishEvent(after);
+        }
+    }
+
+    // Index tìm kiếm chỉ cần cập nhật khi tiêu đề, mô tả hoặc owner thay đổi
+    public void publishTextChange(TaskTextChangedEvent before, Task task) {
+        TaskTextChangedEvent after = TaskTextChangedEvent.updated(before, task);
+        if (after.differsFrom(before)) {
+            eventPublisher.publishEvent(after);
+        }
+    }
+}
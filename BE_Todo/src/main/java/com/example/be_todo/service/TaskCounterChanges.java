@@ -0,0 +1,80 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCounterDimension;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Gom thay đổi của bộ đếm task trong 1 thao tác ghi, rồi TaskStatsService.apply ghi 1 lần mỗi bucket.
+ * remove(task) phải gọi trước khi sửa entity (lấy giá trị cũ), add(task) sau khi sửa.
+ */
+public final class TaskCounterChanges {
+
+    public static final String NO_CATEGORY = "NONE";
+
+    // Sắp theo khoá để các transaction cập nhật dòng theo cùng thứ tự (tránh deadlock)
+    public record Key(Long userId, TaskCounterDimension dimension, String bucket) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byUser = userId.compareTo(other.userId);
+            if (byUser != 0) {
+                return byUser;
+            }
+            int byDimension = dimension.compareTo(other.dimension);
+            return byDimension != 0 ? byDimension : bucket.compareTo(other.bucket);
+        }
+    }
+
+    private final Map<Key, Long> deltas = new TreeMap<>();
+
+    public TaskCounterChanges add(Task task) {
+        return change(task, 1);
+    }
+
+    public TaskCounterChanges remove(Task task) {
+        return change(task, -1);
+    }
+
+    // Chuyển count task của user từ category này sang category khác (null = không có category)
+    public TaskCounterChanges moveCategory(Long userId, Long fromCategoryId, Long toCategoryId, long count) {
+        add(userId, TaskCounterDimension.CATEGORY, categoryBucket(fromCategoryId), -count);
+        add(userId, TaskCounterDimension.CATEGORY, categoryBucket(toCategoryId), count);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    // Chỉ các bucket có thay đổi khác 0, theo thứ tự khoá
+    public Map<Key, Long> deltas() {
+        return deltas;
+    }
+
+    public static String categoryBucket(Long categoryId) {
+        return categoryId != null ? categoryId.toString() : NO_CATEGORY;
+    }
+
+    private TaskCounterChanges change(Task task, long delta) {
+        Long userId = task.getUser().getId();
+        // status / priority null thì INSERT / UPDATE sẽ lỗi NOT NULL và rollback cả bộ đếm
+        if (task.getStatus() != null) {
+            add(userId, TaskCounterDimension.STATUS, task.getStatus().name(), delta);
+        }
+        if (task.getPriority() != null) {
+            add(userId, TaskCounterDimension.PRIORITY, task.getPriority().name(), delta);
+        }
+        add(userId, TaskCounterDimension.CATEGORY,
+                categoryBucket(task.getCategory() != null ? task.getCategory().getId() : null), delta);
+        return this;
+    }
+
+    private void add(Long userId, TaskCounterDimension dimension, String bucket, long delta) {
+        if (delta != 0) {
+            deltas.merge(new Key(userId, dimension, bucket), delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+}
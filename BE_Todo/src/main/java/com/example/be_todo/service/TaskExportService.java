@@ -0,0 +1,9 @@
+package com.example.be_todo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TaskExportService {
+    // Ghi task dạng NDJSON (mỗi dòng 1 TaskDTO); userId == null: task của mọi user. Trả về số dòng đã ghi
+    long exportTasks(Long userId, OutputStream out) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskSearchPageDTO;
+
+public interface TaskSearchService {
+    // Tìm trong tiêu đề + mô tả task của user, xếp theo độ liên quan. page bắt đầu từ 0
+    TaskSearchPageDTO search(Long userId, String query, Integer page, Integer size);
+
+    // Ghi index ra file snapshot. Trả về false nếu không ghi (tắt snapshot hoặc index không đổi từ lần ghi trước)
+    boolean writeSnapshot();
+}
@@ -1,5 +1,11 @@
 package com.example.be_todo.service;
 
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchResultDTO;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskPageDTO;
+import com.example.be_todo.dto.TaskPatch;
+import com.example.be_todo.dto.TaskSort;
 import com.example.be_todo.dto.TaskUpdateRequestDTO;
 import com.example.be_todo.entity.Task;
 import com.example.be_todo.entity.Status;
@@ -9,8 +15,14 @@ import java.util.List;
 public interface TaskService {
     Task createTask(Long userId, Task task, boolean isAdmin);
     Task updateTask(Long taskId, TaskUpdateRequestDTO request, Long currentUserId, boolean isAdmin);
+    // JSON Merge Patch: chỉ ghi field có trong patch; expectedVersion khác version hiện tại thì 409
+    TaskDTO patchTask(Long taskId, TaskPatch patch, long expectedVersion, Long currentUserId, boolean isAdmin);
     Task updateStatus(Long taskId, Status status, Long currentUserId, boolean isAdmin);
     void deleteTask(Long taskId, Long currentUserId, boolean isAdmin);
-    List<Task> getTasksByUser(Long userId);
-    List<Task> getTasksByUserAndStatus(Long userId, Status status);
+    List<TaskBatchResultDTO> executeBatch(List<TaskBatchOperationDTO> operations, Long currentUserId, boolean isAdmin);
+    List<TaskDTO> getTasksByUser(Long userId);
+    List<TaskDTO> getTasksByUserAndStatus(Long userId, Status status);
+    // ETag của getTasksByUser (status == null) / getTasksByUserAndStatus, không truy vấn DB
+    String getTaskListETag(Long userId, Status status);
+    TaskPageDTO getTaskPage(Long userId, Status status, TaskSort sort, String cursor, Integer size);
 }
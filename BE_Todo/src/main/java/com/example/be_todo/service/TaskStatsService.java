@@ -0,0 +1,16 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskStatsDTO;
+
+public interface TaskStatsService {
+    TaskStatsDTO getStats(Long userId);
+
+    // Ghi thay đổi bộ đếm, gọi bên trong transaction của thao tác ghi task
+    void apply(TaskCounterChanges changes);
+
+    // Đếm lại từ bảng tasks và sửa bộ đếm bị lệch của 1 user. Trả về số bucket đã sửa
+    int reconcile(Long userId);
+
+    // Reconcile mọi user (job định kỳ). Trả về tổng số bucket đã sửa
+    int reconcileAll();
+}
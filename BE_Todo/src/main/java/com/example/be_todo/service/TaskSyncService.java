@@ -0,0 +1,26 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskSyncDTO;
+import com.example.be_todo.entity.TaskTombstoneKind;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface TaskSyncService {
+    // Thay đổi sau cursor (null = lần đầu, lấy toàn bộ). Cursor quá cũ (tombstone đã bị dọn): 410 Gone
+    TaskSyncDTO getChanges(Long userId, String cursor, Integer size);
+
+    // Cấp change_seq mới cho user và khoá bộ đếm tới hết transaction. Gọi bên trong transaction của thao tác ghi
+    long nextSeq(Long userId);
+
+    // Như nextSeq cho nhiều user, khoá theo thứ tự userId tăng dần
+    Map<Long, Long> nextSeqs(Collection<Long> userIds);
+
+    void recordDeleted(Long userId, TaskTombstoneKind kind, Long objectId, long changeSeq);
+
+    // Task được gán lại cho user từng sở hữu nó
+    void clearDeleted(Long userId, TaskTombstoneKind kind, Long objectId);
+
+    // Xoá tombstone quá retention (job định kỳ). Trả về số dòng đã xoá
+    int purgeTombstones();
+}
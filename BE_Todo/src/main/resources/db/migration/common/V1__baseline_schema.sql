@@ -0,0 +1,69 @@
+-- Schema ban đầu, giống hệt bảng Hibernate đã sinh khi còn chạy ddl-auto=update.
+-- Dùng "if not exists" để DB cũ (đã có bảng) đi qua được migration này mà không đổi gì.
+
+create table if not exists roles (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    primary key (id),
+    constraint UKofx66keruapi6vyqpv6f2or37 unique (name)
+) engine=InnoDB;
+
+create table if not exists users (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id),
+    constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email),
+    constraint UKr43af9ap4edm43mmtq01oddj6 unique (username)
+) engine=InnoDB;
+
+create table if not exists user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    primary key (role_id, user_id),
+    constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles (id),
+    constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table if not exists habits (
+    completed_days integer not null,
+    target_days integer not null,
+    id bigint not null auto_increment,
+    user_id bigint,
+    description varchar(255),
+    title varchar(255),
+    primary key (id),
+    constraint FKg3n2qqwmsyv3517xdcosouk9i foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table if not exists task_categories (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    color varchar(255),
+    name varchar(255) not null,
+    primary key (id),
+    constraint FKlh8saa8yja9kp95gdqnvgepcv foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table if not exists tasks (
+    category_id bigint,
+    completed_at datetime(6),
+    created_at datetime(6),
+    due_date datetime(6),
+    end_time datetime(6),
+    id bigint not null,
+    start_time datetime(6),
+    updated_at datetime(6),
+    user_id bigint not null,
+    description varchar(255),
+    title varchar(255) not null,
+    priority enum ('HIGH','LOW','MEDIUM') not null,
+    status enum ('COMPLETED','IN_PROGRESS','PENDING') not null,
+    primary key (id),
+    constraint FK42ldd63quus0efpi2ec64q0qg foreign key (category_id) references task_categories (id),
+    constraint FK6s1ob9k4ihi75xbxe2w0ylsdh foreign key (user_id) references users (id)
+) engine=InnoDB;
@@ -0,0 +1,26 @@
+-- Index cho mọi đường truy cập trong TaskRepository / TaskCategoryRepository.
+-- user_id luôn đứng đầu: mọi truy vấn danh sách đều lọc theo user; id ở cuối để ORDER BY id / keyset không phải sort.
+
+-- findDtoByUserId, streamByUserId (order by id)
+create index idx_tasks_user_id on tasks (user_id, id);
+
+-- findDtoByUserIdAndStatus (order by id)
+create index idx_tasks_user_status on tasks (user_id, status, id);
+
+-- Keyset theo (due_date asc, id asc): findDueDatePage*, findNoDueDatePageAfter
+create index idx_tasks_user_due_date on tasks (user_id, due_date, id);
+
+-- Keyset theo (updated_at desc, id desc): findUpdatedAtPage*, findNoUpdatedAtPageAfter
+create index idx_tasks_user_updated_at on tasks (user_id, updated_at, id);
+
+-- findByCategoryId, findUserIdsByCategoryId, clearCategory, moveToCategory
+create index idx_tasks_category_user on tasks (category_id, user_id);
+
+-- findByStatus, findByPriority
+create index idx_tasks_status on tasks (status);
+create index idx_tasks_priority on tasks (priority);
+
+-- findByUserId, findByIdAndUserId, existsByIdAndUserId, countByUserIdAndIdIn, deleteByIdAndUserId
+create index idx_task_categories_user on task_categories (user_id, id);
+
+-- users.username / roles.name: đã có unique constraint (= unique index) từ V1
@@ -0,0 +1,14 @@
+-- Refresh token (jti) và family đã thu hồi, xem RefreshTokenServiceImpl.
+-- id là khoá chính: INSERT trùng = token đã bị dùng lại, kể cả khi 2 instance nhận cùng lúc.
+
+create table revoked_tokens (
+    id varchar(36) not null,
+    type enum ('FAMILY','TOKEN') not null,
+    username varchar(255) not null,
+    expires_at datetime(6) not null,
+    revoked_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- findActiveIds (rebuild filter), deleteExpired (prune)
+create index idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
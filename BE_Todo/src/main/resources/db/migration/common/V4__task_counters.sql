@@ -0,0 +1,22 @@
+-- Bộ đếm task theo user, cập nhật trong cùng transaction với thao tác ghi task (xem TaskStatsServiceImpl).
+-- dimension = STATUS | PRIORITY | CATEGORY; bucket = tên enum, id category hoặc NONE (task không có category).
+
+create table task_counters (
+    user_id bigint not null,
+    dimension varchar(16) not null,
+    bucket varchar(32) not null,
+    task_count bigint not null,
+    primary key (user_id, dimension, bucket),
+    constraint fk_task_counters_user foreign key (user_id) references users (id) on delete cascade
+) engine=InnoDB;
+
+-- Số liệu ban đầu từ dữ liệu hiện có
+insert into task_counters (user_id, dimension, bucket, task_count)
+select user_id, 'STATUS', status, count(*) from tasks group by user_id, status;
+
+insert into task_counters (user_id, dimension, bucket, task_count)
+select user_id, 'PRIORITY', priority, count(*) from tasks group by user_id, priority;
+
+insert into task_counters (user_id, dimension, bucket, task_count)
+select user_id, 'CATEGORY', case when category_id is null then 'NONE' else concat('', category_id) end, count(*)
+from tasks group by user_id, category_id;
@@ -0,0 +1,12 @@
+-- Nhắc nhở theo dueDate / startTime (xem ReminderScheduler).
+
+-- Nạp cửa sổ nhắc nhở của mọi user theo keyset (due_date, id) / (start_time, id): findDueReminderWindow, findStartReminderWindow
+create index idx_tasks_due_date on tasks (due_date, id);
+create index idx_tasks_start_time on tasks (start_time, id);
+
+-- Mốc đã gửi hết nhắc nhở (mọi mốc <= fired_until đã gửi), dùng để nạp lại phần bị lỡ sau khi restart
+create table reminder_checkpoints (
+    name varchar(64) not null,
+    fired_until datetime(6) not null,
+    primary key (name)
+) engine=InnoDB;
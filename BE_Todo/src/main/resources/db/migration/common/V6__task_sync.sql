@@ -0,0 +1,34 @@
+-- Delta sync (GET /api/tasks/sync): thay đổi của task theo số thứ tự tăng dần của từng user, không theo updated_at.
+-- Xem TaskSyncServiceImpl.
+
+-- Số thứ tự thay đổi lớn nhất đã cấp cho user. Thao tác ghi giữ khoá dòng này tới lúc commit,
+-- nên với cùng 1 user thứ tự commit trùng thứ tự change_seq
+create table task_sync_counters (
+    user_id bigint not null,
+    last_seq bigint not null,
+    primary key (user_id),
+    constraint fk_task_sync_counters_user foreign key (user_id) references users (id) on delete cascade
+) engine=InnoDB;
+
+-- Task hiện có mang change_seq = 0: lần sync đầu tiên (không có cursor) vẫn lấy đủ
+alter table tasks add column change_seq bigint not null default 0;
+
+-- findSyncPage: keyset theo (change_seq, id), nhóm change_seq lớn (task cũ = 0, UPDATE hàng loạt) vẫn chia trang
+create index idx_tasks_user_change_seq on tasks (user_id, change_seq, id);
+
+-- Task đã xoá / đã chuyển sang user khác (kind = TASK) và category đã xoá (kind = CATEGORY)
+create table task_tombstones (
+    user_id bigint not null,
+    kind varchar(16) not null,
+    object_id bigint not null,
+    change_seq bigint not null,
+    deleted_at datetime(6) not null,
+    primary key (user_id, kind, object_id),
+    constraint fk_task_tombstones_user foreign key (user_id) references users (id) on delete cascade
+) engine=InnoDB;
+
+-- findSyncPage: keyset theo (change_seq, kind, object_id)
+create index idx_task_tombstones_user_seq on task_tombstones (user_id, change_seq, kind, object_id);
+
+-- deleteOlderThan (job dọn tombstone)
+create index idx_task_tombstones_deleted_at on task_tombstones (deleted_at);
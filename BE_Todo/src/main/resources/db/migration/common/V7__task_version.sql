@@ -0,0 +1,3 @@
+-- Optimistic locking cho task: mọi UPDATE kèm "where version = ?" và tăng version.
+-- PATCH /api/tasks/{id} gửi version client đang có (If-Match), lệch thì 409. Xem TaskServiceImpl.patchTask
+alter table tasks add column version bigint not null default 0;
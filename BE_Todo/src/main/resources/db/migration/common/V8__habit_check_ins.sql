@@ -0,0 +1,15 @@
+-- Check-in hằng ngày của habit: bitmap 1 bit / ngày tính từ start_date (bit 0 = start_date), xem CheckInBitmap.
+-- 8192 byte phủ khoảng 179 năm; chỉ lưu tới byte khác 0 cuối cùng.
+
+alter table habits add column start_date date;
+update habits set start_date = current_date where start_date is null;
+alter table habits modify start_date date not null;
+
+alter table habits add column check_ins varbinary(8192);
+
+-- Habit có sẵn: check_ins rỗng, nên completed_days (= số bit 1 của check_ins) về 0. Bộ đếm cũ không lưu ngày nào
+-- đã check-in nên không dựng lại được bitmap; habit tính lại từ start_date
+update habits set completed_days = 0 where check_ins is null;
+
+-- findByUserIdOrderById
+create index idx_habits_user_id on habits (user_id, id);
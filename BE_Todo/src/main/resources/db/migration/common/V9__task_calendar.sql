@@ -0,0 +1,5 @@
+-- Lịch task (GET /api/tasks/calendar, kiểm tra trùng giờ): nạp khoảng [start_time, end_time) các task của 1 user
+-- vào interval tree trong bộ nhớ bằng 1 lần quét index theo (user_id, start_time), xem TaskCalendarServiceImpl.
+
+-- findIntervalsByUserId
+create index idx_tasks_user_start_time on tasks (user_id, start_time);
@@ -0,0 +1,2 @@
+-- H2 (test) có sequence thật, khớp với @SequenceGenerator(allocationSize = 50) của Task
+create sequence if not exists task_seq start with 1 increment by 50;
@@ -0,0 +1,15 @@
+-- Task.id dùng sequence pooled (allocationSize = 50). MySQL không có sequence nên Hibernate dùng bảng 1 dòng.
+-- Optimizer pooled đọc giá trị S rồi cấp id (S - 49 .. S), nên S phải >= max(id) + 50 để không trùng task cũ.
+
+create table if not exists task_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into task_seq (next_val)
+select coalesce(max(id), 0) + 50 from tasks
+where not exists (select 1 from task_seq);
+
+-- DB đã được Hibernate tạo bảng này với giá trị 1: đẩy lên trên id lớn nhất hiện có
+update task_seq
+set next_val = (select coalesce(max(id), 0) + 50 from tasks)
+where next_val < (select coalesce(max(id), 0) + 50 from tasks);
@@ -1,9 +1,9 @@
 package com.example.be_todo;
 
+import com.example.be_todo.support.IntegrationTest;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@IntegrationTest
 class BeTodoApplicationTests {
 
     @Test
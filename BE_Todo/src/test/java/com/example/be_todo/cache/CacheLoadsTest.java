@@ -0,0 +1,70 @@
+package com.example.be_todo.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Loader chạy trên thread gọi, ngoài lock của map; request cùng key chờ chung 1 lần nạp
+class CacheLoadsTest {
+
+    private final AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+
+    @Test
+    void concurrentCallersShareOneLoadOnCallerThread() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> CacheLoads.getOrLoad(cache, "k", key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return Thread.currentThread().getName();
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Trong lúc đang nạp, thao tác khác trên map không bị chặn
+            cache.synchronous().put("other", "v");
+            Future<String> second = executor.submit(() -> CacheLoads.getOrLoad(cache, "k", key -> {
+                loads.incrementAndGet();
+                return "second";
+            }));
+            release.countDown();
+
+            String loaderThread = first.get(5, TimeUnit.SECONDS);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(loaderThread);
+            assertThat(loaderThread).startsWith("pool-");
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThatThrownBy(() -> CacheLoads.getOrLoad(cache, "k", key -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(CacheLoads.getOrLoad(cache, "k", key -> "ok")).isEqualTo("ok");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.be_todo.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    private record Interval(long id, long start, long end, boolean active) {
+    }
+
+    @Test
+    void matchesALinearScanUnderRandomPutsAndRemoves() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, Interval> expected = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                assertThat(tree.remove(id)).isEqualTo(expected.remove(id) != null);
+            } else {
+                // Nhiều khoảng cùng start, cả khoảng rất dài lẫn rất ngắn để maxEnd phải cắt nhánh đúng
+                long start = random.nextInt(10_000);
+                long end = start + 1 + (random.nextInt(10) == 0 ? random.nextInt(5_000) : random.nextInt(50));
+                boolean active = random.nextInt(5) != 0;
+                tree.put(id, start, end, active);
+                expected.put(id, new Interval(id, start, end, active));
+            }
+
+            if (step % 100 == 0) {
+                assertThat(tree.size()).isEqualTo(expected.size());
+                long from = random.nextInt(11_000);
+                long to = from + 1 + random.nextInt(500);
+                boolean activeOnly = random.nextBoolean();
+                List<Long> found = new ArrayList<>();
+                assertThat(tree.forEachOverlapping(from, to, activeOnly, Integer.MAX_VALUE, found::add)).isTrue();
+                assertThat(found).containsExactlyElementsOf(scan(expected, from, to, activeOnly));
+            }
+        }
+    }
+
+    @Test
+    void stopsAtTheLimitAndReportsTruncation() {
+        IntervalTree tree = new IntervalTree();
+        for (long id = 1; id <= 10; id++) {
+            tree.put(id, id * 10, id * 10 + 100, true);
+        }
+        List<Long> found = new ArrayList<>();
+        assertThat(tree.forEachOverlapping(0, 1_000, false, 3, found::add)).isFalse();
+        assertThat(found).containsExactly(1L, 2L, 3L);
+
+        found.clear();
+        assertThat(tree.forEachOverlapping(0, 1_000, false, 10, found::add)).isTrue();
+        assertThat(found).hasSize(10);
+    }
+
+    @Test
+    void calendarTreatsAdjacentTasksAsFreeAndInstantsAsOneMillisecond() {
+        LocalDateTime nine = LocalDateTime.of(2030, 1, 1, 9, 0);
+        UserCalendar calendar = new UserCalendar();
+        calendar.put(1, nine, nine.plusHours(1), true);
+        calendar.put(2, nine.plusHours(1), nine.plusHours(2), true);
+        calendar.put(3, nine.plusMinutes(30), null, true);
+        calendar.put(4, nine, nine.plusHours(3), false);
+
+        // 10:00 - 11:00 chỉ chạm 9:00 - 10:00, không trùng; task đã xong (4) không tính
+        assertThat(calendar.conflicts(nine.plusHours(1), nine.plusHours(2), 2L, 10).taskIds()).isEmpty();
+        assertThat(calendar.conflicts(nine.plusMinutes(30), null, null, 10).taskIds()).containsExactly(1L, 3L);
+        assertThat(calendar.conflicts(nine.plusMinutes(30), null, 3L, 10).taskIds()).containsExactly(1L);
+        // Lịch hiện cả task đã xong
+        assertThat(calendar.window(nine, nine.plusMinutes(31), 10).taskIds()).containsExactly(1L, 4L, 3L);
+
+        UserCalendar.Overlaps truncated = calendar.window(nine, nine.plusHours(3), 2);
+        assertThat(truncated.truncated()).isTrue();
+        assertThat(truncated.taskIds()).containsExactly(1L, 4L);
+
+        // startTime bị xoá: task rời khỏi lịch
+        calendar.put(1, null, null, true);
+        assertThat(calendar.size()).isEqualTo(3);
+        assertThat(calendar.conflicts(nine, nine.plusMinutes(10), null, 10).taskIds()).isEmpty();
+    }
+
+    private static List<Long> scan(Map<Long, Interval> intervals, long from, long to, boolean activeOnly) {
+        return intervals.values().stream()
+                .filter(interval -> interval.start() < to && interval.end() > from)
+                .filter(interval -> interval.active() || !activeOnly)
+                .sorted(Comparator.comparingLong(Interval::start).thenComparingLong(Interval::id))
+                .map(Interval::id)
+                .toList();
+    }
+}
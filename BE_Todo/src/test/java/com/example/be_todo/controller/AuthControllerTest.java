@@ -0,0 +1,102 @@
+package com.example.be_todo.controller;
+
+import com.example.be_todo.security.PasswordHashingExecutor;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Login / register chạy BCrypt trên pool riêng (async); pool đầy thì trả 503 ngay
+@IntegrationTest
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Test
+    void registerAndLoginRunAsync() throws Exception {
+        String username = TestUsers.uniqueName("auth");
+        perform(post("/api/auth/register"), """
+                {"username": "%s", "name": "Auth", "email": "%s@example.com", "password": "secret"}
+                """.formatted(username, username))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(username));
+
+        perform(post("/api/auth/login"), """
+                {"username": "%s", "password": "secret"}
+                """.formatted(username))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty());
+
+        perform(post("/api/auth/login"), """
+                {"username": "%s", "password": "wrong"}
+                """.formatted(username))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void rejectsWith503WhenHashingQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // Chiếm hết thread và chỗ trong queue (bao nhiêu tuỳ cấu hình) tới khi pool bắt đầu từ chối
+        List<CompletableFuture<Boolean>> blocked = new ArrayList<>();
+        try {
+            while (true) {
+                try {
+                    blocked.add(passwordHashingExecutor.submit(() -> await(release)));
+                } catch (ResponseStatusException e) {
+                    break;
+                }
+                assertThat(blocked).as("Pool BCrypt không có giới hạn").hasSizeLessThan(10_000);
+            }
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\": \"anyone\", \"password\": \"x\"}"))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            release.countDown();
+        }
+        for (CompletableFuture<Boolean> task : blocked) {
+            task.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder builder,
+                                  String json) throws Exception {
+        MvcResult result = mockMvc.perform(builder.contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.be_todo.controller;
+
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.TaskCategoryRepository;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.security.JwtService;
+import com.example.be_todo.service.PersonalTaskService;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Endpoint mới của /api/my-tasks lấy user từ JWT: currentUserId trong request không đổi được user bị tác động
+@IntegrationTest
+class PersonalTaskControllerTest {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+
+    @Test
+    void moveCategoryTasksActsOnTheTokenUser() throws Exception {
+        User owner = users.create("move-owner", "USER");
+        User other = users.create("move-other", "USER");
+        TaskCategory work = createCategory(owner, "Work");
+        TaskCategory home = createCategory(owner, "Home");
+        Task task = personalTaskService.createTask(owner.getId(), Task.builder()
+                .title("Chuyển")
+                .priority(Priority.MEDIUM)
+                .category(work)
+                .build());
+
+        // currentUserId của user khác bị bỏ qua
+        mockMvc.perform(patch("/api/my-tasks/categories/move")
+                        .header("Authorization", "Bearer " + jwtService.generateAccessToken(owner))
+                        .param("currentUserId", String.valueOf(other.getId()))
+                        .param("fromCategoryId", String.valueOf(work.getId()))
+                        .param("toCategoryId", String.valueOf(home.getId())))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getCategory().getId()).isEqualTo(home.getId());
+    }
+
+    private TaskCategory createCategory(User user, String name) {
+        TaskCategory category = new TaskCategory();
+        category.setName(name);
+        category.setUser(user);
+        return taskCategoryRepository.save(category);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.be_todo.controller;
+
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchOperationType;
+import com.example.be_todo.dto.TaskBatchResultDTO;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskStatsDTO;
+import com.example.be_todo.dto.TaskSyncDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.security.JwtService;
+import com.example.be_todo.service.PersonalTaskService;
+import com.example.be_todo.service.TaskService;
+import com.example.be_todo.service.TaskStatsService;
+import com.example.be_todo.service.TaskSyncService;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// POST /api/tasks/batch: lỗi từng thao tác chỉ báo trong kết quả, phần còn lại commit cùng bộ đếm / change_seq / tombstone
+@IntegrationTest
+class TaskBatchTest {
+
+    private static final long MISSING_TASK_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskSyncService taskSyncService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.create("batch-owner", "USER");
+        other = users.create("batch-other", "USER");
+    }
+
+    @Test
+    void mixedBatchReportsPerOperationFailuresAndCommitsTheRest() throws Exception {
+        Task kept = personalTaskService.createTask(owner.getId(), newTask("Giữ lại"));
+        Task removed = personalTaskService.createTask(owner.getId(), newTask("Xoá đi"));
+        Task foreign = personalTaskService.createTask(other.getId(), newTask("Của người khác"));
+        String ownerCursor = taskSyncService.getChanges(owner.getId(), null, null).cursor();
+        String otherCursor = taskSyncService.getChanges(other.getId(), null, null).cursor();
+
+        List<TaskBatchResultDTO> results = batch(owner, List.of(
+                new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, newTask("Tạo trong batch")),
+                new TaskBatchOperationDTO(TaskBatchOperationType.UPDATE_STATUS, kept.getId(), Status.COMPLETED, null),
+                new TaskBatchOperationDTO(TaskBatchOperationType.DELETE, removed.getId(), null, null),
+                new TaskBatchOperationDTO(TaskBatchOperationType.UPDATE_STATUS, MISSING_TASK_ID, Status.COMPLETED, null),
+                new TaskBatchOperationDTO(TaskBatchOperationType.DELETE, foreign.getId(), null, null),
+                new TaskBatchOperationDTO(TaskBatchOperationType.UPDATE_STATUS, kept.getId(), null, null),
+                new TaskBatchOperationDTO(TaskBatchOperationType.DELETE, removed.getId(), null, null)));
+
+        assertThat(results).extracting(TaskBatchResultDTO::index).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(results).extracting(TaskBatchResultDTO::success)
+                .containsExactly(true, true, true, false, false, false, false);
+        assertThat(results).extracting(TaskBatchResultDTO::error).containsExactly(null, null, null,
+                "Task not found", "You are not allowed to modify this task", "Missing status", "Task not found");
+        Long createdId = results.get(0).taskId();
+        assertThat(createdId).isNotNull();
+
+        // Bộ đếm: task mới + task đã hoàn thành, task bị xoá không còn được đếm
+        TaskStatsDTO stats = taskStatsService.getStats(owner.getId());
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.byStatus().get(Status.PENDING)).isEqualTo(1L);
+        assertThat(stats.byStatus().get(Status.COMPLETED)).isEqualTo(1L);
+        assertThat(taskStatsService.getStats(other.getId()).total()).isEqualTo(1);
+        assertThat(taskRepository.findById(foreign.getId())).isPresent();
+
+        // Mọi thay đổi của owner trong batch dùng chung 1 change_seq, task bị xoá để lại tombstone
+        Task created = taskRepository.findById(createdId).orElseThrow();
+        Task completed = taskRepository.findById(kept.getId()).orElseThrow();
+        assertThat(completed.getChangeSeq()).isEqualTo(created.getChangeSeq()).isGreaterThan(kept.getChangeSeq());
+        assertThat(taskRepository.findById(removed.getId())).isEmpty();
+        TaskSyncDTO delta = taskSyncService.getChanges(owner.getId(), ownerCursor, null);
+        assertThat(delta.tasks()).extracting(TaskDTO::id).containsExactlyInAnyOrder(createdId, kept.getId());
+        assertThat(delta.deletedTaskIds()).containsExactly(removed.getId());
+        TaskSyncDTO untouched = taskSyncService.getChanges(other.getId(), otherCursor, null);
+        assertThat(untouched.tasks()).isEmpty();
+        assertThat(untouched.deletedTaskIds()).isEmpty();
+    }
+
+    @Test
+    void adminBatchUpdatesCountersAndSyncOfEachOwner() throws Exception {
+        User admin = users.create("batch-admin", "ADMIN");
+        Task ownerTask = personalTaskService.createTask(owner.getId(), newTask("Owner"));
+        Task otherTask = personalTaskService.createTask(other.getId(), newTask("Other"));
+        String otherCursor = taskSyncService.getChanges(other.getId(), null, null).cursor();
+
+        List<TaskBatchResultDTO> results = batch(admin, List.of(
+                new TaskBatchOperationDTO(TaskBatchOperationType.UPDATE_STATUS, ownerTask.getId(), Status.IN_PROGRESS, null),
+                new TaskBatchOperationDTO(TaskBatchOperationType.DELETE, otherTask.getId(), null, null)));
+
+        assertThat(results).allMatch(TaskBatchResultDTO::success);
+        assertThat(taskStatsService.getStats(owner.getId()).byStatus().get(Status.IN_PROGRESS)).isEqualTo(1L);
+        assertThat(taskStatsService.getStats(other.getId()).total()).isZero();
+        assertThat(taskStatsService.getStats(admin.getId()).total()).isZero();
+        assertThat(taskSyncService.getChanges(other.getId(), otherCursor, null).deletedTaskIds())
+                .containsExactly(otherTask.getId());
+    }
+
+    @Test
+    void batchAboveMaxSizeIsRejected() throws Exception {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            operations.add(Map.of("type", "DELETE", "taskId", MISSING_TASK_ID));
+        }
+
+        mockMvc.perform(post("/api/tasks/batch").header("Authorization", token(owner))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(operations)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void concurrentModificationRollsBackTheWholeBatch() throws Exception {
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Tranh chấp"));
+        TaskStatsDTO before = taskStatsService.getStats(owner.getId());
+        String cursor = taskSyncService.getChanges(owner.getId(), null, null).cursor();
+
+        // Batch nạp task ở version 0 (đã nằm sẵn trong persistence context), request khác ghi version 1 trước khi batch flush
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            taskRepository.findById(task.getId()).orElseThrow();
+            CompletableFuture.runAsync(() -> taskService.updateStatus(task.getId(), Status.COMPLETED, owner.getId(), false))
+                    .orTimeout(30, TimeUnit.SECONDS)
+                    .join();
+            taskService.executeBatch(List.of(
+                    new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, newTask("Bị rollback")),
+                    new TaskBatchOperationDTO(TaskBatchOperationType.UPDATE_STATUS, task.getId(), Status.IN_PROGRESS, null)),
+                    owner.getId(), false);
+        })).isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        assertThat(personalTaskService.getMyTasks(owner.getId())).extracting(TaskDTO::title).containsExactly("Tranh chấp");
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(stored.getVersion()).isEqualTo(1L);
+        TaskStatsDTO after = taskStatsService.getStats(owner.getId());
+        assertThat(after.total()).isEqualTo(before.total());
+        assertThat(after.byStatus().get(Status.COMPLETED)).isEqualTo(1L);
+        assertThat(after.byStatus().get(Status.IN_PROGRESS)).isZero();
+        // Chỉ thay đổi của request thắng xuất hiện trong delta sync
+        assertThat(taskSyncService.getChanges(owner.getId(), cursor, null).tasks())
+                .extracting(TaskDTO::status).containsExactly(Status.COMPLETED.name());
+    }
+
+    private List<TaskBatchResultDTO> batch(User user, List<TaskBatchOperationDTO> operations) throws Exception {
+        String body = mockMvc.perform(post("/api/tasks/batch").header("Authorization", token(user))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(operations)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, new TypeReference<>() {
+        });
+    }
+
+    private String token(User user) {
+        return "Bearer " + jwtService.generateAccessToken(user);
+    }
+
+    private static Task newTask(String title) {
+        return Task.builder()
+                .title(title)
+                .priority(Priority.MEDIUM)
+                .build();
+    }
+}
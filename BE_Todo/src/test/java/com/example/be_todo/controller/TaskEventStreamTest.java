@@ -0,0 +1,130 @@
+package com.example.be_todo.controller;
+
+import com.example.be_todo.entity.User;
+import com.example.be_todo.push.TaskEventHub;
+import com.example.be_todo.push.TaskEventKind;
+import com.example.be_todo.security.JwtService;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Luồng SSE của user nhận sự kiện sau khi task / category thay đổi; kết nối lại bằng Last-Event-ID chỉ nhận phần đã lỡ
+@IntegrationTest
+class TaskEventStreamTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)\\nevent:tasks");
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TaskEventHub taskEventHub;
+
+    @Test
+    void taskAndCategoryWritesArePushedToTheOwnersStreams() throws Exception {
+        User owner = users.create("events-owner", "USER");
+        String token = token(owner);
+        MvcResult ownerStream = open(token, null);
+        MvcResult otherStream = open(token(users.create("events-other", "USER")), null);
+
+        createTask(token);
+        await().atMost(Duration.ofSeconds(5)).until(() -> body(ownerStream).contains("event:tasks"));
+
+        mockMvc.perform(post("/api/my-tasks/categories?currentUserId=" + owner.getId())
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Công việc", "color": "#ff0000"}
+                                """))
+                .andExpect(status().isOk());
+        await().atMost(Duration.ofSeconds(5)).until(() -> body(ownerStream).contains("event:categories"));
+
+        assertThat(body(otherStream)).doesNotContain("event:");
+    }
+
+    @Test
+    void reconnectReplaysOnlyMissedKinds() throws Exception {
+        User owner = users.create("events-resume", "USER");
+        String token = token(owner);
+        MvcResult first = open(token, null);
+        createTask(token);
+        await().atMost(Duration.ofSeconds(5)).until(() -> EVENT_ID.matcher(body(first)).find());
+        Matcher matcher = EVENT_ID.matcher(body(first));
+        assertThat(matcher.find()).isTrue();
+        String lastEventId = matcher.group(1);
+
+        // Đã nhận sự kiện tasks mới nhất: kết nối lại không nhận gì
+        MvcResult upToDate = open(token, lastEventId);
+        // Id không nhận ra (restart / instance khác): nhận bù mọi loại
+        MvcResult unknown = open(token, "unknown.1.1");
+        await().atMost(Duration.ofSeconds(5)).until(() -> body(unknown).contains("event:categories"));
+        assertThat(body(unknown)).contains("event:tasks");
+
+        // Phần gửi bù (nếu có) được ghi trước mọi sự kiện mới: khi sự kiện đánh dấu tới thì không còn gì đang chờ gửi
+        taskEventHub.publish(owner.getId(), TaskEventKind.CATEGORIES);
+        await().atMost(Duration.ofSeconds(5)).until(() -> body(upToDate).contains("event:categories"));
+        assertThat(body(upToDate)).doesNotContain("event:tasks");
+    }
+
+    @Test
+    void oldestStreamIsClosedAboveThePerUserLimit() throws Exception {
+        String token = token(users.create("events-limit", "USER"));
+        int before = taskEventHub.subscriberCount();
+
+        open(token, null);
+        open(token, null);
+        open(token, null);
+
+        assertThat(taskEventHub.subscriberCount() - before).isEqualTo(2);
+    }
+
+    private MvcResult open(String token, String lastEventId) throws Exception {
+        var builder = get("/api/tasks/events").header("Authorization", token);
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(body(result)).contains(":connected");
+        return result;
+    }
+
+    private void createTask(String token) throws Exception {
+        mockMvc.perform(post("/api/tasks").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title": "Viết báo cáo", "priority": "MEDIUM"}
+                                """))
+                .andExpect(status().isOk());
+    }
+
+    private static String body(MvcResult result) throws Exception {
+        return result.getResponse().getContentAsString();
+    }
+
+    private String token(User user) {
+        return "Bearer " + jwtService.generateAccessToken(user);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.be_todo.controller;
+
+import com.example.be_todo.entity.User;
+import com.example.be_todo.security.JwtService;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET danh sách task / category trả ETag; If-None-Match khớp thì 304 mà không chạy câu SQL nào
+@IntegrationTest
+class TaskListETagTest {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void unchangedTaskListIsNotModifiedUntilATaskIsWritten() throws Exception {
+        String token = token(users.create("etag-owner", "USER"));
+        String eTag = eTagOf("/api/tasks", token);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/tasks").header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        mockMvc.perform(post("/api/tasks").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title": "Viết báo cáo", "priority": "MEDIUM"}
+                                """))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/api/tasks").header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(eTag);
+
+        // Danh sách lọc theo status có ETag riêng
+        assertThat(eTagOf("/api/tasks/status?status=PENDING", token)).isNotEqualTo(changed);
+    }
+
+    @Test
+    void eTagIsScopedToTheUser() throws Exception {
+        String eTag = eTagOf("/api/tasks", token(users.create("etag-first", "USER")));
+
+        mockMvc.perform(get("/api/tasks").header("Authorization", token(users.create("etag-second", "USER")))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void categoryListChangesWithCategoryWrites() throws Exception {
+        User owner = users.create("etag-categories", "USER");
+        String token = token(owner);
+        String url = "/api/my-tasks/categories?currentUserId=" + owner.getId();
+        String eTag = eTagOf(url, token);
+
+        mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post(url).header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Công việc", "color": "#ff0000"}
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    private String eTagOf(String url, String token) throws Exception {
+        String eTag = mockMvc.perform(get(url).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"").endsWith("\"");
+        return eTag;
+    }
+
+    private String token(User user) {
+        return "Bearer " + jwtService.generateAccessToken(user);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.be_todo.habit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckInBitmapTest {
+
+    @Test
+    void streaksCrossWordBoundaries() {
+        CheckInBitmap bitmap = new CheckInBitmap();
+        // Ngày 60 - 130: chuỗi 71 ngày vắt qua word 0, 1, 2
+        for (int day = 60; day <= 130; day++) {
+            bitmap.set(day);
+        }
+        bitmap.set(0);
+        bitmap.set(1);
+
+        assertThat(bitmap.longestStreak()).isEqualTo(71);
+        assertThat(bitmap.currentStreak(130)).isEqualTo(71);
+        // Hôm nay chưa check-in: chuỗi kết thúc hôm qua vẫn được tính
+        assertThat(bitmap.currentStreak(131)).isEqualTo(71);
+        assertThat(bitmap.currentStreak(132)).isZero();
+        assertThat(bitmap.currentStreak(1)).isEqualTo(2);
+        assertThat(bitmap.count()).isEqualTo(73);
+        assertThat(bitmap.count(64, 127)).isEqualTo(64);
+        assertThat(bitmap.count(1, 60)).isEqualTo(2);
+    }
+
+    @Test
+    void setAndClearReportChangesAndRejectOutOfRangeDays() {
+        CheckInBitmap bitmap = new CheckInBitmap();
+        assertThat(bitmap.set(500)).isTrue();
+        assertThat(bitmap.set(500)).isFalse();
+        assertThat(bitmap.get(500)).isTrue();
+        assertThat(bitmap.clear(500)).isTrue();
+        assertThat(bitmap.clear(500)).isFalse();
+        assertThat(bitmap.clear(10_000)).isFalse();
+        assertThat(bitmap.toBytes()).isEmpty();
+
+        assertThatThrownBy(() -> bitmap.set(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bitmap.set(CheckInBitmap.MAX_DAYS)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(bitmap.set(CheckInBitmap.MAX_DAYS - 1)).isTrue();
+        assertThat(bitmap.toBytes()).hasSize(CheckInBitmap.MAX_BYTES);
+    }
+
+    @Test
+    void matchesADayByDayScanOnRandomHistories() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int days = 1 + random.nextInt(3 * 365);
+            // Mật độ khác nhau để có cả chuỗi dài (nhiều word toàn bit 1) lẫn rời rạc
+            double density = random.nextDouble();
+            boolean[] checked = new boolean[days];
+            CheckInBitmap bitmap = new CheckInBitmap();
+            for (int day = 0; day < days; day++) {
+                if (random.nextDouble() < density) {
+                    checked[day] = true;
+                    bitmap.set(day);
+                }
+            }
+            CheckInBitmap restored = CheckInBitmap.fromBytes(bitmap.toBytes());
+            int today = days - 1;
+            int from = random.nextInt(days);
+            int to = from + random.nextInt(days - from);
+
+            for (CheckInBitmap candidate : List.of(bitmap, restored)) {
+                assertThat(candidate.longestStreak()).isEqualTo(longestStreak(checked));
+                assertThat(candidate.currentStreak(today)).isEqualTo(currentStreak(checked, today));
+                assertThat(candidate.count()).isEqualTo(count(checked, 0, today));
+                assertThat(candidate.count(from, to)).isEqualTo(count(checked, from, to));
+                List<Integer> listed = new ArrayList<>();
+                candidate.forEach(from, to, listed::add);
+                assertThat(listed).hasSize(count(checked, from, to)).allMatch(day -> checked[day]);
+            }
+        }
+    }
+
+    private static int longestStreak(boolean[] checked) {
+        int best = 0;
+        int run = 0;
+        for (boolean day : checked) {
+            run = day ? run + 1 : 0;
+            best = Math.max(best, run);
+        }
+        return best;
+    }
+
+    private static int currentStreak(boolean[] checked, int today) {
+        int day = checked[today] ? today : today - 1;
+        int run = 0;
+        while (day >= 0 && checked[day]) {
+            run++;
+            day--;
+        }
+        return run;
+    }
+
+    private static int count(boolean[] checked, int from, int to) {
+        int count = 0;
+        for (int day = from; day <= to; day++) {
+            count += checked[day] ? 1 : 0;
+        }
+        return count;
+    }
+}
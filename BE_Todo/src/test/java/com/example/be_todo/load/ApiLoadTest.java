@@ -0,0 +1,454 @@
+package com.example.be_todo.load;
+
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchOperationType;
+import com.example.be_todo.dto.TaskBatchResultDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Role;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.RoleRepository;
+import com.example.be_todo.repository.TaskCategoryRepository;
+import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test toàn bộ stack (filter JWT, controller, service, JPA) trên H2 in-memory qua HTTP thật.
+ * Không chạy trong mvn test thường, bật bằng:
+ * <pre>
+ * mvn test -Dtest=ApiLoadTest -Dload.test=true [-Dload.users=50 -Dload.tasksPerUser=500 -Dload.concurrency=32
+ *          -Dload.durationSeconds=60 -Dload.warmupSeconds=10 -Dload.report=target/load-test/report.json]
+ * </pre>
+ * Mỗi worker chạy vòng lặp đóng (gửi request kế tiếp ngay khi nhận response) theo tỉ lệ trong {@link Endpoint}.
+ * Report JSON: req/s, p50 / p99 / p999 / max (ms) cho từng endpoint.
+ * So sánh virtual thread với platform thread: chạy 2 lần cùng tham số trên JDK 21, lần 2 thêm -Pvirtual-threads
+ * (report ghi lại mode thực tế trong config.threads), xem benchmarks/README.md.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "logging.level.root=WARN"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "load.test", matches = "true")
+class ApiLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+
+    private static final int USERS = Integer.getInteger("load.users", 20);
+    private static final int CATEGORIES_PER_USER = Integer.getInteger("load.categoriesPerUser", 3);
+    private static final int TASKS_PER_USER = Integer.getInteger("load.tasksPerUser", 200);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 5);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+    private static final String REPORT = System.getProperty("load.report", "target/load-test/report.json");
+
+    // Tỉ lệ request gần với cách FE dùng: đọc danh sách chiếm phần lớn
+    enum Endpoint {
+        LOGIN("POST", "/api/auth/login", 3),
+        TASK_LIST("GET", "/api/tasks", 25),
+        TASK_LIST_BY_STATUS("GET", "/api/tasks/status", 5),
+        TASK_PAGE("GET", "/api/tasks/page", 10),
+        MY_TASK_LIST("GET", "/api/my-tasks", 15),
+        ADMIN_TASK_LIST("GET", "/api/admin/tasks/user/{userId}", 5),
+        TASK_CREATE("POST", "/api/tasks", 15),
+        TASK_STATUS_TOGGLE("PATCH", "/api/tasks/{taskId}/status", 15),
+        TASK_DELETE("DELETE", "/api/tasks/{taskId}", 7);
+
+        final String method;
+        final String path;
+        final int weight;
+
+        Endpoint(String method, String path, int weight) {
+            this.method = method;
+            this.path = path;
+            this.weight = weight;
+        }
+    }
+
+    // Trạng thái của 1 user ảo: token, task seed (để đổi status) và task tạo trong lúc chạy (để xoá)
+    private record VirtualUser(User user, String token, List<Long> seededTaskIds, ConcurrentLinkedDeque<Long> createdTaskIds) {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void mixedWorkload() throws Exception {
+        // Bật cờ mà JDK < 21 bỏ qua thì lần đo đó thực chất là platform thread: dừng luôn thay vì ghi report sai
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            assertThat(Threading.VIRTUAL.isActive(environment)).as("virtual threads need JDK 21+").isTrue();
+        }
+        Instant seedStart = Instant.now();
+        List<VirtualUser> users = seed();
+        String adminToken = login(seedAdmin().getUsername());
+        Duration seedTime = Duration.between(seedStart, Instant.now());
+
+        Endpoint[] wheel = weightedWheel();
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(WARMUP_SECONDS).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(DURATION_SECONDS).toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<Recorder>> futures = new ArrayList<>();
+        for (int w = 0; w < CONCURRENCY; w++) {
+            int worker = w;
+            futures.add(workers.submit(() -> {
+                Recorder recorder = new Recorder();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    // Worker i ưu tiên user i, i + CONCURRENCY... để ít tranh chấp cùng 1 task
+                    VirtualUser user = users.get((worker + CONCURRENCY * random.nextInt(Math.max(1, USERS / CONCURRENCY))) % users.size());
+                    Endpoint endpoint = wheel[random.nextInt(wheel.length)];
+                    // Chỉ xoá task tạo trong lúc chạy để số task seed giữ nguyên; chưa có thì tạo trước
+                    Long deleteId = endpoint == Endpoint.TASK_DELETE ? user.createdTaskIds().pollFirst() : null;
+                    if (endpoint == Endpoint.TASK_DELETE && deleteId == null) {
+                        endpoint = Endpoint.TASK_CREATE;
+                    }
+                    long start = System.nanoTime();
+                    boolean ok = call(endpoint, user, adminToken, deleteId, random);
+                    long finished = System.nanoTime();
+                    if (start >= warmupEnd) {
+                        recorder.record(endpoint, finished - start, ok);
+                    }
+                }
+                return recorder;
+            }));
+        }
+        Recorder total = new Recorder();
+        for (Future<Recorder> future : futures) {
+            total.merge(future.get());
+        }
+        workers.shutdown();
+
+        Map<String, Object> report = report(total, seedTime);
+        File file = new File(REPORT);
+        file.getParentFile().mkdirs();
+        objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        print(report);
+
+        long requests = total.requests();
+        assertThat(requests).isPositive();
+        assertThat((double) total.errors() / requests).isLessThanOrEqualTo(MAX_ERROR_RATE);
+    }
+
+    // ----- Seed: đi qua repository / service để dữ liệu giống hệt dữ liệu thật (sequence, category, FK) -----
+
+    private List<VirtualUser> seed() throws Exception {
+        Role userRole = roleRepository.findByName("USER")
+                .orElseGet(() -> roleRepository.save(Role.builder().name("USER").build()));
+        String encoded = passwordEncoder.encode(PASSWORD);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<VirtualUser> users = new ArrayList<>(USERS);
+        for (int u = 0; u < USERS; u++) {
+            User user = userRepository.save(User.builder()
+                    .username("load-user-" + u)
+                    .name("Load User " + u)
+                    .email("load-user-" + u + "@example.com")
+                    .password(encoded)
+                    .roles(new HashSet<>(Set.of(userRole)))
+                    .build());
+
+            List<TaskCategory> categories = new ArrayList<>();
+            for (int c = 0; c < CATEGORIES_PER_USER; c++) {
+                TaskCategory category = new TaskCategory();
+                category.setName("Category " + c);
+                category.setColor("#1677ff");
+                category.setUser(user);
+                categories.add(category);
+            }
+            categories = taskCategoryRepository.saveAll(categories);
+
+            List<TaskBatchOperationDTO> operations = new ArrayList<>(TASKS_PER_USER);
+            for (int t = 0; t < TASKS_PER_USER; t++) {
+                Task task = Task.builder()
+                        .title("Seed task " + t)
+                        .priority(Priority.values()[t % Priority.values().length])
+                        .dueDate(t % 4 == 0 ? null : now.plusDays(t % 30))
+                        .category(categories.isEmpty() ? null : categories.get(t % categories.size()))
+                        .build();
+                operations.add(new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, task));
+            }
+            List<Long> taskIds = new ArrayList<>(TASKS_PER_USER);
+            for (int from = 0; from < operations.size(); from += 1000) {
+                taskService.executeBatch(operations.subList(from, Math.min(from + 1000, operations.size())), user.getId(), false)
+                        .stream()
+                        .map(TaskBatchResultDTO::taskId)
+                        .forEach(taskIds::add);
+            }
+            users.add(new VirtualUser(user, login(user.getUsername()), taskIds, new ConcurrentLinkedDeque<>()));
+        }
+        return users;
+    }
+
+    private User seedAdmin() {
+        Role adminRole = roleRepository.findByName("ADMIN")
+                .orElseGet(() -> roleRepository.save(Role.builder().name("ADMIN").build()));
+        return userRepository.save(User.builder()
+                .username("load-admin")
+                .name("Load Admin")
+                .email("load-admin@example.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles(new HashSet<>(Set.of(adminRole)))
+                .build());
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loginBody(username)))
+                .build());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).path("accessToken").asText();
+    }
+
+    // ----- Workload -----
+
+    private boolean call(Endpoint endpoint, VirtualUser user, String adminToken, Long deleteId, ThreadLocalRandom random) {
+        try {
+            Long userId = user.user().getId();
+            HttpRequest.Builder request = switch (endpoint) {
+                case LOGIN -> HttpRequest.newBuilder(uri(endpoint.path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(loginBody(user.user().getUsername())));
+                case TASK_LIST -> authorized(uri("/api/tasks"), user.token()).GET();
+                case TASK_LIST_BY_STATUS -> authorized(uri("/api/tasks/status?status=PENDING"), user.token()).GET();
+                case TASK_PAGE -> authorized(uri("/api/tasks/page?size=50"), user.token()).GET();
+                case MY_TASK_LIST -> authorized(uri("/api/my-tasks?currentUserId=" + userId), user.token()).GET();
+                case ADMIN_TASK_LIST -> authorized(uri("/api/admin/tasks/user/" + userId), adminToken).GET();
+                case TASK_CREATE -> authorized(uri("/api/tasks"), user.token())
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"title\":\"Load task\",\"priority\":\"MEDIUM\",\"status\":\"PENDING\"}"));
+                case TASK_STATUS_TOGGLE -> {
+                    Long taskId = user.seededTaskIds().get(random.nextInt(user.seededTaskIds().size()));
+                    String status = random.nextBoolean() ? "COMPLETED" : "PENDING";
+                    yield authorized(uri("/api/tasks/" + taskId + "/status?status=" + status), user.token())
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody());
+                }
+                case TASK_DELETE -> authorized(uri("/api/tasks/" + deleteId), user.token()).DELETE();
+            };
+
+            HttpResponse<String> response = send(request.build());
+            boolean ok = response.statusCode() / 100 == 2;
+            if (ok && endpoint == Endpoint.TASK_CREATE) {
+                JsonNode created = objectMapper.readTree(response.body());
+                user.createdTaskIds().add(created.path("id").asLong());
+            }
+            return ok;
+        } catch (IOException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest.Builder authorized(URI uri, String token) {
+        return HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String loginBody(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static Endpoint[] weightedWheel() {
+        List<Endpoint> wheel = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            for (int i = 0; i < endpoint.weight; i++) {
+                wheel.add(endpoint);
+            }
+        }
+        return wheel.toArray(Endpoint[]::new);
+    }
+
+    // ----- Ghi latency: mỗi worker 1 Recorder riêng (không lock), gộp lại khi kết thúc -----
+
+    private static final class Recorder {
+        private final Map<Endpoint, long[]> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, Integer> counts = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, Integer> errors = new EnumMap<>(Endpoint.class);
+
+        void record(Endpoint endpoint, long nanos, boolean ok) {
+            int count = counts.getOrDefault(endpoint, 0);
+            long[] samples = latencies.computeIfAbsent(endpoint, key -> new long[1024]);
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+                latencies.put(endpoint, samples);
+            }
+            samples[count] = nanos;
+            counts.put(endpoint, count + 1);
+            if (!ok) {
+                errors.merge(endpoint, 1, Integer::sum);
+            }
+        }
+
+        void merge(Recorder other) {
+            for (Endpoint endpoint : other.counts.keySet()) {
+                long[] theirs = other.latencies.get(endpoint);
+                for (int i = 0; i < other.counts.get(endpoint); i++) {
+                    record(endpoint, theirs[i], true);
+                }
+                errors.merge(endpoint, other.errors.getOrDefault(endpoint, 0), Integer::sum);
+            }
+        }
+
+        long[] sorted(Endpoint endpoint) {
+            long[] samples = Arrays.copyOf(latencies.getOrDefault(endpoint, new long[0]), counts.getOrDefault(endpoint, 0));
+            Arrays.sort(samples);
+            return samples;
+        }
+
+        long requests() {
+            return counts.values().stream().mapToLong(Integer::longValue).sum();
+        }
+
+        long errors() {
+            return errors.values().stream().mapToLong(Integer::longValue).sum();
+        }
+    }
+
+    // ----- Report -----
+
+    private Map<String, Object> report(Recorder total, Duration seedTime) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", USERS);
+        config.put("categoriesPerUser", CATEGORIES_PER_USER);
+        config.put("tasksPerUser", TASKS_PER_USER);
+        config.put("concurrency", CONCURRENCY);
+        config.put("durationSeconds", DURATION_SECONDS);
+        config.put("warmupSeconds", WARMUP_SECONDS);
+        config.put("threads", Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform");
+        config.put("javaVersion", Runtime.version().toString());
+        config.put("dbPoolSize", environment.getProperty("spring.datasource.hikari.maximum-pool-size"));
+
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            long[] samples = total.sorted(endpoint);
+            if (samples.length == 0) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint.name());
+            row.put("method", endpoint.method);
+            row.put("path", endpoint.path);
+            row.put("requests", samples.length);
+            row.put("errors", total.errors.getOrDefault(endpoint, 0));
+            row.put("requestsPerSecond", round((double) samples.length / DURATION_SECONDS));
+            row.put("meanMs", round(Arrays.stream(samples).average().orElse(0) / 1e6));
+            row.put("p50Ms", percentileMs(samples, 0.50));
+            row.put("p99Ms", percentileMs(samples, 0.99));
+            row.put("p999Ms", percentileMs(samples, 0.999));
+            row.put("maxMs", round(samples[samples.length - 1] / 1e6));
+            endpoints.add(row);
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("requests", total.requests());
+        totals.put("errors", total.errors());
+        totals.put("requestsPerSecond", round((double) total.requests() / DURATION_SECONDS));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", Instant.now().toString());
+        report.put("seedSeconds", round(seedTime.toMillis() / 1000.0));
+        report.put("config", config);
+        report.put("totals", totals);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMs(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return round(sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report) {
+        System.out.printf("%n%-20s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map<String, Object> row : (List<Map<String, Object>>) report.get("endpoints")) {
+            System.out.printf("%-20s %9s %7s %9s %9s %9s %9s %9s%n", row.get("endpoint"), row.get("requests"),
+                    row.get("errors"), row.get("requestsPerSecond"), row.get("p50Ms"), row.get("p99Ms"),
+                    row.get("p999Ms"), row.get("maxMs"));
+        }
+        System.out.println("Totals: " + report.get("totals") + " -> " + REPORT);
+    }
+}
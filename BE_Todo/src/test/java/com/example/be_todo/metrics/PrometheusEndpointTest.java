@@ -0,0 +1,54 @@
+package com.example.be_todo.metrics;
+
+import com.example.be_todo.entity.User;
+import com.example.be_todo.security.JwtService;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// /actuator/prometheus chỉ ADMIN xem được và có đủ metric của endpoint, repository, Hibernate, Hikari, JWT
+@IntegrationTest
+class PrometheusEndpointTest {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void adminScrapesRequestRepositoryHibernateAndJwtMetrics() throws Exception {
+        String userToken = "Bearer " + jwtService.generateAccessToken(users.create("metrics-user", "USER"));
+        String adminToken = "Bearer " + jwtService.generateAccessToken(users.create("metrics-admin", "ADMIN"));
+
+        mockMvc.perform(get("/api/tasks").header("Authorization", userToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", userToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+
+        String body = mockMvc.perform(get("/actuator/prometheus").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("handler=\"TaskController.getMyTasks\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("repository=\"TaskRepository\"")
+                .contains("hibernate_statements_per_request_statements_bucket{")
+                .contains("hibernate_entities_loads_total")
+                .contains("hikaricp_connections_active")
+                .contains("jwt_verify_seconds_bucket{");
+    }
+}
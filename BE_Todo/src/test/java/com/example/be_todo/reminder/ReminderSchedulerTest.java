@@ -0,0 +1,120 @@
+package com.example.be_todo.reminder;
+
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.ReminderCheckpointRepository;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.service.TaskService;
+import com.example.be_todo.support.CapturingReminderSink;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Job tự động bị tắt trong profile test (reminders.enabled=false); test tự gọi start / tick với thời gian giả lập
+@IntegrationTest
+class ReminderSchedulerTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+
+    @Autowired
+    private CapturingReminderSink sink;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ReminderCheckpointRepository checkpointRepository;
+
+    private User user;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository.deleteAll();
+        sink.clear();
+        user = users.create("reminder");
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void remindsLeadTimeBeforeDueDateAndFollowsTaskChanges() {
+        reminderScheduler.start(now);
+
+        Task due = taskService.createTask(user.getId(), task("Due", at(now + 20 * MINUTE), null), false);
+        Task started = taskService.createTask(user.getId(), task("Start", null, at(now + 30 * MINUTE)), false);
+        Task completed = taskService.createTask(user.getId(), task("Completed", at(now + 20 * MINUTE), null), false);
+        taskService.updateStatus(completed.getId(), Status.COMPLETED, user.getId(), false);
+        Task deleted = taskService.createTask(user.getId(), task("Deleted", at(now + 20 * MINUTE), null), false);
+        taskService.deleteTask(deleted.getId(), user.getId(), false);
+
+        reminderScheduler.tick(now + 4 * MINUTE);
+        assertThat(received()).isEmpty();
+
+        // dueDate - 15 phút
+        reminderScheduler.tick(now + 5 * MINUTE + 1000);
+        assertThat(received()).containsExactly(new Reminder(due.getId(), user.getId(), "Due", ReminderKind.DUE, due.getDueDate()));
+
+        reminderScheduler.tick(now + 15 * MINUTE + 1000);
+        assertThat(received()).extracting(Reminder::taskId, Reminder::kind)
+                .containsExactly(
+                        tuple(due.getId(), ReminderKind.DUE),
+                        tuple(started.getId(), ReminderKind.START));
+    }
+
+    @Test
+    void catchesUpAfterRestartFromCheckpoint() {
+        reminderScheduler.start(now);
+        reminderScheduler.tick(now);
+        reminderScheduler.checkpoint();
+
+        // Task ghi thẳng vào DB (không có event) trong lúc "server tắt", mốc nhắc rơi vào khoảng tắt
+        Task missed = taskRepository.save(task("Missed", at(now + 20 * MINUTE), null));
+
+        long restartedAt = now + 10 * MINUTE;
+        reminderScheduler.start(restartedAt);
+        reminderScheduler.tick(restartedAt);
+
+        assertThat(received()).extracting(Reminder::taskId).containsExactly(missed.getId());
+    }
+
+    private List<Reminder> received() {
+        // DB dùng chung giữa các test: chỉ xét task của user trong test này
+        return sink.received().stream().filter(reminder -> reminder.userId().equals(user.getId())).toList();
+    }
+
+    private Task task(String title, LocalDateTime dueDate, LocalDateTime startTime) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setPriority(Priority.MEDIUM);
+        task.setStatus(Status.PENDING);
+        task.setDueDate(dueDate);
+        task.setStartTime(startTime);
+        task.setUser(user);
+        return task;
+    }
+
+    private static LocalDateTime at(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.be_todo.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Mỗi phần tử được trả ra đúng 1 lần, ở lần advanceTo đầu tiên sau deadline, kể cả khi phải cascade qua nhiều tầng
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_123_456L;
+
+    @Test
+    void firesEachIdOnceAtTheFirstAdvanceAfterItsDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, START);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 0; id < 20_000; id++) {
+            // Tới ~3 ngày: rải đều qua cả 4 tầng, có cả deadline đã qua
+            long deadline = START - 5_000 + (long) (random.nextDouble() * 3 * 24 * 3600 * 1000);
+            deadlines.put(id, deadline);
+            assertThat(wheel.schedule(id, deadline)).isTrue();
+        }
+
+        // Chưa advance lần nào: mốc nhỏ nhất là START - 5s
+        long previous = START - 10_000;
+        long now = START;
+        int fired = 0;
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(120_000);
+            List<Long> expired = new ArrayList<>();
+            wheel.advanceTo(now, expired::add);
+            for (long id : expired) {
+                long deadline = deadlines.remove(id);
+                assertThat(deadline).isLessThanOrEqualTo(now);
+                // Không bị trả ra ở lần advance trước (làm tròn lên theo tick)
+                assertThat(deadline).isGreaterThan(previous - TICK);
+            }
+            fired += expired.size();
+            previous = now;
+        }
+        assertThat(fired).isEqualTo(20_000);
+        assertThat(deadlines).isEmpty();
+    }
+
+    @Test
+    void cancelAndRescheduleAreApplied() {
+        TimingWheel wheel = new TimingWheel(TICK, START);
+        wheel.schedule(1, START + 10_000);
+        wheel.schedule(2, START + 10_000);
+        wheel.schedule(3, START + 10_000);
+        assertThat(wheel.cancel(2)).isTrue();
+        assertThat(wheel.cancel(2)).isFalse();
+        // Dời id 3 sang tầng trên
+        wheel.schedule(3, START + 2 * 3600_000);
+        assertThat(wheel.size()).isEqualTo(2);
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(START + 60_000, expired::add);
+        assertThat(expired).containsExactly(1L);
+        wheel.advanceTo(START + 2 * 3600_000 - 1, expired::add);
+        assertThat(expired).containsExactly(1L);
+        // Deadline làm tròn lên theo tick: trả ra trễ tối đa 1 tick, không bao giờ sớm
+        wheel.advanceTo(START + 2 * 3600_000 + TICK, expired::add);
+        assertThat(expired).containsExactly(1L, 3L);
+        assertThat(wheel.firedUntilMillis()).isGreaterThanOrEqualTo(START + 2 * 3600_000);
+    }
+
+    @Test
+    void rejectsDeadlinesBeyondTheSpan() {
+        TimingWheel wheel = new TimingWheel(TICK, START);
+        assertThat(wheel.schedule(1, wheel.horizonMillis())).isTrue();
+        assertThat(wheel.schedule(2, wheel.horizonMillis() + TICK)).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void holdsAMillionReminders() {
+        TimingWheel wheel = new TimingWheel(TICK, START);
+        for (long id = 0; id < 1_000_000; id++) {
+            wheel.schedule(id, START + (id % 3600) * TICK);
+        }
+        assertThat(wheel.size()).isEqualTo(1_000_000);
+        for (long id = 0; id < 1_000_000; id += 2) {
+            wheel.cancel(id);
+        }
+        long[] fired = new long[1];
+        wheel.advanceTo(START + 3600 * TICK, id -> fired[0]++);
+        assertThat(fired[0]).isEqualTo(500_000);
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.be_todo.repository;
+
+import com.example.be_todo.dto.TaskPatch;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.RevokedTokenType;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.TaskCounterDimension;
+import com.example.be_todo.entity.TaskTombstoneKind;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chạy từng truy vấn của các repository, bắt SQL Hibernate sinh ra
+ * rồi EXPLAIN trên schema do Flyway tạo (H2). Truy vấn nào quét toàn bảng (tableScan) là thiếu index.
+ */
+@IntegrationTest
+class RepositoryQueryPlanTest {
+
+    // Hibernate tạo instance theo tên class, nên SQL được gom vào biến static theo tên truy vấn đang chạy
+    public static class SqlCapture implements StatementInspector {
+        static volatile String current;
+        static final Map<String, Set<String>> SQL = new ConcurrentHashMap<>();
+
+        @Override
+        public String inspect(String sql) {
+            String name = current;
+            if (name != null) {
+                SQL.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Autowired
+    private TaskSyncCounterRepository taskSyncCounterRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private HabitRepository habitRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void everyRepositoryQueryUsesAnIndex() throws Exception {
+        User user = users.create("planner");
+        TaskCategory category = new TaskCategory();
+        category.setName("Work");
+        category.setUser(user);
+        category = taskCategoryRepository.save(category);
+
+        Long userId = user.getId();
+        Long categoryId = category.getId();
+        TaskCategory target = category;
+        LocalDateTime now = LocalDateTime.now();
+
+        // TaskRepository
+        capture("findByStatus", () -> taskRepository.findByStatus(Status.PENDING));
+        capture("findByPriority", () -> taskRepository.findByPriority(Priority.HIGH));
+        capture("findByCategoryId", () -> taskRepository.findByCategoryId(categoryId));
+        capture("findDtoByUserId", () -> taskRepository.findDtoByUserId(userId, Limit.of(10)));
+        capture("findDtoByUserIdAndStatus", () -> taskRepository.findDtoByUserIdAndStatus(userId, Status.PENDING, Limit.of(10)));
+        capture("countByCategoryIdGroupByUser", () -> taskRepository.countByCategoryIdGroupByUser(categoryId));
+        capture("clearCategory", () -> inTransaction(() -> taskRepository.clearCategory(categoryId, userId, 1L, now)));
+        capture("moveToCategory", () -> inTransaction(() -> taskRepository.moveToCategory(userId, categoryId, target, 1L, now)));
+        ObjectMapper objectMapper = new ObjectMapper();
+        TaskPatch patch = TaskPatch.parse(objectMapper.readTree("{\"title\": \"x\", \"endTime\": null}"), objectMapper);
+        capture("patch", () -> inTransaction(() -> taskRepository.patch(-1L, userId, 0L, patch, null, 1L, now)));
+        capture("streamByUserId", () -> inTransaction(() -> {
+            try (var stream = taskRepository.streamByUserId(userId)) {
+                stream.count();
+            }
+        }));
+        capture("findDueDatePage", () -> taskRepository.findDueDatePage(userId, null, Limit.of(10)));
+        capture("findDueDatePageAfter", () -> taskRepository.findDueDatePageAfter(userId, Status.PENDING, now, 1L, Limit.of(10)));
+        capture("findNoDueDatePageAfter", () -> taskRepository.findNoDueDatePageAfter(userId, null, 1L, Limit.of(10)));
+        capture("findUpdatedAtPage", () -> taskRepository.findUpdatedAtPage(userId, null, Limit.of(10)));
+        capture("findUpdatedAtPageBefore", () -> taskRepository.findUpdatedAtPageBefore(userId, null, now, 1L, Limit.of(10)));
+        capture("findNoUpdatedAtPageAfter", () -> taskRepository.findNoUpdatedAtPageAfter(userId, null, 1L, Limit.of(10)));
+        capture("task.findById", () -> taskRepository.findById(1L));
+        capture("countOverdue", () -> taskRepository.countOverdue(userId, now, Status.COMPLETED));
+        capture("countByStatus", () -> taskRepository.countByStatus(userId));
+        capture("countByPriority", () -> taskRepository.countByPriority(userId));
+        capture("countByCategory", () -> taskRepository.countByCategory(userId));
+        capture("findDueReminderWindow", () -> taskRepository.findDueReminderWindow(now, 1L, now.plusHours(1), Status.COMPLETED, Limit.of(10)));
+        capture("findStartReminderWindow", () -> taskRepository.findStartReminderWindow(now, 1L, now.plusHours(1), Status.COMPLETED, Limit.of(10)));
+        capture("findScheduleByIdIn", () -> taskRepository.findScheduleByIdIn(List.of(1L, 2L)));
+        capture("findDtoByIdInAndUserId", () -> taskRepository.findDtoByIdInAndUserId(List.of(1L, 2L), userId));
+        capture("findIntervalsByUserId", () -> taskRepository.findIntervalsByUserId(userId));
+        capture("findTextByIdIn", () -> taskRepository.findTextByIdIn(List.of(1L, 2L)));
+        capture("findSyncPage", () -> taskRepository.findSyncPage(userId, 0L, 1L, 10L, Limit.of(10)));
+        // findOwnerIds / counter.findUserIds: job reconcile chủ động duyệt hết, không kiểm tra ở đây
+        // streamText / streamStamps: dựng / đối chiếu index tìm kiếm lúc khởi động, cũng duyệt hết
+
+        // TaskCounterRepository
+        capture("counter.increment", () -> inTransaction(() -> taskCounterRepository.increment(
+                userId, TaskCounterDimension.STATUS.name(), Status.PENDING.name(), 1)));
+        capture("counter.findByUserId", () -> taskCounterRepository.findByUserId(userId));
+        capture("counter.lockByUserId", () -> inTransaction(() -> taskCounterRepository.lockByUserId(userId)));
+
+        // TaskSyncCounterRepository / TaskTombstoneRepository
+        capture("syncCounter.increment", () -> inTransaction(() -> taskSyncCounterRepository.increment(userId)));
+        capture("syncCounter.findLastSeq", () -> taskSyncCounterRepository.findLastSeq(userId));
+        capture("tombstone.findSyncPage", () -> taskTombstoneRepository.findSyncPage(userId, 0L, 1L, 1L, 10L, Limit.of(10)));
+        capture("tombstone.deleteOne", () -> inTransaction(() -> taskTombstoneRepository.deleteOne(
+                userId, TaskTombstoneKind.TASK, 1L)));
+        capture("tombstone.deleteOlderThan", () -> taskTombstoneRepository.deleteOlderThan(now.minusDays(30)));
+
+        // TaskCategoryRepository
+        capture("category.findByUserId", () -> taskCategoryRepository.findByUserId(userId));
+        capture("category.findByIdAndUserId", () -> taskCategoryRepository.findByIdAndUserId(categoryId, userId));
+        capture("category.existsByIdAndUserId", () -> taskCategoryRepository.existsByIdAndUserId(categoryId, userId));
+        capture("category.countByUserIdAndIdIn", () -> taskCategoryRepository.countByUserIdAndIdIn(userId, List.of(categoryId, 2L)));
+        capture("category.deleteByIdAndUserId", () -> inTransaction(() -> taskCategoryRepository.deleteByIdAndUserId(-1L, userId)));
+
+        // HabitRepository
+        capture("habit.findByUserIdOrderById", () -> habitRepository.findByUserIdOrderById(userId));
+        capture("habit.findByIdAndUserId", () -> habitRepository.findByIdAndUserId(1L, userId));
+        capture("habit.lockByIdAndUserId", () -> inTransaction(() -> habitRepository.lockByIdAndUserId(1L, userId)));
+
+        // UserRepository
+        capture("user.findByUsername", () -> userRepository.findByUsername("planner"));
+        capture("user.existsByUsername", () -> userRepository.existsByUsername("planner"));
+        capture("user.findWithRolesByUsername", () -> userRepository.findWithRolesByUsername("planner"));
+
+        // RevokedTokenRepository
+        capture("revoked.insert", () -> revokedTokenRepository.insert(
+                "plan-test", RevokedTokenType.TOKEN, "planner", now.plusDays(1), now));
+        capture("revoked.findActiveIds", () -> revokedTokenRepository.findActiveIds(now));
+        capture("revoked.deleteExpired", () -> revokedTokenRepository.deleteExpired(now));
+
+        List<String> fullScans = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            SqlCapture.SQL.forEach((name, statements) -> {
+                for (String sql : statements) {
+                    String plan = explain(connection, sql);
+                    if (plan.contains(".tableScan")) {
+                        fullScans.add(name + ":\n" + plan);
+                    }
+                }
+            });
+        }
+
+        assertThat(SqlCapture.SQL).hasSize(50);
+        assertThat(fullScans).as("Truy vấn quét toàn bảng").isEmpty();
+    }
+
+    private void capture(String name, Runnable query) {
+        SqlCapture.current = name;
+        try {
+            query.run();
+        } finally {
+            SqlCapture.current = null;
+        }
+    }
+
+    private void inTransaction(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> action.run());
+    }
+
+    // Plan của H2 không phụ thuộc giá trị tham số, gán null cho mọi "?" là đủ để EXPLAIN
+    private static String explain(Connection connection, String sql) {
+        try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot explain: " + sql, ex);
+        }
+    }
+}
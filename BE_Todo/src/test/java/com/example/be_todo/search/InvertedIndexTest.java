@@ -0,0 +1,128 @@
+package com.example.be_todo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private static final long USER = 1;
+    private static final long OTHER_USER = 2;
+
+    @Test
+    void matchesEveryTokenIgnoringCaseAndAccentsWithPrefixOnTokens() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(USER, 10, "Đi chợ mua rau", "Rau muống, cà chua");
+        index.put(USER, 11, "Họp nhóm", "Chuẩn bị slide cho buổi họp");
+        index.put(USER, 12, "Mua quà sinh nhật", null);
+        index.put(OTHER_USER, 13, "Đi chợ", null);
+
+        assertThat(index.search(USER, "di cho", 0, 10).taskIds()).containsExactly(10L);
+        assertThat(index.search(USER, "MUA", 0, 10).taskIds()).containsExactlyInAnyOrder(10L, 12L);
+        // "chu" là tiền tố của "chua" / "chuan": cả 2 task đều khớp
+        assertThat(index.search(USER, "chu", 0, 10).taskIds()).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(index.search(USER, "mua slide", 0, 10).total()).isZero();
+        assertThat(index.search(USER, "  ", 0, 10).total()).isZero();
+        assertThat(index.search(3, "cho", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void onlyTheLastTokenMatchesAsPrefix() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(USER, 1, "Hợp đồng thuê nhà", null);
+        index.put(USER, 2, "Họp nhóm", null);
+
+        // Token cuối đang gõ dở: "ho" khớp tiền tố của "hop"
+        assertThat(index.search(USER, "thue ho", 0, 10).taskIds()).containsExactly(1L);
+        // Token đứng trước phải khớp nguyên từ: "th" không còn khớp "thue"
+        assertThat(index.search(USER, "th hop", 0, 10).total()).isZero();
+        // Token lặp lại: lần xuất hiện cuối vẫn được tra theo tiền tố
+        assertThat(index.search(USER, "nh hop nh", 0, 10).taskIds()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void shortPrefixKeepsTheMostFrequentExpansions() {
+        InvertedIndex index = new InvertedIndex();
+        // Nhiều term hiếm đứng trước theo thứ tự từ điển, term phổ biến đứng sau cùng
+        for (int i = 0; i < UserIndex.MAX_PREFIX_EXPANSIONS; i++) {
+            index.put(USER, i, "zza" + i, null);
+        }
+        for (long id = 1000; id < 1005; id++) {
+            index.put(USER, id, "zzz", null);
+        }
+
+        InvertedIndex.Page page = index.search(USER, "zz", 0, 200);
+        assertThat(page.taskIds()).contains(1000L, 1001L, 1002L, 1003L, 1004L);
+        assertThat(page.total()).isEqualTo(UserIndex.MAX_PREFIX_EXPANSIONS - 1 + 5);
+    }
+
+    @Test
+    void ranksTitleMatchesFirstAndPages() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(USER, 1, "Báo cáo tháng", "gửi sếp");
+        index.put(USER, 2, "Gửi email", "đính kèm báo cáo");
+        index.put(USER, 3, "Báo cáo quý", null);
+        index.put(USER, 4, "Baocao", null);
+
+        // Task 1, 3 có "bao cao" trong tiêu đề (task 3 ngắn hơn), task 2 chỉ có trong mô tả
+        assertThat(index.search(USER, "bao cao", 0, 10).taskIds()).containsExactly(3L, 1L, 2L);
+        // "bao" khớp nguyên từ ở task 1 - 3, khớp tiền tố của "baocao" ở task 4
+        InvertedIndex.Page second = index.search(USER, "bao", 2, 2);
+        assertThat(second.total()).isEqualTo(4);
+        assertThat(second.taskIds()).hasSize(2);
+    }
+
+    @Test
+    void updatesRemovalsAndOutOfOrderIdsKeepPostingsConsistent() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 100; id > 0; id--) {
+            index.put(USER, id, "task " + id, id % 2 == 0 ? "even" : "odd");
+        }
+        index.put(USER, 50, "renamed", null);
+        index.remove(USER, 51);
+        index.remove(USER, 1000);
+
+        assertThat(index.search(USER, "task", 0, 200).total()).isEqualTo(98);
+        assertThat(index.search(USER, "even", 0, 200).taskIds()).hasSize(49).doesNotContain(50L);
+        assertThat(index.search(USER, "renamed", 0, 10).taskIds()).containsExactly(50L);
+        assertThat(index.contains(USER, 51)).isFalse();
+
+        index.retain(USER, Set.of(2L, 4L));
+        assertThat(index.search(USER, "even", 0, 10).taskIds()).containsExactlyInAnyOrder(2L, 4L);
+        index.retainUsers(Set.of());
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void snapshotRoundTripKeepsResultsAndAcceptsUpdates() throws IOException {
+        InvertedIndex index = new InvertedIndex();
+        List<String> words = List.of("alpha", "beta", "gamma", "delta");
+        for (long id = 1; id <= 1000; id++) {
+            index.put(id % 3, id, words.get((int) (id % 4)) + " " + id, "mô tả " + words.get((int) (id % 3)));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        InvertedIndex restored = InvertedIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.size()).isEqualTo(index.size());
+        for (long user = 0; user < 3; user++) {
+            for (String query : List.of("alpha", "gam", "mo ta beta", "12")) {
+                assertThat(restored.search(user, query, 0, 1000)).isEqualTo(index.search(user, query, 0, 1000));
+            }
+        }
+        // Forward index dựng lại từ postings: sửa / xoá sau khi nạp snapshot vẫn đúng
+        restored.put(1, 1, "renamed", null);
+        restored.remove(1, 4);
+        assertThat(restored.search(1, "alpha", 0, 1000).taskIds()).doesNotContain(4L);
+        assertThat(restored.search(1, "renamed", 0, 10).taskIds()).containsExactly(1L);
+    }
+}
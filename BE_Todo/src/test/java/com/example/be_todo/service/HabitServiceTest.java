@@ -0,0 +1,111 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.HabitDTO;
+import com.example.be_todo.dto.HabitRequestDTO;
+import com.example.be_todo.dto.HabitStatsDTO;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.HabitRepository;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+// Check-in lưu thành bitmap trên dòng habits; streak và tỉ lệ hoàn thành tính từ bitmap
+@IntegrationTest
+class HabitServiceTest {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private HabitService habitService;
+
+    @Autowired
+    private HabitRepository habitRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.create("habit-owner");
+    }
+
+    @Test
+    void checkInsAcrossYearsDriveStreaksAndCompletionRate() {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusYears(3);
+        HabitDTO habit = habitService.createHabit(owner.getId(), request("Chạy bộ", 365, start));
+
+        // Năm đầu check-in mọi ngày, sau đó nghỉ; 10 ngày gần nhất check-in liên tiếp (tính cả hôm nay)
+        for (LocalDate day = start; day.isBefore(start.plusYears(1)); day = day.plusDays(1)) {
+            habitService.checkIn(habit.id(), owner.getId(), day);
+        }
+        for (int i = 0; i < 10; i++) {
+            habitService.checkIn(habit.id(), owner.getId(), today.minusDays(i));
+        }
+        // Gọi lại cho cùng ngày không đổi gì
+        HabitDTO updated = habitService.checkIn(habit.id(), owner.getId(), today);
+
+        int firstYear = (int) ChronoUnit.DAYS.between(start, start.plusYears(1));
+        assertThat(updated.completedDays()).isEqualTo(firstYear + 10);
+        assertThat(updated.longestStreak()).isEqualTo(firstYear);
+        assertThat(updated.currentStreak()).isEqualTo(10);
+        assertThat(updated.checkedToday()).isTrue();
+
+        HabitStatsDTO lastMonth = habitService.getStats(habit.id(), owner.getId(), today.minusDays(29), null);
+        assertThat(lastMonth.days()).isEqualTo(30);
+        assertThat(lastMonth.checkedDays()).isEqualTo(10);
+        assertThat(lastMonth.completionRate()).isCloseTo(10 / 30.0, within(1e-9));
+
+        // Bỏ check-in hôm nay: chuỗi tính tới hôm qua vẫn còn
+        HabitDTO undone = habitService.undoCheckIn(habit.id(), owner.getId(), today);
+        assertThat(undone.currentStreak()).isEqualTo(9);
+        assertThat(undone.checkedToday()).isFalse();
+
+        HabitDTO window = habitService.getHabit(habit.id(), owner.getId(), today.minusDays(4), today);
+        assertThat(window.checkIns()).containsExactly(
+                today.minusDays(4), today.minusDays(3), today.minusDays(2), today.minusDays(1));
+        // 1 năm check-in chiếm khoảng 46 byte
+        assertThat(habitRepository.findById(habit.id()).orElseThrow().getCheckIns().length).isLessThan(150);
+    }
+
+    @Test
+    void checkInsOutsideTheHabitRangeOrOfOtherUsersAreRejected() {
+        LocalDate today = LocalDate.now();
+        HabitDTO habit = habitService.createHabit(owner.getId(), request("Đọc sách", 30, today.minusDays(5)));
+
+        assertThatThrownBy(() -> habitService.checkIn(habit.id(), owner.getId(), today.plusDays(1)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> habitService.checkIn(habit.id(), owner.getId(), today.minusDays(6)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+
+        User other = users.create("habit-other");
+        assertThatThrownBy(() -> habitService.checkIn(habit.id(), other.getId(), today))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThat(habitService.getHabits(other.getId(), null, null)).isEmpty();
+        assertThat(habitService.getHabits(owner.getId(), null, null))
+                .singleElement()
+                .satisfies(dto -> assertThat(dto.completedDays()).isZero());
+    }
+
+    private static HabitRequestDTO request(String title, int targetDays, LocalDate startDate) {
+        HabitRequestDTO request = new HabitRequestDTO();
+        request.setTitle(title);
+        request.setTargetDays(targetDays);
+        request.setStartDate(startDate);
+        return request;
+    }
+}
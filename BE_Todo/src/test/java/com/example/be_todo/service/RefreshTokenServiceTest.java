@@ -0,0 +1,146 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.AuthResponse;
+import com.example.be_todo.entity.RevokedTokenType;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.RevokedTokenRepository;
+import com.example.be_todo.repository.UserRepository;
+import com.example.be_todo.security.JwtService;
+import com.example.be_todo.service.Impl.RefreshTokenServiceImpl;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Refresh token dùng 1 lần, dùng lại sau reuse-grace thì cả family bị thu hồi; thu hồi ở instance khác có hiệu lực sau rebuild
+@IntegrationTest
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestUsers users;
+
+    private String username;
+
+    @BeforeEach
+    void setUp() {
+        username = users.create("refresh").getUsername();
+    }
+
+    @Test
+    void rotationIssuesNewTokenAndReuseRevokesFamily() {
+        // Không có reuse-grace: lần gửi lại nào cũng là dùng lại
+        RefreshTokenServiceImpl service = new RefreshTokenServiceImpl(jwtService, userService, revokedTokenRepository,
+                Duration.ZERO);
+        String first = service.issue(username);
+
+        AuthResponse rotated = service.rotate(first);
+        assertThat(rotated.getAccessToken()).isNotBlank();
+        assertThat(rotated.getRefreshToken()).isNotEqualTo(first);
+        assertThat(jwtService.parseRefreshToken(rotated.getRefreshToken()).familyId())
+                .isEqualTo(jwtService.parseRefreshToken(first).familyId());
+
+        // Token cũ bị gửi lại: từ chối và thu hồi luôn token mới cùng family
+        assertUnauthorized(service, first);
+        assertUnauthorized(service, rotated.getRefreshToken());
+
+        // Family khác (login lần khác) không bị ảnh hưởng
+        assertThat(service.rotate(service.issue(username)).getRefreshToken()).isNotBlank();
+    }
+
+    @Test
+    void concurrentRefreshFromTabsSharesOneSuccessor() throws Exception {
+        String token = refreshTokenService.issue(username);
+        int tabs = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(tabs);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AuthResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < tabs; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return refreshTokenService.rotate(token);
+                }));
+            }
+            start.countDown();
+            String successor = futures.get(0).get(10, TimeUnit.SECONDS).getRefreshToken();
+            for (Future<AuthResponse> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS).getRefreshToken()).isEqualTo(successor);
+            }
+            // Tab mở sau, vẫn trong grace, cũng nhận cùng token; family không bị thu hồi
+            assertThat(refreshTokenService.rotate(token).getRefreshToken()).isEqualTo(successor);
+            assertThat(refreshTokenService.rotate(successor).getRefreshToken()).isNotEqualTo(successor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void logoutRevokesFamily() {
+        AuthResponse rotated = refreshTokenService.rotate(refreshTokenService.issue(username));
+
+        refreshTokenService.revoke(rotated.getRefreshToken());
+
+        assertUnauthorized(rotated.getRefreshToken());
+    }
+
+    @Test
+    void revocationFromAnotherInstanceIsPickedUpOnRebuild() {
+        String token = refreshTokenService.issue(username);
+        String familyId = jwtService.parseRefreshToken(token).familyId();
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.insert(familyId, RevokedTokenType.FAMILY, username, now.plusDays(7), now);
+
+        refreshTokenService.rebuildFilter();
+
+        assertUnauthorized(token);
+    }
+
+    @Test
+    void tokensWithoutIdAndGarbageAreRejected() {
+        assertUnauthorized("not-a-jwt");
+        // Access token không có jti / fam
+        User user = userRepository.findByUsername(username).orElseThrow();
+        assertUnauthorized(jwtService.generateAccessToken(user));
+    }
+
+    private void assertUnauthorized(String refreshToken) {
+        assertUnauthorized(refreshTokenService, refreshToken);
+    }
+
+    private static void assertUnauthorized(RefreshTokenService service, String refreshToken) {
+        assertThatThrownBy(() -> service.rotate(refreshToken))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskConflictDTO;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskPatch;
+import com.example.be_todo.dto.TaskUpdateRequestDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Lịch nạp 1 lần vào interval tree rồi được sửa tại chỗ theo từng thao tác ghi task
+@IntegrationTest
+class TaskCalendarServiceTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private TaskCalendarService taskCalendarService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.create("calendar-owner");
+    }
+
+    @Test
+    void windowListsIntersectingTasksAndConflictsSkipCompletedOnes() {
+        Task standup = create("Standup", NINE, NINE.plusHours(1));
+        Task review = create("Review", NINE.plusMinutes(30), NINE.plusHours(2));
+        Task call = create("Gọi điện", NINE.plusMinutes(90), null);
+        create("Ăn trưa", NINE.plusHours(3), NINE.plusHours(4));
+        create("Không đặt giờ", null, null);
+
+        assertThat(taskCalendarService.getCalendar(owner.getId(), NINE, NINE.plusMinutes(100)))
+                .extracting(TaskDTO::id)
+                .containsExactly(standup.getId(), review.getId(), call.getId());
+
+        personalTaskService.updateStatus(review.getId(), Status.COMPLETED, owner.getId());
+        // Task đã xong vẫn hiện trên lịch nhưng không còn tính là trùng giờ
+        assertThat(taskCalendarService.getCalendar(owner.getId(), NINE.plusHours(1), NINE.plusMinutes(100)))
+                .extracting(TaskDTO::id)
+                .containsExactly(review.getId(), call.getId());
+        TaskConflictDTO conflicts = taskCalendarService.findConflicts(owner.getId(), NINE.plusMinutes(45), NINE.plusMinutes(95), null);
+        assertThat(conflicts.tasks()).extracting(TaskDTO::id).containsExactly(standup.getId(), call.getId());
+        assertThat(conflicts.truncated()).isFalse();
+        assertThat(taskCalendarService.findConflictIds(TaskDTO.from(standup))).isEmpty();
+
+        assertThat(taskCalendarService.getCalendar(users.create("calendar-other").getId(), NINE, NINE.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void writesAfterTheCalendarIsLoadedAreAppliedInPlace() throws Exception {
+        Task first = create("Họp", NINE, NINE.plusHours(1));
+        Task second = create("Viết báo cáo", NINE.plusHours(2), NINE.plusHours(3));
+        // Nạp lịch trước, các thay đổi sau phải đi qua listener
+        assertThat(taskCalendarService.findConflictIds(TaskDTO.from(second))).isEmpty();
+
+        // endTime: nhánh 1 câu UPDATE; startTime: nhánh nạp task
+        TaskDTO longer = taskService.patchTask(first.getId(), patch("{\"endTime\": \"2030-03-04T11:30:00\"}"), 0L,
+                owner.getId(), false);
+        assertThat(taskCalendarService.findConflictIds(longer)).containsExactly(second.getId());
+        TaskDTO moved = taskService.patchTask(second.getId(), patch("{\"startTime\": \"2030-03-04T11:30:00\"}"), 0L,
+                owner.getId(), false);
+        assertThat(taskCalendarService.findConflictIds(moved)).isEmpty();
+
+        Task third = create("Phỏng vấn", NINE.plusMinutes(15), NINE.plusMinutes(45));
+        assertThat(taskCalendarService.findConflictIds(TaskDTO.from(third))).containsExactly(first.getId());
+
+        // Admin gán task cho user khác: rời lịch user cũ, vào lịch user mới (đã nạp)
+        User other = users.create("calendar-assignee");
+        assertThat(taskCalendarService.getCalendar(other.getId(), NINE, NINE.plusDays(1))).isEmpty();
+        TaskUpdateRequestDTO reassign = new TaskUpdateRequestDTO();
+        reassign.setUserId(other.getId());
+        reassign.setTitle("Họp");
+        reassign.setPriority(Priority.MEDIUM);
+        reassign.setStatus(Status.PENDING);
+        taskService.updateTask(first.getId(), reassign, owner.getId(), true);
+        assertThat(taskCalendarService.findConflictIds(TaskDTO.from(third))).isEmpty();
+        assertThat(taskCalendarService.getCalendar(other.getId(), NINE, NINE.plusDays(1)))
+                .extracting(TaskDTO::id)
+                .containsExactly(first.getId());
+
+        personalTaskService.deleteTask(second.getId(), owner.getId());
+        assertThat(taskCalendarService.getCalendar(owner.getId(), NINE, NINE.plusDays(1)))
+                .extracting(TaskDTO::id)
+                .containsExactly(third.getId());
+    }
+
+    @Test
+    void rejectsEmptyOrOversizedWindows() {
+        for (int i = 0; i < 6; i++) {
+            create("Task " + i, NINE.plusHours(i), NINE.plusHours(i + 1));
+        }
+        assertThat(taskCalendarService.getCalendar(owner.getId(), NINE, NINE.plusHours(5))).hasSize(5);
+
+        assertThatThrownBy(() -> taskCalendarService.getCalendar(owner.getId(), NINE, NINE.plusDays(1)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> taskCalendarService.getCalendar(owner.getId(), NINE, NINE))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private Task create(String title, LocalDateTime startTime, LocalDateTime endTime) {
+        return personalTaskService.createTask(owner.getId(), Task.builder()
+                .title(title)
+                .priority(Priority.MEDIUM)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build());
+    }
+
+    private TaskPatch patch(String json) throws Exception {
+        return TaskPatch.parse(objectMapper.readTree(json), objectMapper);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskStatsDTO;
+import com.example.be_todo.dto.TaskSyncDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.TaskCategoryRepository;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Xoá / chuyển category bằng UPDATE hàng loạt: task vẫn phải có change_seq, version và bộ đếm đúng như khi sửa từng task
+@IntegrationTest
+class TaskCategoryServiceTest {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskSyncService taskSyncService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+
+    private User owner;
+    private User assignee;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.create("category-owner");
+        assignee = users.create("category-assignee");
+    }
+
+    @Test
+    void deletingCategoryClearsItFromTasksOfEveryOwner() {
+        TaskCategory work = createCategory(owner, "Work");
+        Task own = personalTaskService.createTask(owner.getId(), task("Của owner", work));
+        // Admin gán task cho user khác nhưng dùng category của owner
+        Task assigned = taskService.createTask(assignee.getId(), task("Được gán", work), true);
+        String ownerCursor = taskSyncService.getChanges(owner.getId(), null, null).cursor();
+        String assigneeCursor = taskSyncService.getChanges(assignee.getId(), null, null).cursor();
+
+        personalTaskService.deleteTaskCategory(owner.getId(), work.getId());
+
+        assertThat(taskCategoryRepository.findById(work.getId())).isEmpty();
+        for (Task before : new Task[]{own, assigned}) {
+            Task after = taskRepository.findById(before.getId()).orElseThrow();
+            assertThat(after.getCategory()).isNull();
+            assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+            assertThat(after.getChangeSeq()).isGreaterThan(before.getChangeSeq());
+        }
+
+        TaskSyncDTO ownerDelta = taskSyncService.getChanges(owner.getId(), ownerCursor, null);
+        assertThat(ownerDelta.tasks()).extracting(TaskDTO::id).containsExactly(own.getId());
+        assertThat(ownerDelta.tasks().get(0).category()).isNull();
+        assertThat(ownerDelta.deletedCategoryIds()).containsExactly(work.getId());
+        // change_seq của task được gán đi theo dãy số của assignee, không phải của người xoá category
+        TaskSyncDTO assigneeDelta = taskSyncService.getChanges(assignee.getId(), assigneeCursor, null);
+        assertThat(assigneeDelta.tasks()).extracting(TaskDTO::id).containsExactly(assigned.getId());
+        assertThat(assigneeDelta.deletedCategoryIds()).isEmpty();
+
+        for (User user : new User[]{owner, assignee}) {
+            TaskStatsDTO stats = taskStatsService.getStats(user.getId());
+            assertThat(stats.uncategorized()).isEqualTo(1);
+            assertThat(stats.byCategory()).isEmpty();
+            assertThat(taskStatsService.reconcile(user.getId())).isZero();
+        }
+    }
+
+    @Test
+    void movingTasksChangesOnlyTheCallersTasks() {
+        TaskCategory work = createCategory(owner, "Work");
+        TaskCategory home = createCategory(owner, "Home");
+        Task first = personalTaskService.createTask(owner.getId(), task("Một", work));
+        Task second = personalTaskService.createTask(owner.getId(), task("Hai", work));
+        Task assigned = taskService.createTask(assignee.getId(), task("Được gán", work), true);
+        String ownerCursor = taskSyncService.getChanges(owner.getId(), null, null).cursor();
+
+        assertThat(personalTaskService.moveTasksToCategory(owner.getId(), work.getId(), home.getId())).isEqualTo(2);
+
+        for (Task before : new Task[]{first, second}) {
+            Task after = taskRepository.findById(before.getId()).orElseThrow();
+            assertThat(after.getCategory().getId()).isEqualTo(home.getId());
+            assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+            assertThat(after.getChangeSeq()).isGreaterThan(before.getChangeSeq());
+        }
+        // Task của user khác trong category không bị chuyển theo
+        Task untouched = taskRepository.findById(assigned.getId()).orElseThrow();
+        assertThat(untouched.getCategory().getId()).isEqualTo(work.getId());
+        assertThat(untouched.getVersion()).isEqualTo(assigned.getVersion());
+
+        assertThat(taskSyncService.getChanges(owner.getId(), ownerCursor, null).tasks())
+                .extracting(TaskDTO::id).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(taskStatsService.getStats(owner.getId()).byCategory())
+                .containsExactly(new TaskStatsDTO.CategoryCount(home.getId(), "Home", null, 2));
+        assertThat(taskStatsService.getStats(assignee.getId()).byCategory())
+                .extracting(TaskStatsDTO.CategoryCount::categoryId).containsExactly(work.getId());
+        assertThat(taskStatsService.reconcile(owner.getId())).isZero();
+        assertThat(taskStatsService.reconcile(assignee.getId())).isZero();
+    }
+
+    @Test
+    void anotherUsersCategoryIsRejected() {
+        TaskCategory mine = createCategory(owner, "Của tôi");
+        TaskCategory theirs = createCategory(assignee, "Của người khác");
+        Task task = personalTaskService.createTask(assignee.getId(), task("Task", theirs));
+
+        assertThatThrownBy(() -> personalTaskService.deleteTaskCategory(owner.getId(), theirs.getId()))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> personalTaskService.moveTasksToCategory(owner.getId(), mine.getId(), theirs.getId()))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> personalTaskService.moveTasksToCategory(owner.getId(), theirs.getId(), mine.getId()))
+                .isInstanceOf(EntityNotFoundException.class);
+
+        assertThat(taskCategoryRepository.findById(theirs.getId())).isPresent();
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(stored.getCategory().getId()).isEqualTo(theirs.getId());
+        assertThat(stored.getVersion()).isEqualTo(task.getVersion());
+    }
+
+    private TaskCategory createCategory(User user, String name) {
+        TaskCategory category = new TaskCategory();
+        category.setName(name);
+        category.setUser(user);
+        return taskCategoryRepository.save(category);
+    }
+
+    private static Task task(String title, TaskCategory category) {
+        return Task.builder()
+                .title(title)
+                .priority(Priority.MEDIUM)
+                .category(category)
+                .build();
+    }
+}
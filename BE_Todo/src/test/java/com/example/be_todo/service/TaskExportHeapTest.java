@@ -0,0 +1,100 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Đo heap khi export 1 triệu dòng: chèn dữ liệu mất cả phút và System.gc() chỉ là gợi ý cho JVM nên
+ * không chạy trong mvn test thường (nội dung export đã được TaskExportServiceTest kiểm tra). Bật bằng:
+ * <pre>
+ * mvn test -Dtest=TaskExportHeapTest -Dexport.test=true [-Dexport.test.rows=1000000]
+ * </pre>
+ * DB dạng file để dữ liệu H2 không nằm trên heap, chỉ đo phần heap do export chiếm.
+ * File DB tồn tại giữa các lần chạy nên tạo lại schema bằng create-drop thay vì Flyway.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/export-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "export.test", matches = "true")
+class TaskExportHeapTest {
+
+    private static final int ROWS = Integer.getInteger("export.test.rows", 1_000_000);
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportStreamsAllRowsWithFlatHeap() throws Exception {
+        User user = userRepository.save(User.builder()
+                .username("exporter")
+                .name("Exporter")
+                .email("exporter@example.com")
+                .password("x")
+                .roles(new HashSet<>())
+                .build());
+        jdbcTemplate.update("insert into tasks (id, title, description, status, priority, user_id, created_at, updated_at) " +
+                "select \"X\", concat('Task ', \"X\"), concat('Mô tả cho task số ', \"X\"), 'PENDING', 'MEDIUM', ?, now(), now() " +
+                "from system_range(1, ?)", user.getId(), ROWS);
+
+        long baseline = usedHeapAfterGc();
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(ROWS / 10);
+
+        long exported = taskExportService.exportTasks(user.getId(), out);
+
+        assertThat(exported).isEqualTo(ROWS);
+        assertThat(out.lines).isEqualTo(ROWS);
+        assertThat(out.maxUsedHeap - baseline).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Bỏ dữ liệu, chỉ đếm dòng và lấy mẫu heap sau mỗi sampleEvery dòng
+    private static final class HeapSamplingOutputStream extends OutputStream {
+        private final int sampleEvery;
+        private long lines;
+        private long maxUsedHeap;
+
+        HeapSamplingOutputStream(int sampleEvery) {
+            this.sampleEvery = Math.max(1, sampleEvery);
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % sampleEvery == 0) {
+                maxUsedHeap = Math.max(maxUsedHeap, usedHeapAfterGc());
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Kiểm tra nội dung export trên lượng dữ liệu nhỏ; đo heap với 1 triệu dòng nằm ở TaskExportHeapTest (opt-in)
+@IntegrationTest
+class TaskExportServiceTest {
+
+    // Lớn hơn vài lần FLUSH_EVERY để đi qua nhiều lần flush giữa chừng
+    private static final int ROWS = 2_500;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportWritesOneJsonLinePerTaskOfUserInIdOrder() throws Exception {
+        User user = users.create("exporter");
+        User other = users.create("exporter-other");
+        insertTasks(user, ROWS);
+        insertTasks(other, 3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = taskExportService.exportTasks(user.getId(), out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<TaskDTO> tasks = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            tasks.add(objectMapper.readValue(line, TaskDTO.class));
+        }
+        assertThat(exported).isEqualTo(ROWS);
+        assertThat(tasks).hasSize(ROWS);
+        assertThat(tasks).allSatisfy(task -> assertThat(task.userId()).isEqualTo(user.getId()));
+        assertThat(tasks).extracting(TaskDTO::id).isSorted().doesNotHaveDuplicates();
+        assertThat(tasks.get(0).title()).isEqualTo("Task 1");
+        assertThat(tasks.get(ROWS - 1).description()).isEqualTo("Mô tả cho task số " + ROWS);
+        assertThat(tasks.get(0).status()).isEqualTo("PENDING");
+    }
+
+    @Test
+    void exportOfUserWithoutTasksWritesNothing() throws Exception {
+        User user = users.create("exporter-empty");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = taskExportService.exportTasks(user.getId(), out);
+
+        assertThat(exported).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    private void insertTasks(User user, int rows) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= rows; i++) {
+            tasks.add(Task.builder()
+                    .title("Task " + i)
+                    .description("Mô tả cho task số " + i)
+                    .status(Status.PENDING)
+                    .priority(Priority.MEDIUM)
+                    .user(user)
+                    .build());
+        }
+        taskRepository.saveAll(tasks);
+    }
+}
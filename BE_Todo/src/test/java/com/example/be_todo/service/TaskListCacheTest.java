@@ -0,0 +1,111 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchOperationType;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskUpdateRequestDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Danh sách task được cache theo user và bị xoá đúng lúc bởi mọi thao tác ghi
+@IntegrationTest
+class TaskListCacheTest {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = users.create("owner");
+        other = users.create("other");
+    }
+
+    @Test
+    void repeatedReadsHitCacheUntilTaskChanges() {
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Viết báo cáo"));
+        assertThat(personalTaskService.getMyTasks(owner.getId())).hasSize(1);
+
+        statistics.clear();
+        assertThat(personalTaskService.getMyTasks(owner.getId())).hasSize(1);
+        assertThat(taskService.getTasksByUser(owner.getId())).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(personalTaskService.getMyTasksByStatus(owner.getId(), Status.COMPLETED)).isEmpty();
+        personalTaskService.updateStatus(task.getId(), Status.COMPLETED, owner.getId());
+        assertThat(personalTaskService.getMyTasksByStatus(owner.getId(), Status.COMPLETED)).hasSize(1);
+        assertThat(taskService.getTasksByUser(owner.getId()))
+                .extracting(TaskDTO::status)
+                .containsExactly(Status.COMPLETED.name());
+
+        personalTaskService.deleteTask(task.getId(), owner.getId());
+        assertThat(personalTaskService.getMyTasks(owner.getId())).isEmpty();
+    }
+
+    @Test
+    void adminReassignInvalidatesBothUsers() {
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Chuyển việc"));
+        assertThat(taskService.getTasksByUser(owner.getId())).hasSize(1);
+        assertThat(taskService.getTasksByUser(other.getId())).isEmpty();
+
+        TaskUpdateRequestDTO request = new TaskUpdateRequestDTO();
+        request.setTitle(task.getTitle());
+        request.setStatus(Status.PENDING);
+        request.setPriority(Priority.HIGH);
+        request.setUserId(other.getId());
+        taskService.updateTask(task.getId(), request, owner.getId(), true);
+
+        assertThat(taskService.getTasksByUser(owner.getId())).isEmpty();
+        assertThat(taskService.getTasksByUser(other.getId())).hasSize(1);
+    }
+
+    @Test
+    void batchInvalidatesAfterCommit() {
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Xoá theo lô"));
+        assertThat(taskService.getTasksByUser(owner.getId())).hasSize(1);
+
+        taskService.executeBatch(List.of(
+                new TaskBatchOperationDTO(TaskBatchOperationType.DELETE, task.getId(), null, null),
+                new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, newTask("Mới 1")),
+                new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, newTask("Mới 2"))
+        ), owner.getId(), false);
+
+        assertThat(taskService.getTasksByUser(owner.getId()))
+                .extracting(TaskDTO::title)
+                .containsExactlyInAnyOrder("Mới 1", "Mới 2");
+    }
+
+    private static Task newTask(String title) {
+        return Task.builder()
+                .title(title)
+                .priority(Priority.MEDIUM)
+                .build();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskPatch;
+import com.example.be_todo.dto.TaskUpdateRequestDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// PATCH chỉ ghi field có trong body; nhiều request cùng sửa 1 task từ cùng version thì đúng 1 request thắng, còn lại 409
+@IntegrationTest
+class TaskPatchConcurrencyTest {
+
+    private static final int WRITERS = 16;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.create("patch-owner");
+    }
+
+    @Test
+    void partialPatchLeavesOtherFieldsUntouched() throws Exception {
+        Task draft = newTask("Viết báo cáo");
+        draft.setDescription("Quý 3");
+        draft.setPriority(Priority.HIGH);
+        draft.setDueDate(LocalDateTime.of(2030, 1, 1, 9, 0));
+        Task task = personalTaskService.createTask(owner.getId(), draft);
+        assertThat(task.getVersion()).isZero();
+
+        TaskDTO renamed = taskService.patchTask(task.getId(), patch("{\"title\": \"Viết báo cáo quý\"}"), 0L,
+                owner.getId(), false);
+        assertThat(renamed.title()).isEqualTo("Viết báo cáo quý");
+        assertThat(renamed.description()).isEqualTo("Quý 3");
+        assertThat(renamed.priority()).isEqualTo(Priority.HIGH.name());
+        assertThat(renamed.dueDate()).isEqualTo(LocalDateTime.of(2030, 1, 1, 9, 0));
+        assertThat(renamed.version()).isEqualTo(1L);
+
+        // null trong merge patch = xoá giá trị; field cần giá trị cũ (status) đi nhánh nạp task
+        TaskDTO completed = taskService.patchTask(task.getId(),
+                patch("{\"description\": null, \"status\": \"COMPLETED\"}"), 1L, owner.getId(), false);
+        assertThat(completed.description()).isNull();
+        assertThat(completed.status()).isEqualTo(Status.COMPLETED.name());
+        assertThat(completed.title()).isEqualTo("Viết báo cáo quý");
+        assertThat(completed.version()).isEqualTo(2L);
+        assertThat(taskStatsService.getStats(owner.getId()).byStatus().get(Status.COMPLETED)).isEqualTo(1L);
+    }
+
+    @Test
+    void staleVersionIsRejectedWithConflict() throws Exception {
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Họp nhóm"));
+        taskService.patchTask(task.getId(), patch("{\"title\": \"Họp nhóm sáng\"}"), 0L, owner.getId(), false);
+
+        assertThatThrownBy(() -> taskService.patchTask(task.getId(), patch("{\"title\": \"Họp nhóm chiều\"}"), 0L,
+                owner.getId(), false))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> taskService.patchTask(task.getId(), patch("{\"priority\": \"LOW\"}"), 0L,
+                owner.getId(), false))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        // PUT mang version cũ cũng bị từ chối
+        TaskUpdateRequestDTO request = new TaskUpdateRequestDTO();
+        request.setTitle("Họp nhóm tối");
+        request.setPriority(Priority.MEDIUM);
+        request.setStatus(Status.PENDING);
+        request.setVersion(0L);
+        assertThatThrownBy(() -> taskService.updateTask(task.getId(), request, owner.getId(), false))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getTitle()).isEqualTo("Họp nhóm sáng");
+    }
+
+    @Test
+    void patchWithoutVersionIsRejected() throws Exception {
+        TaskPatch patch = patch("{\"title\": \"Không có version\"}");
+        assertThatThrownBy(() -> patch.expectedVersion(null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_REQUIRED));
+        assertThat(patch.expectedVersion("W/\"7\"")).isEqualTo(7L);
+        assertThat(patch("{\"title\": \"x\", \"version\": 3}").expectedVersion(null)).isEqualTo(3L);
+        assertThatThrownBy(() -> patch("{\"owner\": 1}"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void concurrentTitlePatchesFromTheSameVersionHaveOneWinner() throws Exception {
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Tranh chấp"));
+
+        List<String> winners = hammer(task.getId(), i -> "{\"title\": \"Writer " + i + "\"}");
+
+        assertThat(winners).hasSize(1);
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(stored.getVersion()).isEqualTo(1L);
+        assertThat(stored.getTitle()).isEqualTo(winners.get(0));
+    }
+
+    @Test
+    void concurrentStatusPatchesKeepCountersConsistent() throws Exception {
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Đổi trạng thái"));
+        Status[] statuses = {Status.IN_PROGRESS, Status.COMPLETED};
+
+        List<String> winners = hammer(task.getId(), i -> "{\"status\": \"" + statuses[i % 2] + "\"}");
+
+        assertThat(winners).hasSize(1);
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(stored.getVersion()).isEqualTo(1L);
+        Map<Status, Long> byStatus = taskStatsService.getStats(owner.getId()).byStatus();
+        assertThat(byStatus.get(stored.getStatus())).isEqualTo(1L);
+        assertThat(byStatus.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(1L);
+    }
+
+    @Test
+    void concurrentPatchesFromAdminAndOwnerHaveOneWinner() throws Exception {
+        User admin = users.create("patch-admin", "ADMIN");
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Admin và owner"));
+
+        List<String> winners = hammer(task.getId(), i -> "{\"title\": \"Writer " + i + "\"}",
+                i -> i % 2 == 0 ? owner : admin);
+
+        assertThat(winners).hasSize(1);
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(stored.getVersion()).isEqualTo(1L);
+        assertThat(stored.getTitle()).isEqualTo(winners.get(0));
+        assertThat(stored.getUser().getId()).isEqualTo(owner.getId());
+    }
+
+    // Task đã nạp (version cũ) trước khi request khác ghi: kiểm tra version lúc đầu vẫn qua, xung đột chỉ lộ ra lúc flush
+    @Test
+    void writeOfStaleLoadedTaskIsRejectedAtFlush() throws Exception {
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Nạp trước"));
+        TaskPatch completed = patch("{\"status\": \"COMPLETED\"}");
+
+        assertThatThrownBy(() -> inStaleTransaction(task.getId(),
+                () -> taskService.patchTask(task.getId(), completed, 0L, owner.getId(), false)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> inStaleTransaction(task.getId(),
+                () -> taskService.deleteTask(task.getId(), owner.getId(), false)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> inStaleTransaction(task.getId(),
+                () -> personalTaskService.deleteTask(task.getId(), owner.getId())))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(stored.getVersion()).isEqualTo(3L);
+        assertThat(taskStatsService.getStats(owner.getId()).total()).isEqualTo(1L);
+        assertThat(taskStatsService.reconcile(owner.getId())).isZero();
+    }
+
+    // Nạp task trong transaction, luồng khác đổi tiêu đề (version + 1) và commit, rồi mới chạy write trong transaction đó
+    private void inStaleTransaction(Long taskId, Runnable write) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Task loaded = taskRepository.findById(taskId).orElseThrow();
+            CompletableFuture.runAsync(() -> {
+                try {
+                    taskService.patchTask(taskId, patch("{\"title\": \"Ghi chèn\"}"), loaded.getVersion(),
+                            owner.getId(), false);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).orTimeout(30, TimeUnit.SECONDS).join();
+            write.run();
+        });
+    }
+
+    private List<String> hammer(Long taskId, IntFunction<String> body) throws Exception {
+        return hammer(taskId, body, i -> owner);
+    }
+
+    // WRITERS luồng cùng PATCH task từ version 0 (writer khác owner đi nhánh admin); trả về tiêu đề của các request
+    // thành công, mọi request còn lại phải là 409
+    private List<String> hammer(Long taskId, IntFunction<String> body, IntFunction<User> writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<String> winners = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                TaskPatch patch = patch(body.apply(i));
+                User user = writer.apply(i);
+                boolean isAdmin = !user.getId().equals(owner.getId());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        winners.add(taskService.patchTask(taskId, patch, 0L, user.getId(), isAdmin).title());
+                    } catch (ResponseStatusException e) {
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new ArrayList<>(winners);
+    }
+
+    private TaskPatch patch(String json) throws Exception {
+        return TaskPatch.parse(objectMapper.readTree(json), objectMapper);
+    }
+
+    private static Task newTask(String title) {
+        return Task.builder()
+                .title(title)
+                .priority(Priority.MEDIUM)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskPageDTO;
+import com.example.be_todo.dto.TaskSort;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.TaskCategoryRepository;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Đọc danh sách task phải là 1 câu SELECT duy nhất và không nạp entity nào (không N+1 theo category)
+@IntegrationTest
+class TaskReadQueryTest {
+
+    private static final int CATEGORIES = 5;
+    private static final int TASKS = 40;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = users.create("reader");
+
+        List<TaskCategory> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            TaskCategory category = new TaskCategory();
+            category.setName("Category " + i);
+            category.setColor("#00000" + i);
+            category.setUser(user);
+            categories.add(taskCategoryRepository.save(category));
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(Task.builder()
+                    .title("Task " + i)
+                    .status(i % 2 == 0 ? Status.PENDING : Status.COMPLETED)
+                    .priority(Priority.MEDIUM)
+                    .dueDate(i % 4 == 0 ? null : LocalDateTime.now().plusDays(i))
+                    .category(i % 3 == 0 ? null : categories.get(i % CATEGORIES))
+                    .user(user)
+                    .build());
+        }
+        taskRepository.saveAll(tasks);
+        statistics.clear();
+    }
+
+    @Test
+    void listingIsSingleSelectWithoutEntities() {
+        List<TaskDTO> tasks = personalTaskService.getMyTasks(user.getId());
+
+        assertThat(tasks).hasSize(TASKS);
+        assertThat(tasks).filteredOn(task -> task.category() != null)
+                .allSatisfy(task -> assertThat(task.category().getName()).startsWith("Category "));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        statistics.clear();
+        assertThat(taskService.getTasksByUserAndStatus(user.getId(), Status.PENDING)).hasSize(TASKS / 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void keysetPageUsesAtMostTwoSelects() {
+        // Trang đầu nằm trọn trong phần có dueDate
+        TaskPageDTO first = taskService.getTaskPage(user.getId(), null, TaskSort.DUE_DATE, null, 10);
+        assertThat(first.items()).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // Trang vắt qua phần dueDate null: thêm đúng 1 câu SELECT
+        statistics.clear();
+        TaskPageDTO rest = taskService.getTaskPage(user.getId(), null, TaskSort.DUE_DATE, first.nextCursor(), TASKS);
+        assertThat(rest.items()).hasSize(TASKS - 10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchOperationType;
+import com.example.be_todo.dto.TaskBatchResultDTO;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskSearchPageDTO;
+import com.example.be_todo.dto.TaskUpdateRequestDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.service.Impl.TaskSearchServiceImpl;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Index tìm kiếm theo sát thao tác ghi qua service; sau restart đồng bộ được cả thay đổi ghi thẳng vào DB
+@IntegrationTest
+class TaskSearchServiceTest {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private TaskSearchServiceImpl taskSearchService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = users.create("search");
+    }
+
+    @Test
+    void searchFollowsTaskMutations() {
+        Task report = taskService.createTask(user.getId(), task("Viết báo cáo", "Gửi trước thứ Sáu"), false);
+        Task shopping = personalTaskService.createTask(user.getId(), task("Đi chợ", "Mua rau, thịt"));
+        List<TaskBatchResultDTO> batch = taskService.executeBatch(List.of(
+                new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, task("Báo cáo quý", null))),
+                user.getId(), false);
+        Long quarterly = batch.get(0).taskId();
+
+        TaskSearchPageDTO page = taskSearchService.search(user.getId(), "bao cao", 0, 1);
+        assertThat(page.total()).isEqualTo(2);
+        assertThat(page.items()).extracting(TaskDTO::id).containsExactly(quarterly);
+        assertThat(page.nextPage()).isEqualTo(1);
+        assertThat(taskSearchService.search(user.getId(), "bao cao", 1, 1).items())
+                .extracting(TaskDTO::id).containsExactly(report.getId());
+        assertThat(ids("mua th")).containsExactly(shopping.getId());
+
+        // Sửa tiêu đề: từ cũ không còn khớp
+        personalTaskService.updateTask(shopping.getId(), task("Đi siêu thị", "Mua rau"), user.getId());
+        assertThat(ids("cho")).isEmpty();
+        assertThat(ids("sieu thi")).containsExactly(shopping.getId());
+
+        // Admin gán task cho user khác: chỉ user mới tìm thấy
+        User other = users.create("search");
+        TaskUpdateRequestDTO request = new TaskUpdateRequestDTO();
+        request.setTitle("Viết báo cáo");
+        request.setStatus(Status.PENDING);
+        request.setPriority(Priority.MEDIUM);
+        request.setUserId(other.getId());
+        taskService.updateTask(report.getId(), request, null, true);
+        assertThat(ids("viet")).isEmpty();
+        assertThat(taskSearchService.search(other.getId(), "viet", null, null).items())
+                .extracting(TaskDTO::id).containsExactly(report.getId());
+
+        taskService.deleteTask(quarterly, user.getId(), false);
+        assertThat(ids("bao cao")).isEmpty();
+    }
+
+    @Test
+    void restartLoadsSnapshotAndCatchesUpWithDatabase() {
+        Task kept = taskService.createTask(user.getId(), task("Sửa xe", null), false);
+        Task renamed = taskService.createTask(user.getId(), task("Đóng tiền điện", null), false);
+        Task deleted = taskService.createTask(user.getId(), task("Gọi điện", null), false);
+        assertThat(taskSearchService.writeSnapshot()).isTrue();
+        assertThat(taskSearchService.writeSnapshot()).as("Index không đổi thì không ghi lại").isFalse();
+
+        // Ghi thẳng vào DB (không có event) trong lúc "server tắt"
+        Task direct = task("Đóng tiền nước", null);
+        direct.setUser(user);
+        direct = taskRepository.save(direct);
+        Task changed = taskRepository.findById(renamed.getId()).orElseThrow();
+        changed.setTitle("Đóng tiền mạng");
+        taskRepository.save(changed);
+        taskRepository.deleteById(deleted.getId());
+
+        taskSearchService.start();
+
+        assertThat(ids("sua xe")).containsExactly(kept.getId());
+        assertThat(ids("dong tien")).containsExactlyInAnyOrder(renamed.getId(), direct.getId());
+        assertThat(ids("dien")).isEmpty();
+    }
+
+    private List<Long> ids(String query) {
+        return taskSearchService.search(user.getId(), query, 0, 100).items().stream().map(TaskDTO::id).toList();
+    }
+
+    private static Task task(String title, String description) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setStatus(Status.PENDING);
+        task.setPriority(Priority.MEDIUM);
+        return task;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskStatsDTO;
+import com.example.be_todo.dto.TaskUpdateRequestDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.TaskCounterDimension;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.TaskCategoryRepository;
+import com.example.be_todo.repository.TaskCounterRepository;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bộ đếm task được cập nhật cùng mọi thao tác ghi; reconcile sửa được bộ đếm bị lệch
+@IntegrationTest
+class TaskStatsServiceTest {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = users.create("stats");
+    }
+
+    @Test
+    void countersFollowTaskMutations() {
+        TaskCategory work = createCategory("Work");
+        TaskCategory home = createCategory("Home");
+
+        Task first = taskService.createTask(user.getId(), task("First", Priority.HIGH, work), false);
+        Task second = personalTaskService.createTask(user.getId(), task("Second", Priority.LOW, null));
+        taskService.updateStatus(first.getId(), Status.COMPLETED, user.getId(), false);
+
+        TaskStatsDTO stats = taskStatsService.getStats(user.getId());
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.byStatus()).containsEntry(Status.COMPLETED, 1L).containsEntry(Status.PENDING, 1L)
+                .containsEntry(Status.IN_PROGRESS, 0L);
+        assertThat(stats.byPriority()).containsEntry(Priority.HIGH, 1L).containsEntry(Priority.LOW, 1L)
+                .containsEntry(Priority.MEDIUM, 0L);
+        assertThat(stats.uncategorized()).isEqualTo(1);
+        assertThat(stats.byCategory()).containsExactly(
+                new TaskStatsDTO.CategoryCount(work.getId(), "Work", null, 1));
+
+        // Chuyển cả category rồi xoá category: task về "không có category"
+        personalTaskService.moveTasksToCategory(user.getId(), work.getId(), home.getId());
+        assertThat(taskStatsService.getStats(user.getId()).byCategory())
+                .extracting(TaskStatsDTO.CategoryCount::categoryId).containsExactly(home.getId());
+        personalTaskService.deleteTaskCategory(user.getId(), home.getId());
+        stats = taskStatsService.getStats(user.getId());
+        assertThat(stats.uncategorized()).isEqualTo(2);
+        assertThat(stats.byCategory()).isEmpty();
+
+        // Admin gán lại task cho user khác: trừ bên cũ, cộng bên mới
+        User other = users.create("stats");
+        TaskUpdateRequestDTO request = new TaskUpdateRequestDTO();
+        request.setTitle("Second");
+        request.setStatus(Status.IN_PROGRESS);
+        request.setPriority(Priority.LOW);
+        request.setUserId(other.getId());
+        taskService.updateTask(second.getId(), request, null, true);
+        assertThat(taskStatsService.getStats(user.getId()).total()).isEqualTo(1);
+        assertThat(taskStatsService.getStats(other.getId()).byStatus()).containsEntry(Status.IN_PROGRESS, 1L);
+
+        personalTaskService.deleteTask(first.getId(), user.getId());
+        assertThat(taskStatsService.getStats(user.getId()).total()).isZero();
+        assertThat(taskStatsService.reconcile(user.getId())).isZero();
+        assertThat(taskStatsService.reconcile(other.getId())).isZero();
+    }
+
+    @Test
+    void overdueIsCountedAtReadTime() {
+        Task late = task("Late", Priority.MEDIUM, null);
+        late.setDueDate(LocalDateTime.now().minusDays(1));
+        taskService.createTask(user.getId(), late, false);
+        Task done = task("Done", Priority.MEDIUM, null);
+        done.setDueDate(LocalDateTime.now().minusDays(1));
+        done.setStatus(Status.COMPLETED);
+        taskService.createTask(user.getId(), done, false);
+
+        assertThat(taskStatsService.getStats(user.getId()).overdue()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileRepairsDrift() {
+        taskService.createTask(user.getId(), task("Task", Priority.HIGH, null), false);
+        // Bộ đếm lệch (ví dụ task bị sửa thẳng trong DB)
+        transactionTemplate.executeWithoutResult(status -> {
+            taskCounterRepository.increment(user.getId(), TaskCounterDimension.STATUS.name(), Status.PENDING.name(), 4);
+            taskCounterRepository.increment(user.getId(), TaskCounterDimension.PRIORITY.name(), Priority.LOW.name(), 2);
+        });
+        assertThat(taskStatsService.getStats(user.getId()).total()).isEqualTo(5);
+
+        assertThat(taskStatsService.reconcile(user.getId())).isEqualTo(2);
+
+        TaskStatsDTO stats = taskStatsService.getStats(user.getId());
+        assertThat(stats.total()).isEqualTo(1);
+        assertThat(stats.byPriority()).containsEntry(Priority.HIGH, 1L).containsEntry(Priority.LOW, 0L);
+        assertThat(taskStatsService.reconcile(user.getId())).isZero();
+    }
+
+    private TaskCategory createCategory(String name) {
+        TaskCategory category = new TaskCategory();
+        category.setName(name);
+        category.setUser(user);
+        return taskCategoryRepository.save(category);
+    }
+
+    private static Task task(String title, Priority priority, TaskCategory category) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setPriority(priority);
+        task.setCategory(category);
+        return task;
+    }
+}
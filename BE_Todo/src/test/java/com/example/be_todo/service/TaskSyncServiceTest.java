@@ -0,0 +1,259 @@
+package com.example.be_todo.service;
+
+import com.example.be_todo.dto.TaskBatchOperationDTO;
+import com.example.be_todo.dto.TaskBatchOperationType;
+import com.example.be_todo.dto.TaskDTO;
+import com.example.be_todo.dto.TaskSyncCursor;
+import com.example.be_todo.dto.TaskSyncDTO;
+import com.example.be_todo.dto.TaskUpdateRequestDTO;
+import com.example.be_todo.entity.Priority;
+import com.example.be_todo.entity.Status;
+import com.example.be_todo.entity.Task;
+import com.example.be_todo.entity.TaskCategory;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.TaskRepository;
+import com.example.be_todo.support.IntegrationTest;
+import com.example.be_todo.support.TestUsers;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Delta sync chỉ trả phần thay đổi sau cursor, kèm tombstone của task / category đã xoá
+@IntegrationTest
+class TaskSyncServiceTest {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private TaskSyncService taskSyncService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonalTaskService personalTaskService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.create("sync-owner");
+    }
+
+    @Test
+    void onlyChangesAfterTheCursorAreReturned() {
+        List<TaskBatchOperationDTO> operations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            operations.add(new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, newTask("Task " + i)));
+        }
+        List<Long> ids = taskService.executeBatch(operations, owner.getId(), false).stream()
+                .map(result -> result.taskId())
+                .toList();
+
+        TaskSyncDTO initial = taskSyncService.getChanges(owner.getId(), null, null);
+        assertThat(initial.tasks()).hasSize(20);
+        assertThat(initial.hasMore()).isFalse();
+
+        TaskSyncDTO unchanged = taskSyncService.getChanges(owner.getId(), initial.cursor(), null);
+        assertThat(unchanged.tasks()).isEmpty();
+        assertThat(unchanged.deletedTaskIds()).isEmpty();
+
+        taskService.updateStatus(ids.get(3), Status.COMPLETED, owner.getId(), false);
+        personalTaskService.updateStatus(ids.get(7), Status.IN_PROGRESS, owner.getId());
+        personalTaskService.deleteTask(ids.get(11), owner.getId());
+
+        TaskSyncDTO delta = taskSyncService.getChanges(owner.getId(), unchanged.cursor(), null);
+        assertThat(delta.tasks()).extracting(TaskDTO::id).containsExactly(ids.get(3), ids.get(7));
+        assertThat(delta.deletedTaskIds()).containsExactly(ids.get(11));
+        assertThat(taskSyncService.getChanges(owner.getId(), delta.cursor(), null).tasks()).isEmpty();
+    }
+
+    @Test
+    void categoryDeletionSendsTombstoneAndUncategorizedTasks() {
+        TaskCategory category = new TaskCategory();
+        category.setName("Work");
+        category = personalTaskService.createTaskCategory(owner.getId(), category);
+        Task draft = newTask("In category");
+        draft.setCategory(category);
+        Task task = personalTaskService.createTask(owner.getId(), draft);
+        personalTaskService.createTask(owner.getId(), newTask("Other"));
+        String cursor = taskSyncService.getChanges(owner.getId(), null, null).cursor();
+
+        personalTaskService.deleteTaskCategory(owner.getId(), category.getId());
+
+        TaskSyncDTO delta = taskSyncService.getChanges(owner.getId(), cursor, null);
+        assertThat(delta.deletedCategoryIds()).containsExactly(category.getId());
+        assertThat(delta.tasks()).singleElement().satisfies(changed -> {
+            assertThat(changed.id()).isEqualTo(task.getId());
+            assertThat(changed.category()).isNull();
+        });
+    }
+
+    @Test
+    void reassignedTaskLeavesTombstoneForPreviousOwner() {
+        User other = users.create("sync-other");
+        Task task = personalTaskService.createTask(owner.getId(), newTask("Reassign me"));
+        String ownerCursor = taskSyncService.getChanges(owner.getId(), null, null).cursor();
+        String otherCursor = taskSyncService.getChanges(other.getId(), null, null).cursor();
+
+        TaskUpdateRequestDTO request = new TaskUpdateRequestDTO();
+        request.setTitle(task.getTitle());
+        request.setStatus(Status.PENDING);
+        request.setPriority(Priority.MEDIUM);
+        request.setUserId(other.getId());
+        taskService.updateTask(task.getId(), request, owner.getId(), true);
+
+        TaskSyncDTO ownerDelta = taskSyncService.getChanges(owner.getId(), ownerCursor, null);
+        assertThat(ownerDelta.tasks()).isEmpty();
+        assertThat(ownerDelta.deletedTaskIds()).containsExactly(task.getId());
+        TaskSyncDTO otherDelta = taskSyncService.getChanges(other.getId(), otherCursor, null);
+        assertThat(otherDelta.tasks()).extracting(TaskDTO::id).containsExactly(task.getId());
+
+        // Gán trả lại: tombstone cũ bị bỏ, user ban đầu chỉ thấy task
+        request.setUserId(owner.getId());
+        taskService.updateTask(task.getId(), request, owner.getId(), true);
+        TaskSyncDTO back = taskSyncService.getChanges(owner.getId(), ownerCursor, null);
+        assertThat(back.tasks()).extracting(TaskDTO::id).containsExactly(task.getId());
+        assertThat(back.deletedTaskIds()).isEmpty();
+    }
+
+    @Test
+    void largeChangeSeqGroupIsSplitAcrossPages() {
+        for (int i = 0; i < 3; i++) {
+            personalTaskService.createTask(owner.getId(), newTask("Single " + i));
+        }
+        // 4 task tạo trong 1 batch mang cùng change_seq
+        List<TaskBatchOperationDTO> operations = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            operations.add(new TaskBatchOperationDTO(TaskBatchOperationType.CREATE, null, null, newTask("Batch " + i)));
+        }
+        taskService.executeBatch(operations, owner.getId(), false);
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        TaskSyncDTO page;
+        do {
+            page = taskSyncService.getChanges(owner.getId(), cursor, 2);
+            pageSizes.add(page.tasks().size());
+            page.tasks().forEach(task -> seen.add(task.id()));
+            cursor = page.cursor();
+        } while (page.hasMore());
+
+        assertThat(pageSizes).containsExactly(2, 2, 2, 1);
+        assertThat(seen).hasSize(7).doesNotHaveDuplicates();
+
+        // Xoá category: tombstone category và các task bỏ category cùng 1 change_seq, trang 1 phần tử vẫn đủ
+        TaskCategory category = new TaskCategory();
+        category.setName("Bulk");
+        category = personalTaskService.createTaskCategory(owner.getId(), category);
+        List<Long> moved = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task draft = newTask("In category " + i);
+            draft.setCategory(category);
+            moved.add(personalTaskService.createTask(owner.getId(), draft).getId());
+        }
+        cursor = taskSyncService.getChanges(owner.getId(), cursor, null).cursor();
+        personalTaskService.deleteTaskCategory(owner.getId(), category.getId());
+
+        List<Long> deletedCategories = new ArrayList<>();
+        List<Long> changed = new ArrayList<>();
+        do {
+            page = taskSyncService.getChanges(owner.getId(), cursor, 1);
+            assertThat(page.tasks().size() + page.deletedCategoryIds().size()).isEqualTo(1);
+            deletedCategories.addAll(page.deletedCategoryIds());
+            page.tasks().forEach(task -> changed.add(task.id()));
+            cursor = page.cursor();
+        } while (page.hasMore());
+
+        assertThat(deletedCategories).containsExactly(category.getId());
+        assertThat(changed).containsExactlyElementsOf(moved);
+        assertThat(taskSyncService.getChanges(owner.getId(), cursor, null).tasks()).isEmpty();
+    }
+
+    @Test
+    void concurrentDeleteAndUpdateOfOneTaskDoNotDeadlock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                Task task = personalTaskService.createTask(owner.getId(), newTask("Race " + round));
+                String cursor = taskSyncService.getChanges(owner.getId(), null, null).cursor();
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> delete = executor.submit(() -> {
+                    start.await();
+                    return raceOutcome(() -> taskService.deleteTask(task.getId(), owner.getId(), false));
+                });
+                Future<?> update = executor.submit(() -> {
+                    start.await();
+                    return raceOutcome(() -> taskService.updateStatus(task.getId(), Status.COMPLETED, owner.getId(), false));
+                });
+                start.countDown();
+                delete.get(30, TimeUnit.SECONDS);
+                update.get(30, TimeUnit.SECONDS);
+
+                // Dù bên nào thắng, delta sync phải khớp với trạng thái cuối của task
+                TaskSyncDTO delta = taskSyncService.getChanges(owner.getId(), cursor, null);
+                if (taskRepository.existsById(task.getId())) {
+                    assertThat(delta.deletedTaskIds()).isEmpty();
+                } else {
+                    assertThat(delta.deletedTaskIds()).containsExactly(task.getId());
+                    assertThat(delta.tasks()).isEmpty();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(taskStatsService.reconcile(owner.getId())).isZero();
+    }
+
+    // Thua cuộc đua chỉ được phép là "không tìm thấy" hoặc xung đột version; lỗi khoá (deadlock / lock timeout) thì fail
+    private static Void raceOutcome(Runnable write) {
+        try {
+            write.run();
+        } catch (EntityNotFoundException e) {
+            // bên kia đã xoá / sửa task trước
+        } catch (ResponseStatusException e) {
+            assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        }
+        return null;
+    }
+
+    @Test
+    void expiredCursorIsRejected() {
+        String expired = TaskSyncCursor.through(0, Instant.now().minus(Duration.ofDays(60))).encode();
+
+        assertThatThrownBy(() -> taskSyncService.getChanges(owner.getId(), expired, null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.GONE));
+    }
+
+    private static Task newTask(String title) {
+        return Task.builder()
+                .title(title)
+                .priority(Priority.MEDIUM)
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.be_todo.support;
+
+import com.example.be_todo.reminder.Reminder;
+import com.example.be_todo.reminder.ReminderSink;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Giữ lại mọi nhắc nhở đã gửi để ReminderSchedulerTest kiểm tra (context dùng chung nên có cả nhắc nhở của test khác)
+public class CapturingReminderSink implements ReminderSink {
+
+    private final List<Reminder> received = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(Reminder reminder) {
+        received.add(reminder);
+    }
+
+    public List<Reminder> received() {
+        return received;
+    }
+
+    public void clear() {
+        received.clear();
+    }
+}
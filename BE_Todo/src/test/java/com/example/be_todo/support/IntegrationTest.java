@@ -0,0 +1,39 @@
+package com.example.be_todo.support;
+
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Cấu hình chung cho mọi test cần cả ứng dụng: cùng 1 Spring context (Spring cache context theo cấu hình,
+ * chỉ dựng 1 lần cho cả suite) trên DB H2 của application-test.properties.
+ * DB dùng chung giữa các test class: mỗi test tự tạo user riêng qua {@link TestUsers} và chỉ kiểm tra dữ liệu của user đó.
+ * Các giá trị dưới đây chỉ để test chạm được giới hạn với ít dữ liệu; không thêm properties riêng ở từng class
+ * (mỗi bộ properties khác nhau là 1 context mới).
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+        // Đếm số câu SQL (TaskReadQueryTest, TaskListCacheTest, TaskListETagTest)
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Chỉ ghi lại SQL trong lúc RepositoryQueryPlanTest đang capture
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.be_todo.repository.RepositoryQueryPlanTest$SqlCapture",
+        "search.snapshot-path=target/task-search-test/task-search.snapshot",
+        "search.catch-up-margin=0s",
+        "tasks.events.max-per-user=2",
+        "tasks.calendar.max-results=5"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@Import({TestUsers.class, CapturingReminderSink.class})
+@ActiveProfiles("test")
+public @interface IntegrationTest {
+}
@@ -0,0 +1,45 @@
+package com.example.be_todo.support;
+
+import com.example.be_todo.entity.Role;
+import com.example.be_todo.entity.User;
+import com.example.be_todo.repository.RoleRepository;
+import com.example.be_todo.repository.UserRepository;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tạo user cho test trên DB dùng chung: username = prefix + hậu tố ngẫu nhiên nên không đụng user của test khác.
+ */
+public class TestUsers {
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+
+    public TestUsers(UserRepository userRepository, RoleRepository roleRepository) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+    }
+
+    // roles: tên role (USER, ADMIN...), tạo role nếu chưa có
+    public User create(String prefix, String... roles) {
+        Set<Role> assigned = new HashSet<>();
+        for (String name : roles) {
+            assigned.add(roleRepository.findByName(name)
+                    .orElseGet(() -> roleRepository.save(Role.builder().name(name).build())));
+        }
+        String username = uniqueName(prefix);
+        return userRepository.save(User.builder()
+                .username(username)
+                .name(prefix)
+                .email(username + "@example.com")
+                .password("x")
+                .roles(assigned)
+                .build());
+    }
+
+    public static String uniqueName(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -1,4 +1,4 @@
-import axiosInstance from "./axiosInstance";
+import axiosInstance, { refreshAccessToken } from "./axiosInstance";
 
 const register = async (userData) => {
   try {
@@ -24,6 +24,13 @@ const login = async (credentials) => {
 };
 
 const logout = () => {
+  const refreshToken = localStorage.getItem("refreshToken");
+  if (refreshToken) {
+    // Revoke the refresh token family on the server; local logout does not wait for it
+    axiosInstance
+      .post(`/api/auth/logout?refreshToken=${encodeURIComponent(refreshToken)}`)
+      .catch(() => {});
+  }
   localStorage.removeItem("token");
   localStorage.removeItem("refreshToken");
 };
@@ -34,20 +41,7 @@ const isAuthenticated = () => {
 
 const refreshToken = async () => {
   try {
-    const refreshToken = localStorage.getItem("refreshToken");
-    if (!refreshToken) {
-      throw new Error("No refresh token available");
-    }
-
-    const response = await axiosInstance.post(
-      `/api/auth/refresh-token?refreshToken=${refreshToken}`
-    );
-    if (response.data) {
-      localStorage.setItem("token", response.data.accessToken);
-      localStorage.setItem("refreshToken", response.data.refreshToken);
-      return response.data.accessToken;
-    }
-    return null;
+    return await refreshAccessToken(localStorage.getItem("token"));
   } catch (error) {
     logout();
     throw error;
@@ -10,6 +10,10 @@ const axiosInstance = axios.create({
   },
 });
 
+// Conditional GET: last ETag + body per URL. The server answers 304 when the
+// list has not changed, and the cached body is returned instead.
+const etagCache = new Map();
+
 // Flag to prevent multiple refresh token requests
 let isRefreshing = false;
 // Queue of pending requests
@@ -27,6 +31,33 @@ const processQueue = (error, token = null) => {
   failedQueue = [];
 };
 
+// Tabs share the refresh token in localStorage. Refreshing from two tabs at once
+// would send the same token twice, so refreshes are serialized across tabs with
+// a Web Lock. A tab that waited for the lock uses the token the other tab stored
+// instead of sending its (already rotated) refresh token again.
+// usedAccessToken: the access token the failed request was sent with.
+export const refreshAccessToken = (usedAccessToken) => {
+  const refresh = async () => {
+    const current = localStorage.getItem("token");
+    if (current && current !== usedAccessToken) {
+      return current;
+    }
+    const refreshToken = localStorage.getItem("refreshToken");
+    if (!refreshToken) {
+      throw new Error("No refresh token available");
+    }
+    const response = await axios.post(
+      `${API_URL}/api/auth/refresh-token?refreshToken=${refreshToken}`
+    );
+    localStorage.setItem("token", response.data.accessToken);
+    localStorage.setItem("refreshToken", response.data.refreshToken);
+    return response.data.accessToken;
+  };
+  return navigator.locks
+    ? navigator.locks.request("todo-refresh-token", refresh)
+    : refresh();
+};
+
 // Request interceptor for adding the auth token
 axiosInstance.interceptors.request.use(
   (config) => {
@@ -34,6 +65,14 @@ axiosInstance.interceptors.request.use(
     if (token) {
       config.headers.Authorization = `Bearer ${token}`;
     }
+    if ((config.method || "get").toLowerCase() === "get") {
+      const cached = etagCache.get(axiosInstance.getUri(config));
+      if (cached) {
+        config.headers["If-None-Match"] = cached.etag;
+      }
+      config.validateStatus = (status) =>
+        (status >= 200 && status < 300) || status === 304;
+    }
     return config;
   },
   (error) => {
@@ -44,6 +83,17 @@ axiosInstance.interceptors.request.use(
 // Response interceptor for handling errors globally
 axiosInstance.interceptors.response.use(
   (response) => {
+    if ((response.config.method || "get").toLowerCase() !== "get") {
+      return response;
+    }
+    const key = axiosInstance.getUri(response.config);
+    if (response.status === 304) {
+      const cached = etagCache.get(key);
+      return { ...response, status: 200, data: cached ? cached.data : response.data };
+    }
+    if (response.headers && response.headers.etag) {
+      etagCache.set(key, { etag: response.headers.etag, data: response.data });
+    }
     return response;
   },
   async (error) => {
@@ -86,25 +136,11 @@ axiosInstance.interceptors.response.use(
       isRefreshing = true;
 
       try {
-        // Call your refresh token endpoint
-        const refreshToken = localStorage.getItem("refreshToken");
-        if (!refreshToken) {
-          throw new Error("No refresh token available");
-        }
-
-        const response = await axios.post(
-          `${API_URL}/api/auth/refresh-token?refreshToken=${refreshToken}`
-        );
-
-        // If refresh successful, store new token and retry original request
-        if (response.status === 200 && response.data) {
-          const newAccessToken = response.data.accessToken;
-          localStorage.setItem("token", newAccessToken);
-          localStorage.setItem("refreshToken", response.data.refreshToken);
-          axiosInstance.defaults.headers.common.Authorization = `Bearer ${newAccessToken}`;
-          processQueue(null, newAccessToken);
-          return axiosInstance(originalRequest);
-        }
+        const usedToken = (originalRequest.headers.Authorization || "").replace(/^Bearer /, "");
+        const newAccessToken = await refreshAccessToken(usedToken);
+        axiosInstance.defaults.headers.common.Authorization = `Bearer ${newAccessToken}`;
+        processQueue(null, newAccessToken);
+        return axiosInstance(originalRequest);
       } catch (refreshError) {
         processQueue(refreshError, null);
         localStorage.removeItem("token");
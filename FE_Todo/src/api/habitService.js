@@ -1,9 +1,26 @@
+import dayjs from "dayjs";
 import axiosInstance from "./axiosInstance";
 
-const getAllHabits = async (userId) => {
+// The backend stores check-ins per date; the page works with days of the current month
+const toUiHabit = (habit) => ({
+  ...habit,
+  totalDays: habit.targetDays,
+  completedDays: (habit.checkIns || []).map((date) => dayjs(date).date()),
+});
+
+const toBackendHabit = (habitData) => ({
+  title: habitData.title,
+  description: habitData.description,
+  targetDays: habitData.totalDays,
+});
+
+// Habits of the logged-in user with this month's check-ins
+const getAllHabits = async () => {
   try {
-    const response = await axiosInstance.get(`/api/habits?userId=${userId}`);
-    return response.data;
+    const from = dayjs().startOf("month").format("YYYY-MM-DD");
+    const to = dayjs().format("YYYY-MM-DD");
+    const response = await axiosInstance.get(`/api/habits?from=${from}&to=${to}`);
+    return response.data.map(toUiHabit);
   } catch (error) {
     throw error;
   }
@@ -20,8 +37,11 @@ const getHabitById = async (habitId) => {
 
 const createHabit = async (habitData) => {
   try {
-    const response = await axiosInstance.post("/api/habits", habitData);
-    return response.data;
+    const response = await axiosInstance.post(
+      "/api/habits",
+      toBackendHabit(habitData)
+    );
+    return toUiHabit(response.data);
   } catch (error) {
     throw error;
   }
@@ -31,9 +51,9 @@ const updateHabit = async (habitId, habitData) => {
   try {
     const response = await axiosInstance.put(
       `/api/habits/${habitId}`,
-      habitData
+      toBackendHabit(habitData)
     );
-    return response.data;
+    return toUiHabit(response.data);
   } catch (error) {
     throw error;
   }
@@ -48,13 +68,11 @@ const deleteHabit = async (habitId) => {
   }
 };
 
-const updateHabitProgress = async (habitId, completedDays) => {
+// Check in (or undo) one day; repeating the call for the same day changes nothing
+const markHabitCompleted = async (habitId, date) => {
   try {
-    const response = await axiosInstance.patch(
-      `/api/habits/${habitId}/progress`,
-      {
-        completedDays,
-      }
+    const response = await axiosInstance.put(
+      `/api/habits/${habitId}/check-ins/${dayjs(date).format("YYYY-MM-DD")}`
     );
     return response.data;
   } catch (error) {
@@ -62,13 +80,25 @@ const updateHabitProgress = async (habitId, completedDays) => {
   }
 };
 
-const markHabitCompleted = async (habitId, date) => {
+const unmarkHabitCompleted = async (habitId, date) => {
   try {
-    const response = await axiosInstance.post(
-      `/api/habits/${habitId}/completion`,
-      {
-        date,
-      }
+    const response = await axiosInstance.delete(
+      `/api/habits/${habitId}/check-ins/${dayjs(date).format("YYYY-MM-DD")}`
+    );
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+// Streaks and completion rate, optionally for a date range
+const getHabitStats = async (habitId, from, to) => {
+  try {
+    const params = new URLSearchParams();
+    if (from) params.append("from", dayjs(from).format("YYYY-MM-DD"));
+    if (to) params.append("to", dayjs(to).format("YYYY-MM-DD"));
+    const response = await axiosInstance.get(
+      `/api/habits/${habitId}/stats?${params.toString()}`
     );
     return response.data;
   } catch (error) {
@@ -82,8 +112,9 @@ const habitService = {
   createHabit,
   updateHabit,
   deleteHabit,
-  updateHabitProgress,
   markHabitCompleted,
+  unmarkHabitCompleted,
+  getHabitStats,
 };
 
 export default habitService;
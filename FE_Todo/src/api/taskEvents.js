@@ -0,0 +1,90 @@
+import { refreshAccessToken } from "./axiosInstance";
+
+const API_URL = "http://localhost:8080";
+
+// Server-Sent Events from GET /api/tasks/events. EventSource cannot send the
+// Authorization header, so the stream is read with fetch. On reconnect the
+// last event id is sent back and the server replays only the missed kinds.
+// onEvent receives "tasks" or "categories". Returns a function that closes the stream.
+// A 401 refreshes the access token once; if that fails (or the new token is
+// rejected too) the user is logged out and the stream stops instead of retrying.
+const subscribeTaskEvents = (onEvent) => {
+  let closed = false;
+  let controller = null;
+  let lastEventId = null;
+  let retryMs = 3000;
+  // Set after a refresh until a connection succeeds, so a rejected new token is not refreshed again
+  let refreshed = false;
+
+  const dispatch = (block) => {
+    let name = null;
+    for (const line of block.split("\n")) {
+      if (line.startsWith(":")) continue; // heartbeat / comment
+      const separator = line.indexOf(":");
+      const field = separator < 0 ? line : line.slice(0, separator);
+      const value = separator < 0 ? "" : line.slice(separator + 1).replace(/^ /, "");
+      if (field === "id") lastEventId = value;
+      else if (field === "event") name = value;
+      else if (field === "retry" && /^\d+$/.test(value)) retryMs = Number(value);
+    }
+    if (name) onEvent(name);
+  };
+
+  const connect = async () => {
+    while (!closed) {
+      controller = new AbortController();
+      try {
+        const headers = { Accept: "text/event-stream" };
+        const token = localStorage.getItem("token");
+        if (token) headers.Authorization = `Bearer ${token}`;
+        if (lastEventId) headers["Last-Event-ID"] = lastEventId;
+
+        const response = await fetch(`${API_URL}/api/tasks/events`, {
+          headers,
+          signal: controller.signal,
+        });
+        if (response.status === 401) {
+          if (refreshed || !token) {
+            closed = true;
+            return;
+          }
+          refreshed = true;
+          try {
+            await refreshAccessToken(token);
+          } catch (error) {
+            closed = true;
+            return;
+          }
+          continue;
+        }
+        if (!response.ok || !response.body) throw new Error(`HTTP ${response.status}`);
+        refreshed = false;
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = "";
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += decoder.decode(value, { stream: true });
+          let end;
+          while ((end = buffer.indexOf("\n\n")) >= 0) {
+            dispatch(buffer.slice(0, end));
+            buffer = buffer.slice(end + 2);
+          }
+        }
+      } catch (error) {
+        if (closed) return;
+      }
+      await new Promise((resolve) => setTimeout(resolve, retryMs));
+    }
+  };
+
+  connect();
+  return () => {
+    closed = true;
+    if (controller) controller.abort();
+  };
+};
+
+export default subscribeTaskEvents;
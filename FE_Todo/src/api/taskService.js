@@ -163,6 +163,22 @@ const updateTask = async (taskId, currentUserId, taskData) => {
   }
 };
 
+// JSON Merge Patch: only the given fields are written (null clears a field).
+// version is the task's current version; a 409 means someone else changed it, reload and retry.
+const patchTask = async (taskId, changes, version) => {
+  try {
+    const response = await axiosInstance.patch(`/api/tasks/${taskId}`, changes, {
+      headers: {
+        "Content-Type": "application/merge-patch+json",
+        "If-Match": `"${version}"`,
+      },
+    });
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
 const updateTaskStatus = async (taskId, status, currentUserId) => {
   try {
     const response = await axiosInstance.patch(
@@ -188,12 +204,50 @@ const deleteTask = async (taskId, currentUserId) => {
   }
 };
 
+// Counts for the current user (total, overdue, by status / priority / category)
+const getTaskStats = async () => {
+  try {
+    const response = await axiosInstance.get("/api/tasks/stats");
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+// Tasks whose [startTime, endTime) intersects [from, to) (ISO date-times), completed ones included
+const getCalendar = async (from, to) => {
+  try {
+    const response = await axiosInstance.get("/api/tasks/calendar", {
+      params: { from, to },
+    });
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+// Unfinished tasks overlapping [start, end); pass excludeTaskId when rescheduling an existing task
+const getScheduleConflicts = async (start, end, excludeTaskId) => {
+  try {
+    const response = await axiosInstance.get("/api/tasks/calendar/conflicts", {
+      params: { start, end, excludeTaskId },
+    });
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
 const taskService = {
   getAllTasks,
+  getCalendar,
+  getScheduleConflicts,
   getMyTasks,
+  getTaskStats,
   getTasksByStatus,
   createTask,
   updateTask,
+  patchTask,
   updateTaskStatus,
   deleteTask,
   // General task functions for Dashboard
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
 import dayjs from "dayjs";
 import {
   Row,
@@ -24,6 +24,7 @@ import statusService from "../api/statusService";
 import priorityService from "../api/priorityService";
 import userService from "../api/userService";
 import * as categoryService from "../api/categoryService";
+import subscribeTaskEvents from "../api/taskEvents";
 import { useAuth } from "../context/AuthContext";
 import "../styles/Dashboard.css";
 
@@ -686,6 +687,15 @@ const Dashboard = () => {
     }
   };
 
+  // Reload when the server pushes a change (another tab or device). The list
+  // endpoints answer 304 when nothing changed, so duplicate events are cheap.
+  const refreshRef = useRef(refreshAllData);
+  refreshRef.current = refreshAllData;
+  useEffect(() => {
+    if (!authUser) return undefined;
+    return subscribeTaskEvents(() => refreshRef.current());
+  }, [authUser]);
+
   // Effect to ensure form is populated when modal is visible
   useEffect(() => {
     if (isTaskModalVisible && !formInitialized) {
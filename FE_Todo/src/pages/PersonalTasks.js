@@ -155,7 +155,7 @@ const PersonalTasks = () => {
           currentUser.id,
           selectedCategory !== "all" ? selectedCategory : null
         ),
-        habitService.getAllHabits(currentUser.id), // Get habits for current user
+        habitService.getAllHabits(), // Get habits for current user
       ]);
 
       console.log("Fetched tasks:", tasksData);
@@ -429,15 +429,12 @@ const PersonalTasks = () => {
         completedDays = completedDays.filter((d) => d !== day);
       }
 
-      // Call API to update habit progress
-      await habitService.updateHabitProgress(habitId, completedDays);
-
-      // Also mark today's completion if needed
+      // Check in (or undo) that day of the current month
+      const date = dayjs().date(day);
       if (completed) {
-        await habitService.markHabitCompleted(
-          habitId,
-          dayjs().format("YYYY-MM-DDTHH:mm:ss")
-        );
+        await habitService.markHabitCompleted(habitId, date);
+      } else {
+        await habitService.unmarkHabitCompleted(habitId, date);
       }
 
       // Update local state